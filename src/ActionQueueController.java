@@ -0,0 +1,49 @@
+// Em ActionQueueController.java
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jogador cujas ações chegam de fora da thread da partida: o teclado (EDT)
+ * ou a rede. offer() pode ser chamado de qualquer thread; as ações entram
+ * na engine no próximo tick, na ordem em que chegaram. Com um limite (rede),
+ * o que passar dele é descartado: um cliente inundando não cresce a memória.
+ */
+public class ActionQueueController implements PlayerController {
+
+    private final ConcurrentLinkedQueue<PlayerAction> actions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxQueued;
+
+    public ActionQueueController() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public ActionQueueController(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    /** false = descartada (fila cheia). */
+    public boolean offer(PlayerAction action) {
+        if (action == null) return false;
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        actions.offer(action);
+        return true;
+    }
+
+    /** Descarta o que ainda não entrou (a conexão vai para outra partida). */
+    public void clear() {
+        while (actions.poll() != null) queued.decrementAndGet();
+    }
+
+    @Override
+    public void act(GameEngine engine) {
+        PlayerAction action;
+        while ((action = actions.poll()) != null) {
+            queued.decrementAndGet();
+            action.applyTo(engine);
+        }
+    }
+}
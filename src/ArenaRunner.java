@@ -0,0 +1,252 @@
+// Em ArenaRunner.java
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Arena de bots sem interface: centenas de partidas bot x bot em paralelo,
+ * para testar balanceamento e desempenho.
+ *
+ *   java -Djava.awt.headless=true -cp "out:lib/*" ArenaRunner [partidas] [threads] [semente]
+ *
+ * Com -Dtetris.arena.replay=arquivo.gif, o jogador 1 da primeira partida é
+ * gravado (ReplayRecorder) e exportado como GIF pelo FrameExporter no fim.
+ *
+ * Com -Dtetris.arena.watch=true (precisa de tela), as primeiras partidas
+ * (até WATCH_BOARDS tabuleiros) aparecem num SpectatorPanel e a arena anda
+ * em tempo real, um tick por rodada. Entre duas rodadas nenhum worker toca
+ * nas engines: é aí que esta thread tira os snapshots e os publica num
+ * SnapshotExchange; a EDT só desenha o que foi publicado.
+ *
+ * As engines são de um ForkJoinPool (work-stealing). A unidade de trabalho é
+ * a PARTIDA: em cada rodada cada partida avança QUANTUM_TICKS ticks inteira
+ * em um único worker, então uma engine nunca é tocada por duas threads no
+ * mesmo tick. Partidas não se comunicam; dentro de uma partida o lixo vai
+ * pelas GarbageMailbox e só entra na fronteira de tick.
+ *
+ * O resultado depende só da semente: com 1 ou 32 threads, as mesmas
+ * partidas terminam com os mesmos vencedores e placares (ver checksum).
+ */
+public class ArenaRunner {
+
+    private static final int QUANTUM_TICKS = 60; // Ticks por partida por rodada (1 s de jogo)
+    private static final int LEAF_MATCHES = 4;   // Abaixo disso a tarefa não se divide mais
+    private static final int BOT_TICKS_PER_PIECE = 8;
+    private static final long MAX_MATCH_TICKS = 60L * 60 * 10; // 10 minutos de jogo: decide por pontos
+    private static final int REPLAY_MAX_FRAMES = 60 * 60;       // GIF de no máximo 1 minuto
+    private static final int REPLAY_TILE_SIZE = 16;
+    private static final int WATCH_BOARDS = 64;                 // 32 partidas na tela
+
+    /** Uma partida bot x bot, sempre avançada por um único worker de cada vez. */
+    static class Match {
+        final GameEngine[] engines = new GameEngine[2];
+        final SimpleBot[] bots = new SimpleBot[2];
+        long ticks = 0;
+        int winner = -1; // -1 = em andamento, 0 = empate, 1 ou 2 = jogador
+        boolean done = false;
+
+        Match(long seed) {
+            GarbageMailbox[] boxes = {new GarbageMailbox(), new GarbageMailbox()};
+            for (int i = 0; i < 2; i++) {
+                engines[i] = new GameEngine();
+                engines[i].setSeed(seed * 2 + i); // Sequências diferentes para cada lado, fixas pela semente
+                engines[i].setGarbageMailboxes(boxes[i], boxes[1 - i]);
+                bots[i] = new SimpleBot(BOT_TICKS_PER_PIECE);
+                engines[i].startGame();
+            }
+        }
+
+        void advance(int count) {
+            for (int t = 0; t < count && !done; t++) {
+                for (GameEngine engine : engines) engine.acceptIncomingGarbage(); // Fronteira de tick
+                for (int i = 0; i < 2; i++) {
+                    bots[i].act(engines[i]);
+                    engines[i].tick();
+                }
+                ticks++;
+                boolean lost1 = engines[0].isGameOver(), lost2 = engines[1].isGameOver();
+                if (lost1 || lost2 || ticks >= MAX_MATCH_TICKS) finish(lost1, lost2);
+            }
+        }
+
+        private void finish(boolean lost1, boolean lost2) {
+            done = true;
+            if (lost1 != lost2) {
+                winner = lost1 ? 2 : 1;
+            } else {
+                int s1 = engines[0].getScore(), s2 = engines[1].getScore();
+                winner = (s1 == s2) ? 0 : (s1 > s2 ? 1 : 2);
+            }
+            for (GameEngine engine : engines) engine.stopGame();
+        }
+    }
+
+    // Divide a lista de partidas ao meio até LEAF_MATCHES; workers ociosos roubam as metades
+    private static class StepTask extends RecursiveAction {
+        private final Match[] matches;
+        private final int from, to;
+
+        private final int quantum;
+
+        StepTask(Match[] matches, int from, int to, int quantum) {
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+            this.quantum = quantum;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_MATCHES) {
+                for (int i = from; i < to; i++) matches[i].advance(quantum);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new StepTask(matches, from, mid, quantum), new StepTask(matches, mid, to, quantum));
+        }
+    }
+
+    /** Resumo da arena. */
+    public static class Result {
+        public int player1Wins, player2Wins, draws;
+        public long totalTicks;
+        public long checksum; // Muda se QUALQUER partida terminar diferente
+        public long elapsedNanos;
+
+        public double matchesPerSecond() {
+            return (player1Wins + player2Wins + draws) / Math.max(1e-9, elapsedNanos / 1e9);
+        }
+    }
+
+    private final int matchCount;
+    private final long seed;
+    private final int parallelism;
+    private ReplayRecorder replayRecorder; // Opcional: jogador 1 da primeira partida
+    private SnapshotExchange watchFeed;    // Opcional: as duas engines das primeiras partidas, em tempo real
+
+    public ArenaRunner(int matchCount, long seed, int parallelism) {
+        this.matchCount = matchCount;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    /** Grava o jogador 1 da primeira partida (não muda o resultado: só lê a engine). */
+    public void setReplayRecorder(ReplayRecorder recorder) { this.replayRecorder = recorder; }
+
+    /**
+     * Publica as engines das primeiras feed.getBoardCount() / 2 partidas a
+     * cada tick (J1, J2, J1, J2...) e passa a rodar em tempo real.
+     */
+    public void setWatchFeed(SnapshotExchange feed) { this.watchFeed = feed; }
+
+    public Result run() {
+        long start = System.nanoTime();
+        Match[] matches = new Match[matchCount];
+        for (int i = 0; i < matchCount; i++) matches[i] = new Match(seed + i);
+        if (replayRecorder != null && matchCount > 0) matches[0].engines[0].setReplayRecorder(replayRecorder);
+
+        int quantum = (watchFeed != null) ? 1 : QUANTUM_TICKS;
+        long next = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Match[] active = matches;
+            while (active.length > 0) {
+                pool.invoke(new StepTask(active, 0, active.length, quantum));
+                if (watchFeed != null) {
+                    publish(matches); // invoke() voltou: os workers terminaram a rodada
+                    next += GameScheduler.TICK_NANOS;
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                }
+                List<Match> stillRunning = new ArrayList<>(active.length);
+                for (Match m : active) if (!m.done) stillRunning.add(m);
+                active = stillRunning.toArray(new Match[0]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Result result = new Result();
+        for (Match m : matches) {
+            if (m.winner == 1) result.player1Wins++;
+            else if (m.winner == 2) result.player2Wins++;
+            else result.draws++;
+            result.totalTicks += m.ticks;
+            result.checksum = result.checksum * 31 + m.winner;
+            result.checksum = result.checksum * 31 + m.ticks;
+            result.checksum = result.checksum * 31 + m.engines[0].getScore();
+            result.checksum = result.checksum * 31 + m.engines[1].getScore();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void publish(Match[] matches) {
+        BoardSnapshot[] boards = watchFeed.getWriteBuffer();
+        for (int b = 0; b < boards.length && b / 2 < matches.length; b++) {
+            matches[b / 2].engines[b % 2].snapshotInto(boards[b]);
+        }
+        watchFeed.publish();
+    }
+
+    public static void main(String[] args) {
+        int matches = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : 1L;
+
+        ArenaRunner arena = new ArenaRunner(matches, seed, threads);
+        String replayFile = System.getProperty("tetris.arena.replay");
+        ReplayRecorder recorder = null;
+        if (replayFile != null) {
+            recorder = new ReplayRecorder(REPLAY_MAX_FRAMES);
+            arena.setReplayRecorder(recorder);
+        }
+
+        if (Boolean.getBoolean("tetris.arena.watch")) watch(arena, Math.min(WATCH_BOARDS, 2 * matches));
+
+        Result r = arena.run();
+        System.out.printf("%d partidas, %d threads, semente %d%n", matches, threads, seed);
+        System.out.printf("J1: %d  J2: %d  empates: %d  (%d ticks simulados)%n",
+                r.player1Wins, r.player2Wins, r.draws, r.totalTicks);
+        System.out.printf("%.1f s, %.1f partidas/s, %.0f ticks/s, checksum %016x%n",
+                r.elapsedNanos / 1e9, r.matchesPerSecond(), r.totalTicks / (r.elapsedNanos / 1e9), r.checksum);
+
+        if (recorder != null) exportReplay(recorder, new File(replayFile), threads);
+    }
+
+    private static void watch(ArenaRunner arena, int boards) {
+        SnapshotExchange feed = new SnapshotExchange(boards);
+        List<String> names = new ArrayList<>(boards);
+        for (int b = 0; b < boards; b++) names.add("P" + (b / 2 + 1) + " J" + (b % 2 + 1));
+        arena.setWatchFeed(feed);
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("Arena de bots");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            SpectatorPanel panel = new SpectatorPanel(new ThemeManager());
+            panel.setFeed(feed, names);
+            frame.add(panel);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            panel.start();
+        });
+    }
+
+    private static void exportReplay(ReplayRecorder recorder, File output, int threads) {
+        long start = System.nanoTime();
+        FrameExporter exporter = new FrameExporter(new ThemeManager(), REPLAY_TILE_SIZE, threads);
+        try {
+            exporter.exportAnimatedGif(recorder.getFrames(), output, 1000 / GameScheduler.TICKS_PER_SECOND);
+            System.out.printf("Replay: %d frames em %s (%.1f s)%n",
+                    recorder.getFrameCount(), output, (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Erro ao exportar o replay: " + e.getMessage());
+        }
+    }
+}
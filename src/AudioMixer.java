@@ -0,0 +1,344 @@
+// Em AudioMixer.java
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Mixer de software: UMA thread de áudio escreve PCM em UMA SourceDataLine.
+ * Música e efeitos são somados aqui, cada canal com o seu ganho.
+ *
+ * Cada Sample tem as suas VOICES_PER_SAMPLE vozes: disparar o mesmo efeito
+ * de novo rouba a voz mais antiga DELE, nunca a de outro efeito (uma rajada
+ * de move/rotate não corta o clear nem o gameover).
+ *
+ * Formato fixo: 44.1 kHz, 16 bits, estéreo. Toda a memória (vozes, buffer de
+ * mixagem) é alocada na criação do mixer ou do Sample; a latência fica
+ * limitada pelo tamanho do bloco (-Dtetris.audio.blockFrames=N).
+ * A música vem de um MusicStream (lida do disco aos poucos), não de um Sample.
+ */
+public class AudioMixer {
+
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    public static final int CHANNELS = 2;
+    public static final int VOICES_PER_SAMPLE = 4;
+    public static final int MAX_SAMPLES = 32;
+
+    // Bloco de mixagem padrão: 256 frames = ~5,8 ms
+    public static final int DEFAULT_BLOCK_FRAMES = 256;
+    public static final String BLOCK_FRAMES_PROPERTY = "tetris.audio.blockFrames";
+
+    /** PCM já decodificado no formato do mixer (estéreo intercalado). */
+    public static class Sample {
+        final short[] pcm;
+        final int frames;
+        final Voice[] voices = new Voice[VOICES_PER_SAMPLE]; // Só este efeito usa (e rouba) estas
+
+        Sample(short[] pcm) {
+            this.pcm = pcm;
+            this.frames = pcm.length / CHANNELS;
+            for (int i = 0; i < voices.length; i++) voices[i] = new Voice(this);
+        }
+
+        public int getFrames() { return frames; }
+    }
+
+    private static class Voice {
+        final Sample sample;
+        int position;      // em frames
+        boolean loop;
+        boolean active;
+        long startOrder;   // para roubo de voz (a mais antiga perde)
+
+        Voice(Sample sample) { this.sample = sample; }
+    }
+
+    // Música: dois "decks" para permitir crossfade entre faixas
+    private static class MusicDeck {
+        MusicStream stream;
+        float level;       // 0 = mudo, 1 = volume cheio
+        float step;        // variação de 'level' por frame (positiva = fade in)
+    }
+
+    private final int blockFrames;
+    private final Sample[] effects = new Sample[MAX_SAMPLES]; // Efeitos já tocados neste mixer
+    private int effectCount = 0;
+    private final Object lock = new Object();
+    private final MusicDeck[] musicDecks = { new MusicDeck(), new MusicDeck() };
+    private final short[] musicScratch;
+    private final int[] mixBuffer;
+    private final byte[] outBuffer;
+
+    private volatile float masterGain = 1.0f;
+    private volatile float musicGain = 1.0f;
+    private volatile float effectsGain = 1.0f;
+
+    private SourceDataLine line;
+    private Thread audioThread;
+    private volatile boolean running = false;
+    private long voiceCounter = 0;
+
+    /** Bloco de -Dtetris.audio.blockFrames (ou o padrão). */
+    public AudioMixer() {
+        this(Integer.getInteger(BLOCK_FRAMES_PROPERTY, DEFAULT_BLOCK_FRAMES));
+    }
+
+    public AudioMixer(int blockFrames) {
+        this.blockFrames = Math.max(64, blockFrames);
+        this.mixBuffer = new int[this.blockFrames * CHANNELS];
+        this.musicScratch = new short[this.blockFrames * CHANNELS];
+        this.outBuffer = new byte[this.blockFrames * CHANNELS * 2];
+    }
+
+    // --- Ciclo de vida ---
+
+    /** Abre a linha de áudio e inicia a thread. Retorna false se não houver dispositivo. */
+    public boolean start() {
+        if (running) return true;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            // Buffer do dispositivo = 2 blocos: o suficiente para não "engasgar", sem acumular latência
+            line.open(FORMAT, outBuffer.length * 2);
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("Mixer de áudio indisponível: " + e.getMessage());
+            line = null;
+            return false;
+        }
+        running = true;
+        audioThread = new Thread(this::mixLoop, "tetris-audio-mixer");
+        audioThread.setDaemon(true);
+        audioThread.setPriority(Thread.MAX_PRIORITY);
+        audioThread.start();
+        return true;
+    }
+
+    public void shutdown() {
+        running = false;
+        if (audioThread != null) {
+            audioThread.interrupt();
+            try { audioThread.join(500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            audioThread = null;
+        }
+        synchronized (lock) {
+            for (MusicDeck deck : musicDecks) {
+                if (deck.stream != null) deck.stream.close();
+                deck.stream = null;
+            }
+        }
+        if (line != null) {
+            line.stop();
+            line.close();
+            line = null;
+        }
+    }
+
+    public boolean isRunning() { return running; }
+    public int getBlockFrames() { return blockFrames; }
+
+    /** Latência de saída aproximada (bloco + buffer do dispositivo), em ms. */
+    public double getLatencyMillis() {
+        int bufferBytes = (line != null) ? line.getBufferSize() : outBuffer.length * 2;
+        int frames = blockFrames + bufferBytes / FORMAT.getFrameSize();
+        return frames * 1000.0 / FORMAT.getSampleRate();
+    }
+
+    // --- Ganhos (0.0 a 1.0) ---
+    public void setMasterGain(float gain) { this.masterGain = clamp(gain); }
+    public void setMusicGain(float gain) { this.musicGain = clamp(gain); }
+    public void setEffectsGain(float gain) { this.effectsGain = clamp(gain); }
+
+    private static float clamp(float v) { return Math.max(0f, Math.min(1f, v)); }
+
+    // --- Disparo de sons ---
+
+    public void playEffect(Sample sample, boolean loop) {
+        if (sample == null) return;
+        synchronized (lock) {
+            if (!register(sample)) return;
+            Voice target = null;
+            Voice oldest = sample.voices[0];
+            for (Voice v : sample.voices) {
+                if (!v.active) { target = v; break; }
+                if (v.startOrder < oldest.startOrder) oldest = v;
+            }
+            if (target == null) target = oldest; // Roubo de voz, só entre as do próprio efeito
+            target.position = 0;
+            target.loop = loop;
+            target.startOrder = voiceCounter++;
+            target.active = true;
+        }
+    }
+
+    // Primeiro disparo de um efeito: passa a ser mixado. Chamado com o lock.
+    private boolean register(Sample sample) {
+        for (int i = 0; i < effectCount; i++) {
+            if (effects[i] == sample) return true;
+        }
+        if (effectCount == MAX_SAMPLES) {
+            System.err.println("Efeitos demais no mixer (máximo " + MAX_SAMPLES + ")");
+            return false;
+        }
+        effects[effectCount++] = sample;
+        return true;
+    }
+
+    public void stopEffects() {
+        synchronized (lock) {
+            for (int i = 0; i < effectCount; i++) {
+                for (Voice v : effects[i].voices) v.active = false;
+            }
+        }
+    }
+
+    /**
+     * Troca a música com crossfade: a faixa atual desce até zero enquanto a
+     * nova sobe, em 'fadeMillis'. A faixa antiga é fechada quando some.
+     */
+    public void playMusic(MusicStream stream, int fadeMillis) {
+        float step = fadeStep(fadeMillis);
+        synchronized (lock) {
+            MusicDeck incoming = null;
+            for (MusicDeck deck : musicDecks) {
+                if (deck.stream == null) { incoming = deck; continue; }
+                deck.step = -step; // fade out de quem está tocando
+            }
+            if (incoming == null) {
+                // Os dois decks ocupados (troca rápida): descarta o mais baixo
+                incoming = (musicDecks[0].level <= musicDecks[1].level) ? musicDecks[0] : musicDecks[1];
+                incoming.stream.close();
+            }
+            incoming.stream = stream;
+            incoming.level = (fadeMillis <= 0) ? 1f : 0f;
+            incoming.step = step;
+        }
+    }
+
+    public void stopMusic(int fadeMillis) {
+        float step = fadeStep(fadeMillis);
+        synchronized (lock) {
+            for (MusicDeck deck : musicDecks) {
+                if (deck.stream != null) deck.step = -step;
+            }
+        }
+    }
+
+    private float fadeStep(int fadeMillis) {
+        if (fadeMillis <= 0) return 1f;
+        return 1f / (FORMAT.getSampleRate() * fadeMillis / 1000f);
+    }
+
+    // --- Thread de áudio ---
+
+    private void mixLoop() {
+        while (running) {
+            mixBlock();
+            // write() bloqueia até caber no buffer do dispositivo: é isso que dá o ritmo
+            line.write(outBuffer, 0, outBuffer.length);
+        }
+    }
+
+    private void mixBlock() {
+        java.util.Arrays.fill(mixBuffer, 0);
+        float master = masterGain;
+        synchronized (lock) {
+            float music = master * musicGain;
+            for (MusicDeck deck : musicDecks) {
+                mixMusic(deck, music);
+            }
+            float fx = master * effectsGain;
+            for (int i = 0; i < effectCount; i++) {
+                for (Voice v : effects[i].voices) mixVoice(v, fx);
+            }
+        }
+        // Converte para 16 bits little-endian com saturação
+        for (int i = 0, b = 0; i < mixBuffer.length; i++, b += 2) {
+            int s = mixBuffer[i];
+            if (s > Short.MAX_VALUE) s = Short.MAX_VALUE;
+            else if (s < Short.MIN_VALUE) s = Short.MIN_VALUE;
+            outBuffer[b] = (byte) s;
+            outBuffer[b + 1] = (byte) (s >> 8);
+        }
+    }
+
+    private void mixMusic(MusicDeck deck, float gain) {
+        if (deck.stream == null) return;
+        int samples = blockFrames * CHANNELS;
+        deck.stream.read(musicScratch, samples);
+        float level = deck.level;
+        for (int i = 0; i < samples; i += CHANNELS) {
+            level += deck.step;
+            if (level > 1f) level = 1f;
+            else if (level < 0f) level = 0f;
+            float g = gain * level;
+            mixBuffer[i] += (int) (musicScratch[i] * g);
+            mixBuffer[i + 1] += (int) (musicScratch[i + 1] * g);
+        }
+        deck.level = level;
+        if (level == 0f && deck.step < 0) {
+            deck.stream.close(); // não bloqueia: a thread de leitura fecha o arquivo
+            deck.stream = null;
+        }
+    }
+
+    private void mixVoice(Voice v, float gain) {
+        if (!v.active) return;
+        // Ganho em ponto fixo (16.16) para o laço interno não usar float
+        int fixedGain = (int) (gain * 65536);
+        short[] pcm = v.sample.pcm;
+        int frames = v.sample.frames;
+        int out = 0;
+        int remaining = blockFrames;
+        while (remaining > 0 && v.active) {
+            int n = Math.min(remaining, frames - v.position);
+            int src = v.position * CHANNELS;
+            for (int i = 0; i < n * CHANNELS; i++) {
+                mixBuffer[out++] += (pcm[src + i] * fixedGain) >> 16;
+            }
+            v.position += n;
+            remaining -= n;
+            if (v.position >= frames) {
+                if (v.loop && frames > 0) v.position = 0;
+                else v.active = false;
+            }
+        }
+    }
+
+    // --- Carregamento ---
+
+    /** Decodifica um WAV (convertendo para o formato do mixer se preciso). */
+    public static Sample loadSample(File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file);
+             AudioInputStream in = toMixerFormat(source)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            byte[] data = bytes.toByteArray();
+            short[] pcm = new short[data.length / 2];
+            for (int i = 0; i < pcm.length; i++) {
+                pcm[i] = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8));
+            }
+            return new Sample(pcm);
+        }
+    }
+
+    static AudioInputStream toMixerFormat(AudioInputStream source) {
+        AudioFormat f = source.getFormat();
+        if (f.matches(FORMAT)) return source;
+        AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, f.getSampleRate(), 16,
+                f.getChannels(), f.getChannels() * 2, f.getSampleRate(), false);
+        AudioInputStream stream = f.matches(pcm16) ? source : AudioSystem.getAudioInputStream(pcm16, source);
+        if (pcm16.getChannels() != CHANNELS || pcm16.getSampleRate() != FORMAT.getSampleRate()) {
+            stream = AudioSystem.getAudioInputStream(FORMAT, stream);
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,311 @@
+// Em AutosaveJournal.java
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Autosave contínuo do jogo 1P, para sobreviver a crash / falta de luz.
+ *
+ * A cada peça travada a engine manda um "delta" (~40 bytes: onde a peça
+ * travou + contadores e peças seguintes); a cada SNAPSHOT_EVERY deltas vai
+ * também o estado completo (SaveCodec). Nada acontece por frame.
+ *
+ * A escrita é de uma thread própria. O fsync é em lote: no máximo
+ * SYNC_INTERVAL_MS depois da primeira escrita ainda não sincronizada, então
+ * um crash perde no máximo esse tanto de jogo.
+ *
+ * Registro: [tamanho int][crc32 int][tipo byte][dados...], como no LocalGameStore.
+ * Na abertura do jogo, recover() reaplica o último snapshot + os deltas
+ * seguintes e para no primeiro registro inválido (o último ponto consistente).
+ */
+public class AutosaveJournal {
+
+    private static final String DEFAULT_FILE = "autosave.journal";
+    private static final byte REC_SNAPSHOT = 1;
+    private static final byte REC_DELTA = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int DELTA_BYTES = 4 + 3 + 1 + 3 + 4 + 2 + 4 + 8;
+
+    private static final long SYNC_INTERVAL_MS = 250;
+    private static final int SNAPSHOT_EVERY = 50;
+    private static final long MAX_BYTES = 64 * 1024; // Passou disso: o próximo snapshot recomeça o arquivo
+
+    // Comandos para a thread de escrita
+    private static final byte[] RESET = new byte[0];
+    private static final byte[] DISCARD = new byte[0];
+    private static final byte[] STOP = new byte[0];
+    private static final long STOP_WAIT_MS = 3000; // close() espera a escrita em curso terminar
+
+    private final File file;
+    private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private int deltasSinceSnapshot = 0; // Só a EDT mexe
+
+    private RandomAccessFile raf;
+    private FileChannel channel;
+
+    public AutosaveJournal() {
+        this(new File(DEFAULT_FILE));
+    }
+
+    public AutosaveJournal(File file) {
+        this.file = file;
+        this.writer = new Thread(this::writerLoop, "tetris-autosave");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "tetris-autosave-exit"));
+    }
+
+    // --- Chamados pela engine (EDT); só enfileiram ---
+
+    /** Começo de partida (nova ou carregada): o journal recomeça com um snapshot. */
+    public void startSession(GameStateData state) {
+        queue.offer(RESET);
+        queue.offer(frame(REC_SNAPSHOT, SaveCodec.encode(state)));
+        deltasSinceSnapshot = 0;
+    }
+
+    /** Peça travada em (x, y); 'after' é o estado já com a próxima peça em jogo. */
+    public void recordLock(Tetromino piece, int rotation, int x, int y, GameStateData after) {
+        if (++deltasSinceSnapshot >= SNAPSHOT_EVERY) {
+            queue.offer(frame(REC_SNAPSHOT, SaveCodec.encode(after)));
+            deltasSinceSnapshot = 0;
+            return;
+        }
+        ByteBuffer out = ByteBuffer.allocate(DELTA_BYTES);
+        out.put((byte) (piece.ordinal() + 1)).put((byte) rotation).put((byte) x).put((byte) y);
+        out.put(SaveCodec.pieceCode(after.currentPieceName));
+        out.put(SaveCodec.pieceCode(after.nextPieceName));
+        out.put(SaveCodec.pieceCode(after.heldPieceName));
+        out.put((byte) (after.canHold ? 1 : 0));
+        out.put((byte) after.currentX).put((byte) after.currentY).put((byte) after.currentRotation);
+        out.putInt(after.score);
+        out.putShort((short) after.level);
+        out.putInt(after.linesCleared);
+        out.putLong(after.rngState);
+        queue.offer(frame(REC_DELTA, out.array()));
+    }
+
+    /** Partida terminou (ou o jogador saiu): não há mais o que retomar. */
+    public void discard() {
+        queue.offer(DISCARD);
+        deltasSinceSnapshot = 0;
+    }
+
+    private static byte[] frame(byte type, byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(data);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 1 + data.length);
+        buffer.putInt(1 + data.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(type);
+        buffer.put(data);
+        return buffer.array();
+    }
+
+    // --- Thread de escrita ---
+
+    private void writerLoop() {
+        long syncDeadline = 0; // 0 = nada pendente de fsync
+        while (running) {
+            try {
+                long wait = (syncDeadline == 0) ? 1000 : Math.max(0, syncDeadline - System.currentTimeMillis());
+                byte[] item = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (item == STOP) return;
+                if (item != null) {
+                    boolean wrote = handle(item);
+                    if (wrote && syncDeadline == 0) syncDeadline = System.currentTimeMillis() + SYNC_INTERVAL_MS;
+                    if (item == DISCARD) syncDeadline = 0;
+                }
+                if (syncDeadline != 0 && System.currentTimeMillis() >= syncDeadline) {
+                    if (channel != null) channel.force(false);
+                    syncDeadline = 0;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Erro no autosave: " + e.getMessage());
+                closeChannel();
+                syncDeadline = 0;
+            }
+        }
+    }
+
+    // Retorna true se algo foi escrito (e precisa de fsync)
+    private synchronized boolean handle(byte[] item) throws IOException {
+        if (item == DISCARD) {
+            closeChannel();
+            Files.deleteIfExists(file.toPath());
+            return false;
+        }
+        if (item == RESET) {
+            openChannel();
+            channel.truncate(0);
+            return false;
+        }
+        openChannel();
+        if (item[HEADER_BYTES] == REC_SNAPSHOT && channel.size() > MAX_BYTES) {
+            rewriteWith(item);
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(item);
+        while (buffer.hasRemaining()) channel.write(buffer);
+        return true;
+    }
+
+    // O arquivo cresceu demais: troca por um novo só com o snapshot (temp + fsync + rename)
+    private void rewriteWith(byte[] snapshot) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            out.setLength(0);
+            out.write(snapshot);
+            out.getFD().sync();
+        }
+        closeChannel();
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openChannel();
+    }
+
+    private void openChannel() throws IOException {
+        if (channel != null) return;
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        channel.position(channel.size());
+    }
+
+    private void closeChannel() {
+        try {
+            if (raf != null) raf.close();
+        } catch (IOException ignored) {
+            // Nada a fazer: o arquivo já foi sincronizado ou será descartado
+        }
+        raf = null;
+        channel = null;
+    }
+
+    /**
+     * Grava o que ainda está na fila e faz o fsync final (saída do jogo).
+     * Sem interrupt: interromper um write/force fecharia o canal e perderia o
+     * registro que a thread já tirou da fila. Ela termina o que está fazendo,
+     * para no STOP e o resto é gravado aqui.
+     */
+    public void close() {
+        running = false;
+        queue.offer(STOP);
+        try {
+            writer.join(STOP_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            System.err.println("Autosave ainda gravando; o fim da fila não será salvo");
+            return;
+        }
+        try {
+            byte[] item;
+            while ((item = queue.poll()) != null) {
+                if (item != STOP) handle(item);
+            }
+            synchronized (this) {
+                if (channel != null) channel.force(false); // Inclui o que a thread escreveu sem fsync
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao finalizar o autosave: " + e.getMessage());
+        }
+    }
+
+    // --- Recuperação (na abertura do jogo) ---
+
+    public static GameStateData recover() {
+        return recover(new File(DEFAULT_FILE));
+    }
+
+    /** O estado do último ponto consistente, ou null se não houver nada para retomar. */
+    public static GameStateData recover(File file) {
+        byte[] data;
+        try {
+            if (!file.exists()) return null;
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            System.err.println("Erro ao ler o autosave: " + e.getMessage());
+            return null;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(data);
+        CRC32 crc = new CRC32();
+        GameStateData state = null;
+        while (in.remaining() >= HEADER_BYTES) {
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length <= 0 || length > in.remaining()) break;
+            crc.reset();
+            crc.update(data, in.position(), length);
+            if ((int) crc.getValue() != checksum) break;
+
+            int next = in.position() + length;
+            byte type = in.get();
+            try {
+                if (type == REC_SNAPSHOT) {
+                    byte[] snapshot = new byte[length - 1];
+                    in.get(snapshot);
+                    state = SaveCodec.decode(snapshot);
+                } else if (type == REC_DELTA && state != null) {
+                    applyDelta(state, in);
+                }
+            } catch (RuntimeException e) {
+                break; // Registro íntegro mas incoerente: para no último ponto bom
+            }
+            in.position(next);
+        }
+        return state;
+    }
+
+    private static void applyDelta(GameStateData state, ByteBuffer in) {
+        Tetromino piece = Tetromino.valueOf(SaveCodec.pieceName(in.get()));
+        int rotation = in.get();
+        int lockX = in.get();
+        int lockY = in.get();
+        placeAndClear(state.cells, piece.getShape(rotation), lockX, lockY, (byte) (piece.ordinal() + 1));
+
+        state.currentPieceName = SaveCodec.pieceName(in.get());
+        state.nextPieceName = SaveCodec.pieceName(in.get());
+        state.heldPieceName = SaveCodec.pieceName(in.get());
+        state.canHold = in.get() != 0;
+        state.currentX = in.get();
+        state.currentY = in.get();
+        state.currentRotation = in.get();
+        state.score = in.getInt();
+        state.level = in.getShort();
+        state.linesCleared = in.getInt();
+        state.rngState = in.getLong();
+        state.hasRngState = true;
+    }
+
+    // Mesma regra do Board: placePiece + findFullLines + executeLineClearance
+    private static void placeAndClear(byte[] cells, int[][] shape, int posX, int posY, byte value) {
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                int bx = posX + x, by = posY + y;
+                if (shape[y][x] != 0 && bx >= 0 && bx < Board.WIDTH && by >= 0 && by < Board.HEIGHT) {
+                    cells[by * Board.WIDTH + bx] = value;
+                }
+            }
+        }
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            boolean full = true;
+            for (int x = 0; x < Board.WIDTH && full; x++) full = cells[y * Board.WIDTH + x] != 0;
+            if (!full) continue;
+            System.arraycopy(cells, 0, cells, Board.WIDTH, y * Board.WIDTH); // Desce tudo acima de y
+            for (int x = 0; x < Board.WIDTH; x++) cells[x] = 0;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+// Em BattleMatch.java
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Uma partida de N jogadores (2P, batalha contra bots, servidor). Cada lugar
+ * (Slot) tem uma engine e um PlayerController: teclado, bot ou rede.
+ *
+ * step() é um tick da partida inteira, sempre na mesma ordem:
+ * 1. o lixo que cada um mandou no tick anterior (caixa de saída) vai para o
+ *    alvo escolhido pela TargetingStrategy;
+ * 2. todas as engines recolhem o lixo recebido (fronteira de tick);
+ * 3. cada controller joga e a sua engine avança;
+ * 4. quem morreu neste tick é eliminado (mortes no mesmo tick empatam na
+ *    colocação) e o KO vai para o último que atacou.
+ *
+ * Tudo é O(N) por tick: os vivos ficam num array compacto e cada escolha de
+ * alvo é O(1). Com a mesma semente e as mesmas jogadas, a partida se repete.
+ * Só a thread que chama step() mexe na partida (a EDT ou um worker do servidor).
+ */
+public class BattleMatch {
+
+    /** Um lugar na partida. */
+    public static class Slot {
+        private final int index;
+        private final String nickname;
+        private final GameEngine engine;
+        private final PlayerController controller;
+        private final GarbageMailbox inbox = new GarbageMailbox();
+        private final GarbageMailbox outbox = new GarbageMailbox();
+        private int aliveIndex = -1;  // Posição em 'alive' (-1 = eliminado)
+        private int placement = 0;    // 0 = ainda jogando; 1 = vencedor
+        private int lastAttacker = -1;
+        private int kos = 0;
+        private int linesSent = 0;
+
+        Slot(int index, String nickname, GameEngine engine, PlayerController controller) {
+            this.index = index;
+            this.nickname = nickname;
+            this.engine = engine;
+            this.controller = controller;
+        }
+
+        public int getIndex() { return index; }
+        public String getNickname() { return nickname; }
+        public GameEngine getEngine() { return engine; }
+        public PlayerController getController() { return controller; }
+        public boolean isAlive() { return aliveIndex >= 0; }
+        public int getPlacement() { return placement; }
+        public int getKos() { return kos; }
+        public int getLinesSent() { return linesSent; }
+    }
+
+    private final TargetingStrategy strategy;
+    private final long seed;
+    private final GameRandom random;
+    private final List<Slot> slots = new ArrayList<>();
+    private final List<GameEngine> engines = new ArrayList<>();
+    private Slot[] alive = new Slot[0];
+    private int aliveCount = 0;
+    private Slot[] dying = new Slot[0]; // Rascunho das eliminações do tick
+    private long ticks = 0;
+    private boolean started = false;
+    private boolean finished = false;
+    private Slot winner;
+    private Runnable onFinished;
+
+    // Recalculados uma vez por tick, só com a estratégia KO
+    private Slot mostEndangered, secondMostEndangered;
+
+    public BattleMatch(TargetingStrategy strategy, long seed) {
+        this.strategy = strategy;
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+    }
+
+    /** Adiciona um jogador (antes de start()). A engine passa a ser da partida. */
+    public Slot addPlayer(String nickname, GameEngine engine, PlayerController controller) {
+        if (started) throw new IllegalStateException("A partida já começou");
+        Slot slot = new Slot(slots.size(), nickname, engine, controller);
+        engine.setGarbageMailboxes(slot.inbox, slot.outbox);
+        slots.add(slot);
+        engines.add(engine);
+        return slot;
+    }
+
+    public void setOnFinished(Runnable onFinished) { this.onFinished = onFinished; }
+
+    public void start() {
+        started = true;
+        int n = slots.size();
+        alive = new Slot[n];
+        dying = new Slot[n];
+        aliveCount = n;
+        for (int i = 0; i < n; i++) {
+            Slot slot = slots.get(i);
+            alive[i] = slot;
+            slot.aliveIndex = i;
+            slot.engine.setSeed(seed * n + i); // Peças diferentes para cada um, fixas pela semente
+            slot.engine.startGame();
+        }
+    }
+
+    /** Um tick da partida inteira (ver a ordem no comentário da classe). */
+    public void step() {
+        if (!started || finished) return;
+
+        if (strategy == TargetingStrategy.KO) rankEndangered();
+        for (int i = 0; i < aliveCount; i++) routeAttacks(alive[i]);
+        for (int i = 0; i < aliveCount; i++) alive[i].engine.acceptIncomingGarbage();
+        for (int i = 0; i < aliveCount; i++) {
+            Slot slot = alive[i];
+            if (slot.controller != null) slot.controller.act(slot.engine);
+            slot.engine.tick();
+        }
+        ticks++;
+        eliminateDead();
+    }
+
+    private void routeAttacks(Slot attacker) {
+        int lines = attacker.outbox.drain();
+        if (lines == 0) return;
+        Slot target = strategy.chooseTarget(this, attacker);
+        if (target == null) return;
+        target.inbox.post(lines);
+        target.lastAttacker = attacker.index;
+        attacker.linesSent += lines;
+    }
+
+    private void eliminateDead() {
+        int dead = 0;
+        for (int i = 0; i < aliveCount; i++) {
+            if (alive[i].engine.isGameOver()) dying[dead++] = alive[i];
+        }
+        if (dead == 0) return;
+
+        int placement = aliveCount - dead + 1; // Mortes no mesmo tick dividem a colocação
+        for (int i = 0; i < dead; i++) {
+            Slot slot = dying[i];
+            dying[i] = null;
+            removeAlive(slot);
+            slot.placement = placement;
+            slot.engine.stopGame();
+            if (slot.lastAttacker >= 0) slots.get(slot.lastAttacker).kos++;
+        }
+
+        if ((aliveCount <= 1 && slots.size() > 1) || aliveCount == 0) {
+            finished = true;
+            if (aliveCount == 1) {
+                winner = alive[0];
+                winner.placement = 1;
+                winner.engine.setWinner(true);
+                winner.engine.stopGame();
+            }
+            if (onFinished != null) onFinished.run();
+        }
+    }
+
+    /** Encerra agora (ex.: limite de tempo no servidor): os vivos são classificados pela pontuação. */
+    public void finishByScore() {
+        if (!started || finished) return;
+        Slot[] ranked = Arrays.copyOf(alive, aliveCount);
+        Arrays.sort(ranked, (a, b) -> Integer.compare(b.engine.getScore(), a.engine.getScore()));
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i].placement = i + 1;
+            ranked[i].engine.stopGame();
+        }
+        finished = true;
+        if (ranked.length > 0) {
+            winner = ranked[0];
+            winner.engine.setWinner(true);
+        }
+        if (onFinished != null) onFinished.run();
+    }
+
+    // Troca com o último vivo: remoção O(1)
+    private void removeAlive(Slot slot) {
+        int i = slot.aliveIndex;
+        Slot last = alive[--aliveCount];
+        alive[i] = last;
+        last.aliveIndex = i;
+        alive[aliveCount] = null;
+        slot.aliveIndex = -1;
+    }
+
+    // --- Usados pelas TargetingStrategy ---
+
+    Slot randomOpponent(Slot attacker) {
+        if (aliveCount < 2 || !attacker.isAlive()) return null;
+        int pick = random.nextInt(aliveCount - 1);
+        if (pick >= attacker.aliveIndex) pick++; // Pula o próprio atacante
+        return alive[pick];
+    }
+
+    Slot lastAttackerOf(Slot attacker) {
+        if (attacker.lastAttacker < 0) return null;
+        Slot last = slots.get(attacker.lastAttacker);
+        return last.isAlive() ? last : null;
+    }
+
+    Slot mostEndangeredOpponent(Slot attacker) {
+        Slot target = (mostEndangered != attacker) ? mostEndangered : secondMostEndangered;
+        return (target != null && target.isAlive()) ? target : randomOpponent(attacker);
+    }
+
+    // Os dois mais perto de morrer (o segundo serve quando o primeiro é o próprio atacante)
+    private void rankEndangered() {
+        mostEndangered = secondMostEndangered = null;
+        int best = -1, second = -1;
+        for (int i = 0; i < aliveCount; i++) {
+            Slot slot = alive[i];
+            int danger = slot.engine.getBoard().getStackHeight() + slot.engine.getPendingGarbage();
+            if (danger > best) {
+                second = best;
+                secondMostEndangered = mostEndangered;
+                best = danger;
+                mostEndangered = slot;
+            } else if (danger > second) {
+                second = danger;
+                secondMostEndangered = slot;
+            }
+        }
+    }
+
+    // --- Consultas ---
+
+    public List<Slot> getSlots() { return Collections.unmodifiableList(slots); }
+    public int getAliveCount() { return aliveCount; }
+    public long getTicks() { return ticks; }
+    public boolean isFinished() { return finished; }
+    public TargetingStrategy getStrategy() { return strategy; }
+
+    /** O vencedor, ou null (em andamento, ou os últimos morreram juntos). */
+    public Slot getWinner() { return winner; }
+
+    public List<GameEngine> getEngines() { return Collections.unmodifiableList(engines); }
+}
@@ -1,14 +1,12 @@
 // Em Board.java
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Random;
 
 public class Board {
     public static final int WIDTH = 10;
     public static final int HEIGHT = 20;
 
     private final Tetromino[][] grid;
-    private final Random random = new Random();
 
     public Board() {
         grid = new Tetromino[HEIGHT][WIDTH];
@@ -46,8 +44,8 @@ public class Board {
         }
     }
 
-    // Lógica de Lixo 2P
-    public void addGarbageLines(int lineCount) {
+    // Lógica de Lixo 2P (o buraco vem do RNG da engine, para ser reproduzível)
+    public void addGarbageLines(int lineCount, GameRandom random) {
         // Desloca o grid para CIMA
         for(int y = 0; y < HEIGHT - lineCount; y++) {
             System.arraycopy(grid[y + lineCount], 0, grid[y], 0, WIDTH);
@@ -61,6 +59,26 @@ public class Board {
         }
     }
 
+    // Linhas [from, from + count) todas vazias? (lixo subindo empurraria blocos para fora do topo)
+    public boolean areRowsEmpty(int from, int count) {
+        for (int y = from; y < from + count && y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (grid[y][x] != null) return false;
+            }
+        }
+        return true;
+    }
+
+    // Altura da pilha em linhas (0 = tabuleiro vazio); usada para escolher alvos no modo N jogadores
+    public int getStackHeight() {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (grid[y][x] != null) return HEIGHT - y;
+            }
+        }
+        return 0;
+    }
+
     // Lógica de Limpeza de Linha (para Animação)
     public List<Integer> findFullLines() {
         List<Integer> fullLines = new ArrayList<>();
@@ -96,6 +114,15 @@ public class Board {
         return grid;
     }
 
+    // Cópia linha a linha (System.arraycopy), para os snapshots do rollback
+    public void copyGridTo(Tetromino[][] dst) {
+        for (int y = 0; y < HEIGHT; y++) System.arraycopy(grid[y], 0, dst[y], 0, WIDTH);
+    }
+
+    public void copyGridFrom(Tetromino[][] src) {
+        for (int y = 0; y < HEIGHT; y++) System.arraycopy(src[y], 0, grid[y], 0, WIDTH);
+    }
+
     public void reset() {
         for (int y = 0; y < HEIGHT; y++) {
             for (int x = 0; x < WIDTH; x++) {
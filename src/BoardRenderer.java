@@ -0,0 +1,211 @@
+// Em BoardRenderer.java
+import java.awt.Color;
+import java.awt.Graphics;
+
+/**
+ * Todo o código de desenho de um tabuleiro, a partir de um BoardSnapshot.
+ * É usado pelo GamePanel (detalhe completo) e pelo SpectatorPanel, que
+ * desenha muitos tabuleiros pequenos de uma vez com nível de detalhe reduzido.
+ */
+public class BoardRenderer {
+
+    // Abaixo deste tamanho de bloco o SpectatorPanel usa o desenho simplificado
+    public static final int MIN_DETAILED_TILE = 12;
+
+    // A animação de linha completa pisca em 3 fases (aceso, apagado, aceso)
+    private static final int LINE_CLEAR_BLINK_MS = GameEngine.LINE_CLEAR_MS / 3;
+
+    private static final Color OVERLAY_COLOR = new Color(0, 0, 0, 150);
+    private static final Color GARBAGE_METER_COLOR = new Color(230, 30, 30, 220);
+    private static final int PALETTE_SIZE = Tetromino.values().length + 1;
+
+    private final ThemeManager themeManager;
+
+    // Paleta indexada pelo valor da célula (0 = vazio), recalculada a cada frame
+    private final Color[] palette = new Color[PALETTE_SIZE];
+    private byte[] scratchCells = new byte[Board.WIDTH * Board.HEIGHT];
+
+    public BoardRenderer(ThemeManager themeManager) {
+        this.themeManager = themeManager;
+    }
+
+    private void refreshPalette() {
+        Tetromino[] types = Tetromino.values();
+        for (int i = 0; i < types.length; i++) {
+            palette[i + 1] = themeManager.getColor(types[i]);
+        }
+    }
+
+    // --- DETALHE COMPLETO (o mesmo visual de sempre do GamePanel) ---
+
+    public void renderDetailed(Graphics g, BoardSnapshot s, int ox, int oy, int tile, int areaWidth, int areaHeight) {
+        refreshPalette();
+        drawBoard(g, s, ox, oy, tile);
+
+        if (!s.animatingLineClear) {
+            drawGhostPiece(g, s, ox, oy, tile);
+            drawCurrentPiece(g, s, ox, oy, tile);
+        }
+
+        drawGridLines(g, ox, oy, tile);
+        drawGarbageMeter(g, s, ox, oy, tile);
+
+        // Lógica de Overlay (Vencedor, Fim de Jogo, Pausado)
+        if (s.winner) {
+            drawOverlay(g, "VENCEDOR!", ox, oy, areaWidth, areaHeight, 30f);
+        } else if (s.gameOver) {
+            drawOverlay(g, "FIM DE JOGO", ox, oy, areaWidth, areaHeight, 30f);
+        } else if (s.paused) {
+            drawOverlay(g, "PAUSADO", ox, oy, areaWidth, areaHeight, 30f);
+        }
+    }
+
+    private void drawBoard(Graphics g, BoardSnapshot s, int ox, int oy, int tile) {
+        boolean showFlash = s.animatingLineClear && (s.animationMillis / LINE_CLEAR_BLINK_MS) % 2 != 1;
+
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            if (s.animatingLineClear && s.isRowClearing(y) && showFlash) {
+                g.setColor(Color.WHITE);
+                g.fillRect(ox, oy + y * tile, Board.WIDTH * tile, tile);
+                continue;
+            }
+            for (int x = 0; x < Board.WIDTH; x++) {
+                int cell = s.getCell(x, y);
+                if (cell != 0) {
+                    drawTile(g, ox, oy, tile, x, y, palette[cell]);
+                }
+            }
+        }
+    }
+
+    private void drawGhostPiece(Graphics g, BoardSnapshot s, int ox, int oy, int tile) {
+        int[][] shape = s.getPieceShape();
+        if (shape == null) return;
+        Color pieceColor = palette[s.pieceType.ordinal() + 1];
+        if (pieceColor == null) return;
+        if (s.ghostY <= s.pieceY) {
+            return;
+        }
+        g.setColor(new Color(pieceColor.getRed(), pieceColor.getGreen(), pieceColor.getBlue(), 50));
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] != 0) {
+                    g.fillRect(ox + (s.pieceX + x) * tile, oy + (s.ghostY + y) * tile, tile, tile);
+                }
+            }
+        }
+    }
+
+    private void drawCurrentPiece(Graphics g, BoardSnapshot s, int ox, int oy, int tile) {
+        int[][] shape = s.getPieceShape();
+        if (shape == null) return;
+
+        // Pisca em branco logo após girar
+        Color color = (s.rotationFlash > 0) ? Color.WHITE : palette[s.pieceType.ordinal() + 1];
+        if (color == null) return;
+
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] != 0) {
+                    drawTile(g, ox, oy, tile, s.pieceX + x, s.pieceY + y, color);
+                }
+            }
+        }
+    }
+
+    // Barra vermelha na borda esquerda: uma célula de altura por linha de lixo pendente
+    private void drawGarbageMeter(Graphics g, BoardSnapshot s, int ox, int oy, int tile) {
+        if (s.pendingGarbage <= 0) return;
+        int rows = Math.min(s.pendingGarbage, Board.HEIGHT);
+        int width = Math.max(3, tile / 5);
+        g.setColor(GARBAGE_METER_COLOR);
+        g.fillRect(ox, oy + (Board.HEIGHT - rows) * tile, width, rows * tile);
+    }
+
+    private void drawGridLines(Graphics g, int ox, int oy, int tile) {
+        g.setColor(Color.DARK_GRAY);
+        for (int x = 0; x < Board.WIDTH + 1; x++) {
+            g.drawLine(ox + x * tile, oy, ox + x * tile, oy + Board.HEIGHT * tile);
+        }
+        for (int y = 0; y < Board.HEIGHT + 1; y++) {
+            g.drawLine(ox, oy + y * tile, ox + Board.WIDTH * tile, oy + y * tile);
+        }
+    }
+
+    private void drawTile(Graphics g, int ox, int oy, int tile, int x, int y, Color color) {
+        if (color == null) return;
+        g.setColor(color);
+        g.fillRect(ox + x * tile, oy + y * tile, tile, tile);
+        g.setColor(color.darker());
+        g.drawRect(ox + x * tile, oy + y * tile, tile, tile);
+    }
+
+    private void drawOverlay(Graphics g, String text, int ox, int oy, int width, int height, float fontSize) {
+        g.setColor(OVERLAY_COLOR);
+        g.fillRect(ox, oy, width, height);
+        g.setColor(Color.WHITE);
+        g.setFont(g.getFont().deriveFont(fontSize));
+        int textWidth = g.getFontMetrics().stringWidth(text);
+        g.drawString(text, ox + (width - textWidth) / 2, oy + height / 2);
+    }
+
+    // --- DETALHE REDUZIDO (muitos tabuleiros pequenos) ---
+
+    /**
+     * Desenha 'count' tabuleiros em cores chapadas, sem fantasma, sem grade e
+     * sem bordas. As células são agrupadas por cor para TODOS os tabuleiros,
+     * então o Graphics troca de cor no máximo uma vez por tipo de peça no frame
+     * inteiro, e blocos vizinhos da mesma cor viram um único fillRect.
+     */
+    public void renderFlatBatch(Graphics g, BoardSnapshot[] snapshots, int count, int[] originX, int[] originY, int tile) {
+        refreshPalette();
+        int cellCount = Board.WIDTH * Board.HEIGHT;
+        if (scratchCells.length < count * cellCount) {
+            scratchCells = new byte[count * cellCount];
+        }
+        for (int i = 0; i < count; i++) {
+            snapshots[i].composeInto(scratchCells, i * cellCount);
+        }
+
+        for (int color = 1; color < PALETTE_SIZE; color++) {
+            if (palette[color] == null) continue;
+            g.setColor(palette[color]);
+            for (int i = 0; i < count; i++) {
+                fillRuns(g, scratchCells, i * cellCount, (byte) color, originX[i], originY[i], tile);
+            }
+        }
+
+        // Linhas sendo limpas piscam em branco, como no detalhe completo
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < count; i++) {
+            BoardSnapshot s = snapshots[i];
+            if (!s.animatingLineClear || (s.animationMillis / LINE_CLEAR_BLINK_MS) % 2 == 1) continue;
+            for (int y = 0; y < Board.HEIGHT; y++) {
+                if (s.isRowClearing(y)) {
+                    g.fillRect(originX[i], originY[i] + y * tile, Board.WIDTH * tile, tile);
+                }
+            }
+        }
+
+        // Fim de jogo: só escurece o tabuleiro (texto não cabe nesse tamanho)
+        g.setColor(OVERLAY_COLOR);
+        for (int i = 0; i < count; i++) {
+            if (snapshots[i].gameOver && !snapshots[i].winner) {
+                g.fillRect(originX[i], originY[i], Board.WIDTH * tile, Board.HEIGHT * tile);
+            }
+        }
+    }
+
+    private void fillRuns(Graphics g, byte[] cells, int offset, byte color, int ox, int oy, int tile) {
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            int row = offset + y * Board.WIDTH;
+            int x = 0;
+            while (x < Board.WIDTH) {
+                if (cells[row + x] != color) { x++; continue; }
+                int start = x;
+                while (x < Board.WIDTH && cells[row + x] == color) x++;
+                g.fillRect(ox + start * tile, oy + y * tile, (x - start) * tile, tile);
+            }
+        }
+    }
+}
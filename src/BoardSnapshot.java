@@ -0,0 +1,90 @@
+// Em BoardSnapshot.java
+// Cópia leve (e reutilizável) do que é preciso para DESENHAR um tabuleiro.
+// A engine preenche esta estrutura com snapshotInto(); quem desenha nunca
+// toca na engine diretamente durante o paint.
+
+public class BoardSnapshot {
+    // Células do tabuleiro: 0 = vazio, (ordinal + 1) = tipo da peça
+    public final byte[] cells = new byte[Board.WIDTH * Board.HEIGHT];
+
+    // Peça atual (null quando não há peça)
+    public Tetromino pieceType;
+    public int pieceRotation;
+    public int pieceX;
+    public int pieceY;
+    public int ghostY;
+
+    public int score;
+    public int level;
+    public int linesCleared;
+
+    public boolean paused;
+    public boolean gameOver;
+    public boolean winner;
+
+    // Animação: bit y ligado = linha y está sendo limpa
+    public boolean animatingLineClear;
+    public int clearingRowsMask;
+    public int animationMillis; // Tempo desde o início da animação de linha
+    public int rotationFlash;
+
+    // Linhas de lixo recebidas que ainda não subiram (medidor)
+    public int pendingGarbage;
+
+    // Cópia independente (usada para gravar frames de replay)
+    public BoardSnapshot copy() {
+        BoardSnapshot c = new BoardSnapshot();
+        System.arraycopy(cells, 0, c.cells, 0, cells.length);
+        c.pieceType = pieceType;
+        c.pieceRotation = pieceRotation;
+        c.pieceX = pieceX;
+        c.pieceY = pieceY;
+        c.ghostY = ghostY;
+        c.score = score;
+        c.level = level;
+        c.linesCleared = linesCleared;
+        c.paused = paused;
+        c.gameOver = gameOver;
+        c.winner = winner;
+        c.animatingLineClear = animatingLineClear;
+        c.clearingRowsMask = clearingRowsMask;
+        c.animationMillis = animationMillis;
+        c.rotationFlash = rotationFlash;
+        c.pendingGarbage = pendingGarbage;
+        return c;
+    }
+
+    public int getCell(int x, int y) {
+        return cells[y * Board.WIDTH + x];
+    }
+
+    public boolean isRowClearing(int y) {
+        return (clearingRowsMask & (1 << y)) != 0;
+    }
+
+    public int[][] getPieceShape() {
+        return (pieceType != null) ? pieceType.getShape(pieceRotation) : null;
+    }
+
+    /**
+     * Copia as células para 'out' já com a peça atual "carimbada" por cima.
+     * Usado pelo desenho simplificado (LOD), que pinta tudo em uma passada só.
+     */
+    public void composeInto(byte[] out, int offset) {
+        System.arraycopy(cells, 0, out, offset, cells.length);
+        int[][] shape = getPieceShape();
+        if (shape == null || animatingLineClear) return;
+        byte value = (byte) (pieceType.ordinal() + 1);
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] != 0) {
+                    int bx = pieceX + x;
+                    int by = pieceY + y;
+                    if (bx >= 0 && bx < Board.WIDTH && by >= 0 && by < Board.HEIGHT) {
+                        out[offset + by * Board.WIDTH + bx] = value;
+                    }
+                }
+            }
+        }
+    }
+}
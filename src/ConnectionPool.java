@@ -0,0 +1,271 @@
+// Em ConnectionPool.java
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de conexões JDBC simples (sem dependências externas).
+ *
+ * - No máximo 'maxSize' conexões abertas; quem pede além disso espera até
+ *   'acquireTimeoutMillis' e depois recebe SQLException.
+ * - Conexões paradas há mais de VALIDATE_AFTER_MILLIS são validadas com
+ *   isValid() antes de serem entregues.
+ * - Uma thread de manutenção fecha conexões ociosas há mais de 'idleTimeoutMillis'.
+ * - Cada conexão guarda um cache (LRU) de PreparedStatements por SQL.
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATE_AFTER_MILLIS = 5_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+
+    private final Semaphore permits;
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    // --- Métricas ---
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tetris-db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pega uma conexão do pool. Use sempre com try-with-resources:
+     * o close() do PooledConnection devolve a conexão em vez de fechá-la.
+     */
+    public PooledConnection acquire() throws SQLException {
+        if (closed) throw new SQLException("Pool de conexões fechado");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Tempo esgotado esperando conexão do pool (" + acquireTimeoutMillis + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido esperando conexão do pool", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            PooledConnection pc;
+            while ((pc = pollIdle()) != null) {
+                if (isUsable(pc)) {
+                    pc.released = false;
+                    acquired.incrementAndGet();
+                    return pc;
+                }
+                destroy(pc);
+            }
+            pc = new PooledConnection(DriverManager.getConnection(url, user, password));
+            created.incrementAndGet();
+            acquired.incrementAndGet();
+            return pc;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private synchronized PooledConnection pollIdle() {
+        return idle.pollFirst(); // LIFO: a conexão mais "quente" primeiro
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastUsedMillis < VALIDATE_AFTER_MILLIS) return true;
+        try {
+            return pc.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void release(PooledConnection pc) {
+        boolean keep = !closed && !pc.broken;
+        if (keep) {
+            try {
+                if (!pc.connection.getAutoCommit()) {
+                    pc.connection.rollback();
+                    pc.connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                keep = false;
+            }
+        }
+        if (keep) {
+            pc.lastUsedMillis = System.currentTimeMillis();
+            synchronized (this) {
+                idle.addFirst(pc);
+            }
+        } else {
+            destroy(pc);
+        }
+        permits.release();
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PooledConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsedMillis > idleTimeoutMillis) {
+                    it.remove();
+                    expired.add(pc);
+                }
+            }
+        }
+        // Fecha fora do lock: close() pode demorar se o servidor estiver lento
+        for (PooledConnection pc : expired) destroy(pc);
+    }
+
+    private void destroy(PooledConnection pc) {
+        pc.closeStatements();
+        try {
+            pc.connection.close();
+        } catch (SQLException ignored) {
+            // Conexão já estava morta
+        }
+        destroyed.incrementAndGet();
+    }
+
+    public void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        synchronized (this) {
+            for (PooledConnection pc : idle) destroy(pc);
+            idle.clear();
+        }
+    }
+
+    // --- Métricas ---
+    public int getMaxSize() { return maxSize; }
+    public int getActiveConnections() { return maxSize - permits.availablePermits(); }
+    public synchronized int getIdleConnections() { return idle.size(); }
+    public long getCreatedConnections() { return created.get(); }
+    public long getDestroyedConnections() { return destroyed.get(); }
+    public long getAcquireCount() { return acquired.get(); }
+    public long getTimeoutCount() { return timeouts.get(); }
+    public long getStatementCacheHits() { return statementCacheHits.get(); }
+    public long getStatementCacheMisses() { return statementCacheMisses.get(); }
+
+    public double getAverageWaitMillis() {
+        long n = acquired.get() + timeouts.get();
+        return (n == 0) ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / n;
+    }
+
+    public double getMaxWaitMillis() { return maxWaitNanos.get() / 1_000_000.0; }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[ativas=%d, ociosas=%d, criadas=%d, fechadas=%d, espera média=%.2f ms, timeouts=%d, cache stmt=%d/%d]",
+                getActiveConnections(), getIdleConnections(), getCreatedConnections(), getDestroyedConnections(),
+                getAverageWaitMillis(), getTimeoutCount(), getStatementCacheHits(),
+                getStatementCacheHits() + getStatementCacheMisses());
+    }
+
+    /**
+     * Conexão emprestada do pool. close() devolve ao pool.
+     * Statements obtidos com prepare() ficam no cache e NÃO devem ser fechados por quem usa.
+     */
+    public class PooledConnection implements AutoCloseable {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+        private long lastUsedMillis = System.currentTimeMillis();
+        private boolean broken = false;
+        private boolean released = false; // Já devolvida: um segundo close() não duplica no pool
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= STATEMENT_CACHE_SIZE) return false;
+                    try { eldest.getValue().close(); } catch (SQLException ignored) { }
+                    return true;
+                }
+            };
+        }
+
+        public Connection getConnection() { return connection; }
+
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps != null && !ps.isClosed()) {
+                statementCacheHits.incrementAndGet();
+                ps.clearParameters();
+                ps.clearBatch(); // Um executeBatch que falhou deixa o lote antigo no statement
+                return ps;
+            }
+            statementCacheMisses.incrementAndGet();
+            ps = connection.prepareStatement(sql);
+            statements.put(sql, ps);
+            return ps;
+        }
+
+        /** Marca a conexão para ser descartada (em vez de voltar ao pool) após um erro grave. */
+        public void markBroken() { this.broken = true; }
+
+        private void closeStatements() {
+            for (PreparedStatement ps : statements.values()) {
+                try { ps.close(); } catch (SQLException ignored) { }
+            }
+            statements.clear();
+        }
+
+        /** Devolve ao pool; chamar de novo não faz nada (até o próximo acquire). */
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release(this);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 // Em DatabaseManager.java
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.Statement;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-public class DatabaseManager {
+public class DatabaseManager implements GameStore {
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/tetris_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-    private static final String DB_USER = "tetris_user";
-    private static final String DB_PASS = "tetris_pass";
+    static final String DB_URL = "jdbc:mysql://localhost:3306/tetris_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
+    static final String DB_USER = "tetris_user";
+    static final String DB_PASS = "tetris_pass";
+
+    // Pool: reaproveita conexões (e PreparedStatements) em vez de um handshake MySQL por operação
+    private static final int POOL_MAX_SIZE = 4;
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = 3_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 60_000;
+    private final ConnectionPool pool = new ConnectionPool(DB_URL, DB_USER, DB_PASS,
+            POOL_MAX_SIZE, POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS);
 
     public DatabaseManager() {
         try {
@@ -20,91 +26,61 @@ public class DatabaseManager {
             System.err.println("Erro: Driver MySQL (Connector/J) não encontrado!");
             e.printStackTrace();
         }
-        createTables();
-    }
-
-    private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASS);
-    }
-
-    private void createTables() {
-        // Tabela 1: Leaderboard 1P (sem alteração)
-        String sqlLeaderboard1P = "CREATE TABLE IF NOT EXISTS leaderboard (\n"
-                + " id INT AUTO_INCREMENT PRIMARY KEY,\n"
-                + " nickname VARCHAR(50) NOT NULL,\n"
-                + " score INT NOT NULL\n"
-                + ");";
-
-        // Tabela 2: Jogos Salvos (sem alteração)
-        String sqlSavedGames = "CREATE TABLE IF NOT EXISTS saved_games (\n"
-                + " id INT AUTO_INCREMENT PRIMARY KEY,\n"
-                + " saveName VARCHAR(100) NOT NULL UNIQUE,\n"
-                + " gameStateJSON TEXT NOT NULL\n"
-                + ");";
-
-        // --- NOVA TABELA 3: RANKING 2 JOGADORES ---
-        String sqlLeaderboard2P = "CREATE TABLE IF NOT EXISTS leaderboard_2p (\n"
-                + " id INT AUTO_INCREMENT PRIMARY KEY,\n"
-                + " nickname VARCHAR(50) NOT NULL UNIQUE,\n" // Nickname é a chave
-                + " wins INT NOT NULL DEFAULT 0\n" // Começa com 0 vitórias
-                + ");";
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sqlLeaderboard1P);
-            stmt.execute(sqlSavedGames);
-            stmt.execute(sqlLeaderboard2P); // Cria a nova tabela
-        } catch (SQLException e) {
-            System.err.println("Erro ao criar tabelas: " + e.getMessage());
+        // As tabelas são criadas na primeira conexão (fora da EDT, normalmente),
+        // e não mais aqui: o construtor não bloqueia a inicialização do jogo.
+    }
+
+    private volatile boolean schemaReady = false;
+
+    private ConnectionPool.PooledConnection getConnection() throws SQLException {
+        if (!schemaReady) ensureSchema();
+        return pool.acquire();
+    }
+
+    private synchronized void ensureSchema() throws SQLException {
+        if (schemaReady) return;
+        try (ConnectionPool.PooledConnection conn = pool.acquire()) {
+            new SchemaMigrator().migrate(conn.getConnection()); // Cria/atualiza as tabelas (ver SchemaMigrator)
         }
+        schemaReady = true;
     }
 
-    // --- Métodos do Leaderboard 1P (sem alteração) ---
+    public ConnectionPool getPool() { return pool; }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // --- Métodos do Leaderboard 1P ---
+    @Override
     public void addHighScore(String nickname, int score) {
-        String sql = "INSERT INTO leaderboard(nickname, score) VALUES(?, ?)";
-        try (Connection conn = getConnection();
-             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nickname);
-            pstmt.setInt(2, score);
-            pstmt.executeUpdate();
-        } catch (SQLException e) { System.err.println("Erro ao salvar high score: " + e.getMessage()); }
+        // Vai pelo lote: além da linha, atualiza as contagens usadas por getRank()
+        try {
+            writeBatch(List.of(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.ADD_SCORE, nickname, score, null)));
+        } catch (GameStoreException e) { System.err.println("Erro ao salvar high score: " + e.getMessage()); }
     }
 
-    public List<String> getTopScores() {
-        String sql = "SELECT nickname, score FROM leaderboard ORDER BY score DESC LIMIT 10";
-        List<String> scores = new ArrayList<>();
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            int rank = 1;
-            while (rs.next()) {
-                scores.add(rank + ". " + rs.getString("nickname") + " - " + rs.getInt("score"));
-                rank++;
-            }
-        } catch (SQLException e) {
-            System.err.println("Erro ao ler os scores: " + e.getMessage());
-            scores.add("Erro ao conectar ao banco de dados!");
-        }
-        return scores;
+    /** Top 'limit' pontuações 1P, já tipadas (a formatação fica com a interface). */
+    @Override
+    public List<LeaderboardEntry> getTopScores(int limit) throws GameStoreException {
+        return getScorePage(null, limit).getEntries();
     }
 
     // --- Métodos de Salvar/Carregar (sem alteração) ---
+    @Override
     public void saveGame(String saveName, String jsonState) {
-        String sql = "INSERT INTO saved_games (saveName, gameStateJSON) VALUES (?, ?) "
-                + "ON DUPLICATE KEY UPDATE gameStateJSON = ?";
-        try (Connection conn = getConnection();
-             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, saveName);
-            pstmt.setString(2, jsonState);
-            pstmt.setString(3, jsonState);
-            pstmt.executeUpdate();
-        } catch (SQLException e) { System.err.println("Erro ao salvar o jogo: " + e.getMessage()); }
+        // Vai pelo lote: grava também o resumo (score, nível, miniatura...)
+        try {
+            writeBatch(List.of(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.SAVE_GAME, saveName, 0, jsonState)));
+        } catch (GameStoreException e) { System.err.println("Erro ao salvar o jogo: " + e.getMessage()); }
     }
 
+    @Override
     public String loadGameJSON(String saveName) {
         String sql = "SELECT gameStateJSON FROM saved_games WHERE saveName = ?";
-        try (Connection conn = getConnection();
-             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(sql);
             pstmt.setString(1, saveName);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) { return rs.getString("gameStateJSON"); }
@@ -113,28 +89,179 @@ public class DatabaseManager {
         return null;
     }
 
+    @Override
     public List<String> getSavedGameNames() {
         String sql = "SELECT saveName FROM saved_games ORDER BY saveName";
         List<String> saveNames = new ArrayList<>();
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionPool.PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
             while (rs.next()) { saveNames.add(rs.getString("saveName")); }
         } catch (SQLException e) { System.err.println("Erro ao ler os nomes dos saves: " + e.getMessage()); }
         return saveNames;
     }
 
+    private static final String SQL_SAVE_INFOS = "SELECT saveName, score, level, lines_cleared, updated_at, thumbnail "
+            + "FROM saved_games ORDER BY updated_at DESC";
+    private static final String SQL_LEGACY_SAVES = "SELECT saveName, gameStateJSON FROM saved_games WHERE thumbnail IS NULL";
+    private static final String SQL_UPDATE_SAVE_INFO = "UPDATE saved_games SET score = ?, level = ?, lines_cleared = ?, "
+            + "thumbnail = ?, updated_at = updated_at WHERE saveName = ?";
+
+    private volatile boolean legacySaveInfosFilled = false;
+
+    /** Só o resumo de cada save (o índice idx_saved_games_listing cobre a consulta inteira). */
+    @Override
+    public List<SaveInfo> getSaveInfos() {
+        List<SaveInfo> infos = new ArrayList<>();
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            if (!legacySaveInfosFilled) fillLegacySaveInfos(conn);
+            try (ResultSet rs = conn.prepare(SQL_SAVE_INFOS).executeQuery()) {
+                while (rs.next()) {
+                    infos.add(new SaveInfo(rs.getString("saveName"), rs.getInt("score"), rs.getInt("level"),
+                            rs.getInt("lines_cleared"), rs.getTimestamp("updated_at").getTime(), rs.getBytes("thumbnail")));
+                }
+            }
+        } catch (SQLException e) { System.err.println("Erro ao ler os saves: " + e.getMessage()); }
+        return infos;
+    }
+
+    // Saves gravados antes do resumo existir: decodifica uma única vez e preenche as colunas
+    private void fillLegacySaveInfos(ConnectionPool.PooledConnection conn) throws SQLException {
+        List<SaveInfo> legacy = new ArrayList<>();
+        try (ResultSet rs = conn.prepare(SQL_LEGACY_SAVES).executeQuery()) {
+            while (rs.next()) {
+                legacy.add(SaveInfo.fromText(rs.getString("saveName"), rs.getString("gameStateJSON"), 0));
+            }
+        }
+        if (!legacy.isEmpty()) {
+            PreparedStatement update = conn.prepare(SQL_UPDATE_SAVE_INFO);
+            for (SaveInfo info : legacy) {
+                byte[] thumbnail = info.getThumbnail();
+                update.setInt(1, info.getScore());
+                update.setInt(2, info.getLevel());
+                update.setInt(3, info.getLinesCleared());
+                update.setBytes(4, (thumbnail != null) ? thumbnail : new byte[0]); // Vazio = ilegível, não tenta de novo
+                update.setString(5, info.getName());
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        legacySaveInfosFilled = true;
+    }
+
+    @Override
     public void deleteSaveGame(String saveName) {
         if (saveName == null || saveName.isEmpty()) return;
         String sql = "DELETE FROM saved_games WHERE saveName = ?";
-        try (Connection conn = getConnection();
-             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(sql);
             pstmt.setString(1, saveName);
             pstmt.executeUpdate();
             System.out.println("Jogo salvo '" + saveName + "' deletado.");
         } catch (SQLException e) { System.err.println("Erro ao deletar o save: " + e.getMessage()); }
     }
 
+    // --- ESCRITA EM LOTE (usada pela PersistenceQueue) ---
+
+    private static final String SQL_ADD_SCORE = "INSERT INTO leaderboard(nickname, score) VALUES(?, ?)";
+    private static final String SQL_ADD_WIN = "INSERT INTO leaderboard_2p (nickname, wins) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE wins = wins + VALUES(wins)";
+    private static final String SQL_SAVE_GAME = "INSERT INTO saved_games "
+            + "(saveName, gameStateJSON, score, level, lines_cleared, thumbnail, updated_at) VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP(3)) "
+            + "ON DUPLICATE KEY UPDATE gameStateJSON = VALUES(gameStateJSON), score = VALUES(score), level = VALUES(level), "
+            + "lines_cleared = VALUES(lines_cleared), thumbnail = VALUES(thumbnail), updated_at = VALUES(updated_at)";
+    private static final String SQL_DELETE_SAVE = "DELETE FROM saved_games WHERE saveName = ?";
+    // Contagens por pontuação e por faixa, na mesma transação do INSERT (ver getRank)
+    private static final String SQL_COUNT_SCORE = "INSERT INTO leaderboard_score_counts (score, total) VALUES (?, 1) "
+            + "ON DUPLICATE KEY UPDATE total = total + 1";
+    private static final String SQL_COUNT_BUCKET = "INSERT INTO leaderboard_buckets (bucket, total) VALUES (?, 1) "
+            + "ON DUPLICATE KEY UPDATE total = total + 1";
+
+    /**
+     * Grava um lote de escritas em UMA transação, na ordem recebida.
+     * Escritas consecutivas do mesmo tipo viram um único executeBatch().
+     * Diferente dos outros métodos, aqui o erro é repassado: quem chama decide se tenta de novo.
+     */
+    @Override
+    public void writeBatch(List<PersistenceQueue.PendingWrite> writes) throws GameStoreException {
+        try {
+            if (writes.isEmpty()) return;
+            try (ConnectionPool.PooledConnection conn = getConnection()) {
+                conn.getConnection().setAutoCommit(false);
+                try {
+                    PreparedStatement current = null;
+                    PreparedStatement scoreCounts = conn.prepare(SQL_COUNT_SCORE);
+                    PreparedStatement bucketCounts = conn.prepare(SQL_COUNT_BUCKET);
+                    boolean countsPending = false;
+                    PersistenceQueue.WriteType currentType = null;
+                    for (PersistenceQueue.PendingWrite w : writes) {
+                        if (w.type != currentType) {
+                            if (current != null) current.executeBatch();
+                            currentType = w.type;
+                            current = conn.prepare(sqlFor(w.type));
+                        }
+                        switch (w.type) {
+                            case ADD_SCORE:
+                                current.setString(1, w.key);
+                                current.setInt(2, w.value);
+                                scoreCounts.setInt(1, w.value);
+                                scoreCounts.addBatch();
+                                bucketCounts.setInt(1, w.value / SchemaMigrator.SCORE_BUCKET_SIZE);
+                                bucketCounts.addBatch();
+                                countsPending = true;
+                                break;
+                            case ADD_WIN:
+                                current.setString(1, w.key);
+                                current.setInt(2, w.value);
+                                break;
+                            case SAVE_GAME: {
+                                SaveInfo info = SaveInfo.fromText(w.key, w.payload, 0);
+                                current.setString(1, w.key);
+                                current.setString(2, w.payload);
+                                current.setInt(3, info.getScore());
+                                current.setInt(4, info.getLevel());
+                                current.setInt(5, info.getLinesCleared());
+                                current.setBytes(6, info.getThumbnail());
+                                break;
+                            }
+                            case DELETE_SAVE:
+                                current.setString(1, w.key);
+                                break;
+                        }
+                        current.addBatch();
+                    }
+                    if (current != null) current.executeBatch();
+                    if (countsPending) {
+                        scoreCounts.executeBatch();
+                        bucketCounts.executeBatch();
+                    }
+                    conn.getConnection().commit();
+                } catch (Throwable t) {
+                    // Qualquer erro (não só SQLException) desfaz o lote inteiro; a conexão é
+                    // descartada, sem voltar ao autocommit (que gravaria a transação pela metade)
+                    conn.markBroken();
+                    try {
+                        conn.getConnection().rollback();
+                    } catch (SQLException rollbackError) {
+                        t.addSuppressed(rollbackError);
+                    }
+                    throw t;
+                }
+                conn.getConnection().setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new GameStoreException("Erro ao gravar lote no MySQL", e);
+        }
+    }
+
+    private static String sqlFor(PersistenceQueue.WriteType type) {
+        switch (type) {
+            case ADD_SCORE: return SQL_ADD_SCORE;
+            case ADD_WIN: return SQL_ADD_WIN;
+            case SAVE_GAME: return SQL_SAVE_GAME;
+            default: return SQL_DELETE_SAVE;
+        }
+    }
+
     // --- NOVOS MÉTODOS PARA O RANKING 2P ---
 
     /**
@@ -142,14 +269,15 @@ public class DatabaseManager {
      * Se o jogador não existir, ele é criado com 1 vitória.
      * Se ele existir, seu contador de vitórias é incrementado.
      */
+    @Override
     public void addWin(String nickname) {
         // Comando do MySQL: Insere um novo, mas se a chave 'nickname' já existir,
         // ele executa o comando 'UPDATE' (wins = wins + 1).
         String sql = "INSERT INTO leaderboard_2p (nickname, wins) VALUES (?, 1) "
                 + "ON DUPLICATE KEY UPDATE wins = wins + 1";
 
-        try (Connection conn = getConnection();
-             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(sql);
 
             pstmt.setString(1, nickname);
             pstmt.executeUpdate();
@@ -160,27 +288,160 @@ public class DatabaseManager {
     }
 
     /**
-     * Retorna os 10 melhores jogadores 2P por número de vitórias.
+     * Retorna os 'limit' melhores jogadores 2P por número de vitórias.
      */
-    public List<String> getTopWinners() {
-        String sql = "SELECT nickname, wins FROM leaderboard_2p ORDER BY wins DESC LIMIT 10";
-        List<String> winners = new ArrayList<>();
+    @Override
+    public List<LeaderboardEntry> getTopWinners(int limit) throws GameStoreException {
+        return getWinnerPage(null, limit).getEntries();
+    }
 
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /** Total de vitórias de um jogador (0 se ele não existir). Busca pela chave única. */
+    @Override
+    public int getWins(String nickname) throws GameStoreException {
+        try {
+            String sql = "SELECT wins FROM leaderboard_2p WHERE nickname = ?";
+            try (ConnectionPool.PooledConnection conn = getConnection()) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, nickname);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getInt("wins") : 0;
+                }
+            }
+        } catch (SQLException e) {
+            throw new GameStoreException("Erro ao ler vitórias", e);
+        }
+    }
 
-            int rank = 1;
-            while (rs.next()) {
-                int wins = rs.getInt("wins");
-                String winText = (wins == 1) ? "vitória" : "vitórias"; // (1 vitória, 2 vitórias)
-                winners.add(rank + ". " + rs.getString("nickname") + " - " + wins + " " + winText);
-                rank++;
+    // --- RANKING PAGINADO (cursor / "keyset") ---
+    // Cada página continua a partir da última linha da anterior usando o índice
+    // (score DESC, id) / (wins DESC, nickname), então a página 10.000 custa o
+    // mesmo que a primeira. Nada de OFFSET, que varre e descarta as linhas puladas.
+
+    private static final String SQL_SCORE_FIRST_PAGE = "SELECT id, nickname, score FROM leaderboard "
+            + "ORDER BY score DESC, id ASC LIMIT ?";
+    private static final String SQL_SCORE_NEXT_PAGE = "SELECT id, nickname, score FROM leaderboard "
+            + "WHERE score < ? OR (score = ? AND id > ?) ORDER BY score DESC, id ASC LIMIT ?";
+    private static final String SQL_SCORES_ABOVE = "SELECT id, nickname, score FROM leaderboard "
+            + "WHERE score > ? ORDER BY score ASC, id DESC LIMIT ?";
+    private static final String SQL_SCORES_FROM = "SELECT id, nickname, score FROM leaderboard "
+            + "WHERE score <= ? ORDER BY score DESC, id ASC LIMIT ?";
+    private static final String SQL_WINS_FIRST_PAGE = "SELECT id, nickname, wins FROM leaderboard_2p "
+            + "ORDER BY wins DESC, nickname ASC LIMIT ?";
+    private static final String SQL_WINS_NEXT_PAGE = "SELECT id, nickname, wins FROM leaderboard_2p "
+            + "WHERE wins < ? OR (wins = ? AND nickname > ?) ORDER BY wins DESC, nickname ASC LIMIT ?";
+    private static final String SQL_RANK_BUCKETS = "SELECT COALESCE(SUM(total), 0) FROM leaderboard_buckets WHERE bucket > ?";
+    private static final String SQL_RANK_IN_BUCKET = "SELECT COALESCE(SUM(total), 0) FROM leaderboard_score_counts "
+            + "WHERE score > ? AND score < ?";
+
+    @Override
+    public LeaderboardPage getScorePage(LeaderboardEntry after, int size) throws GameStoreException {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt;
+            if (after == null) {
+                pstmt = conn.prepare(SQL_SCORE_FIRST_PAGE);
+                pstmt.setInt(1, size + 1); // Uma a mais só para saber se existe próxima página
+            } else {
+                pstmt = conn.prepare(SQL_SCORE_NEXT_PAGE);
+                pstmt.setInt(1, after.getValue());
+                pstmt.setInt(2, after.getValue());
+                pstmt.setLong(3, after.getId());
+                pstmt.setInt(4, size + 1);
+            }
+            return toPage(readEntries(pstmt, "score"), size, (after == null) ? 1 : 0);
+        } catch (SQLException e) {
+            throw new GameStoreException("Erro ao ler o ranking 1P", e);
+        }
+    }
+
+    @Override
+    public LeaderboardPage getWinnerPage(LeaderboardEntry after, int size) throws GameStoreException {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt;
+            if (after == null) {
+                pstmt = conn.prepare(SQL_WINS_FIRST_PAGE);
+                pstmt.setInt(1, size + 1);
+            } else {
+                pstmt = conn.prepare(SQL_WINS_NEXT_PAGE);
+                pstmt.setInt(1, after.getValue());
+                pstmt.setInt(2, after.getValue());
+                pstmt.setString(3, after.getNickname()); // nickname é único no 2P
+                pstmt.setInt(4, size + 1);
             }
+            return toPage(readEntries(pstmt, "wins"), size, (after == null) ? 1 : 0);
         } catch (SQLException e) {
-            System.err.println("Erro ao ler o ranking 2P: " + e.getMessage());
-            winners.add("Erro ao conectar ao banco de dados!");
+            throw new GameStoreException("Erro ao ler o ranking 2P", e);
         }
-        return winners;
     }
-}
\ No newline at end of file
+
+    /**
+     * Posição de uma pontuação: 1 + quantas são maiores. Em vez de COUNT(*) na
+     * tabela (milhões de linhas), soma as faixas inteiras acima e, dentro da
+     * faixa da pontuação, as contagens por valor exato: poucos milhares de linhas no pior caso.
+     */
+    @Override
+    public int getRank(int score) throws GameStoreException {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            return rankOf(conn, score);
+        } catch (SQLException e) {
+            throw new GameStoreException("Erro ao calcular a posição no ranking", e);
+        }
+    }
+
+    private int rankOf(ConnectionPool.PooledConnection conn, int score) throws SQLException {
+        int bucket = score / SchemaMigrator.SCORE_BUCKET_SIZE;
+        long above;
+        PreparedStatement buckets = conn.prepare(SQL_RANK_BUCKETS);
+        buckets.setInt(1, bucket);
+        try (ResultSet rs = buckets.executeQuery()) {
+            rs.next();
+            above = rs.getLong(1);
+        }
+        PreparedStatement inBucket = conn.prepare(SQL_RANK_IN_BUCKET);
+        inBucket.setInt(1, score);
+        inBucket.setInt(2, (bucket + 1) * SchemaMigrator.SCORE_BUCKET_SIZE);
+        try (ResultSet rs = inBucket.executeQuery()) {
+            rs.next();
+            above += rs.getLong(1);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, above + 1);
+    }
+
+    @Override
+    public LeaderboardPage getScoresAround(int score, int before, int after) throws GameStoreException {
+        try (ConnectionPool.PooledConnection conn = getConnection()) {
+            PreparedStatement abovePstmt = conn.prepare(SQL_SCORES_ABOVE);
+            abovePstmt.setInt(1, score);
+            abovePstmt.setInt(2, before);
+            List<LeaderboardEntry> entries = readEntries(abovePstmt, "score");
+            Collections.reverse(entries); // Veio do mais perto para o mais longe
+
+            int firstRank = rankOf(conn, score) - entries.size();
+
+            PreparedStatement fromPstmt = conn.prepare(SQL_SCORES_FROM);
+            fromPstmt.setInt(1, score);
+            fromPstmt.setInt(2, after + 1);
+            List<LeaderboardEntry> below = readEntries(fromPstmt, "score");
+            boolean hasMore = below.size() > after;
+            entries.addAll(below.subList(0, Math.min(after, below.size())));
+            return new LeaderboardPage(entries, firstRank, hasMore);
+        } catch (SQLException e) {
+            throw new GameStoreException("Erro ao ler o ranking 1P", e);
+        }
+    }
+
+    private static List<LeaderboardEntry> readEntries(PreparedStatement pstmt, String valueColumn) throws SQLException {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                entries.add(new LeaderboardEntry(rs.getString("nickname"), rs.getInt(valueColumn), rs.getLong("id")));
+            }
+        }
+        return entries;
+    }
+
+    private static LeaderboardPage toPage(List<LeaderboardEntry> rows, int size, int firstRank) {
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = new ArrayList<>(rows.subList(0, size));
+        return new LeaderboardPage(rows, firstRank, hasMore);
+    }
+}
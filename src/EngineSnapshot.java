@@ -0,0 +1,177 @@
+// Em EngineSnapshot.java
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Estado COMPLETO de uma engine ao fim de um tick, para o rollback da rede
+ * (RollbackSession). Guarda tudo o que tick() lê, inclusive o que o save
+ * (GameStateData) não tem: queda acumulada, lock delay, animação de linha
+ * e o lixo na caixa de entrada.
+ *
+ * Reutilizável como o BoardSnapshot: GameEngine.saveSnapshot() e
+ * restoreSnapshot() só copiam campos e 20 linhas do tabuleiro, sem Gson e
+ * sem alocar (os arrays de ataques só crescem se precisar).
+ *
+ * writeTo()/readFrom() são o formato do SNAPSHOT do NetSession (~190 bytes):
+ * o espelho do outro lado volta a este estado exato, timers e lixo inclusos.
+ */
+public class EngineSnapshot {
+
+    final Tetromino[][] grid = new Tetromino[Board.HEIGHT][Board.WIDTH];
+
+    Tetromino currentPiece, nextPiece, heldPiece;
+    int currentX, currentY, currentRotation, ghostY;
+    boolean canHold;
+
+    int score, level, linesCleared;
+    boolean paused, gameOver, winner, running;
+    long rngState;
+
+    double fallProgress, lockMillis;
+    int lockResets;
+    boolean animatingLineClear;
+    double animationMillis, rotationFlash;
+    int clearingRowsMask; // Bit y = linha y sendo limpa
+    int piecesLocked, playTicks;
+
+    // Caixa de entrada de lixo (GarbageMailbox.saveTo)
+    int[] pendingAttacks = new int[8];
+    int pendingCount;
+    int[] inboxAttacks = new int[8];
+    int inboxCount;
+
+    public boolean isGameOver() { return gameOver; }
+    public int getScore() { return score; }
+
+    /**
+     * Hash do estado, para os dois lados conferirem um tick confirmado. Só
+     * entra o que decide o jogo (não o flash da rotação, por exemplo).
+     */
+    public int digest() {
+        int h = 1;
+        for (Tetromino[] row : grid) {
+            for (Tetromino cell : row) h = 31 * h + ((cell != null) ? cell.ordinal() + 1 : 0);
+        }
+        h = 31 * h + ordinal(currentPiece);
+        h = 31 * h + ordinal(nextPiece);
+        h = 31 * h + ordinal(heldPiece);
+        h = 31 * h + currentX;
+        h = 31 * h + currentY;
+        h = 31 * h + currentRotation;
+        h = 31 * h + (canHold ? 1 : 0);
+        h = 31 * h + score;
+        h = 31 * h + level;
+        h = 31 * h + linesCleared;
+        h = 31 * h + (gameOver ? 1 : 0);
+        h = 31 * h + Long.hashCode(rngState);
+        h = 31 * h + Double.hashCode(fallProgress);
+        h = 31 * h + Double.hashCode(lockMillis);
+        h = 31 * h + lockResets;
+        h = 31 * h + (animatingLineClear ? 1 : 0);
+        h = 31 * h + Double.hashCode(animationMillis);
+        h = 31 * h + clearingRowsMask;
+        for (int i = 0; i < pendingCount; i++) h = 31 * h + pendingAttacks[i];
+        h = 31 * h - 1; // Separa pendentes da caixa: [2][1] != [2, 1][]
+        for (int i = 0; i < inboxCount; i++) h = 31 * h + inboxAttacks[i];
+        return h;
+    }
+
+    // --- Formato binário (SNAPSHOT do NetSession) ---
+
+    private static final int FLAG_CAN_HOLD = 1, FLAG_PAUSED = 2, FLAG_GAME_OVER = 4,
+            FLAG_WINNER = 8, FLAG_RUNNING = 16, FLAG_ANIMATING = 32;
+
+    /** Tabuleiro a 4 bits por célula, depois os campos; os doubles vão inteiros (o espelho precisa do valor exato). */
+    public void writeTo(ByteBuffer out) {
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x += 2) {
+                out.put((byte) (ordinal(grid[y][x]) << 4 | ordinal(grid[y][x + 1])));
+            }
+        }
+        out.put((byte) ordinal(currentPiece)).put((byte) ordinal(nextPiece)).put((byte) ordinal(heldPiece));
+        out.putInt(currentX).putInt(currentY).putInt(currentRotation).putInt(ghostY);
+        out.put((byte) ((canHold ? FLAG_CAN_HOLD : 0) | (paused ? FLAG_PAUSED : 0) | (gameOver ? FLAG_GAME_OVER : 0)
+                | (winner ? FLAG_WINNER : 0) | (running ? FLAG_RUNNING : 0) | (animatingLineClear ? FLAG_ANIMATING : 0)));
+        out.putInt(score).putInt(level).putInt(linesCleared).putLong(rngState);
+        out.putDouble(fallProgress).putDouble(lockMillis).putInt(lockResets);
+        out.putDouble(animationMillis).putDouble(rotationFlash).putInt(clearingRowsMask);
+        out.putInt(piecesLocked).putInt(playTicks);
+        NetProtocol.putVarInt(out, pendingCount);
+        for (int i = 0; i < pendingCount; i++) NetProtocol.putVarInt(out, pendingAttacks[i]);
+        NetProtocol.putVarInt(out, inboxCount);
+        for (int i = 0; i < inboxCount; i++) NetProtocol.putVarInt(out, inboxAttacks[i]);
+    }
+
+    /** Lê o que writeTo() gravou. Dado inválido: IllegalArgumentException ou BufferUnderflowException. */
+    public void readFrom(ByteBuffer in) {
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x += 2) {
+                int pair = in.get() & 0xFF;
+                grid[y][x] = tetromino(pair >> 4);
+                grid[y][x + 1] = tetromino(pair & 0x0F);
+            }
+        }
+        currentPiece = tetromino(in.get());
+        nextPiece = tetromino(in.get());
+        heldPiece = tetromino(in.get());
+        currentX = in.getInt();
+        currentY = in.getInt();
+        currentRotation = in.getInt();
+        ghostY = in.getInt();
+        int flags = in.get();
+        canHold = (flags & FLAG_CAN_HOLD) != 0;
+        paused = (flags & FLAG_PAUSED) != 0;
+        gameOver = (flags & FLAG_GAME_OVER) != 0;
+        winner = (flags & FLAG_WINNER) != 0;
+        running = (flags & FLAG_RUNNING) != 0;
+        animatingLineClear = (flags & FLAG_ANIMATING) != 0;
+        score = in.getInt();
+        level = in.getInt();
+        linesCleared = in.getInt();
+        rngState = in.getLong();
+        fallProgress = in.getDouble();
+        lockMillis = in.getDouble();
+        lockResets = in.getInt();
+        animationMillis = in.getDouble();
+        rotationFlash = in.getDouble();
+        clearingRowsMask = in.getInt();
+        piecesLocked = in.getInt();
+        playTicks = in.getInt();
+        if (currentPiece == null || nextPiece == null) throw new IllegalArgumentException("Snapshot sem peça atual");
+        pendingCount = readCount(in);
+        for (int i = 0; i < pendingCount; i++) pendingAttacks = append(pendingAttacks, i, readAttack(in));
+        inboxCount = readCount(in);
+        for (int i = 0; i < inboxCount; i++) inboxAttacks = append(inboxAttacks, i, readAttack(in));
+    }
+
+    private static int readCount(ByteBuffer in) {
+        int count = NetProtocol.getVarInt(in);
+        if (count > in.remaining()) throw new BufferUnderflowException(); // Cada ataque ocupa ao menos 1 byte
+        return count;
+    }
+
+    private static int readAttack(ByteBuffer in) {
+        int lines = NetProtocol.getVarInt(in);
+        if (lines <= 0) throw new IllegalArgumentException("Ataque inválido: " + lines);
+        return lines;
+    }
+
+    private static Tetromino tetromino(int code) {
+        if (code == 0) return null;
+        Tetromino[] types = Tetromino.values();
+        if (code < 0 || code > types.length) throw new IllegalArgumentException("Peça inválida: " + code);
+        return types[code - 1];
+    }
+
+    private static int ordinal(Tetromino t) {
+        return (t != null) ? t.ordinal() + 1 : 0;
+    }
+
+    // Grava 'value' em array[index], dobrando o array se precisar
+    static int[] append(int[] array, int index, int value) {
+        if (index == array.length) array = Arrays.copyOf(array, array.length * 2);
+        array[index] = value;
+        return array;
+    }
+}
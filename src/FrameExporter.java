@@ -0,0 +1,169 @@
+// Em FrameExporter.java
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exporta replays (listas de BoardSnapshot) para imagens, sem janela nenhuma.
+ * Funciona com -Djava.awt.headless=true, pois só usa BufferedImage e o mesmo
+ * BoardRenderer do GamePanel.
+ *
+ * Renderização e codificação rodam em um pool de threads; cada thread tem o
+ * seu próprio BoardRenderer (ele guarda estado interno e não é thread-safe).
+ */
+public class FrameExporter {
+
+    private final ThemeManager themeManager;
+    private final int tileSize;
+    private final int threads;
+    private final ThreadLocal<BoardRenderer> renderers;
+
+    public FrameExporter(ThemeManager themeManager, int tileSize) {
+        this(themeManager, tileSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FrameExporter(ThemeManager themeManager, int tileSize, int threads) {
+        this.themeManager = themeManager;
+        this.tileSize = tileSize;
+        this.threads = Math.max(1, threads);
+        this.renderers = ThreadLocal.withInitial(() -> new BoardRenderer(this.themeManager));
+    }
+
+    public int getFrameWidth() { return Board.WIDTH * tileSize; }
+    public int getFrameHeight() { return Board.HEIGHT * tileSize; }
+
+    // Desenha um frame em uma BufferedImage nova (pode ser chamado de qualquer thread)
+    public BufferedImage renderFrame(BoardSnapshot frame) {
+        BufferedImage image = new BufferedImage(getFrameWidth(), getFrameHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            renderers.get().renderDetailed(g, frame, 0, 0, tileSize, image.getWidth(), image.getHeight());
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Grava frame_00000.png, frame_00001.png, ... em 'dir'.
+     * Cada frame é desenhado e codificado em paralelo. Retorna quantos arquivos foram escritos.
+     */
+    public int exportPngSequence(List<BoardSnapshot> frames, File dir, String prefix) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Não foi possível criar a pasta " + dir);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>(frames.size());
+            for (int i = 0; i < frames.size(); i++) {
+                final BoardSnapshot frame = frames.get(i);
+                final File file = new File(dir, String.format("%s_%05d.png", prefix, i));
+                pending.add(pool.submit(() -> {
+                    ImageIO.write(renderFrame(frame), "png", file);
+                    return null;
+                }));
+            }
+            waitAll(pending);
+            return pending.size();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Grava um único GIF animado. Os frames são desenhados em paralelo e depois
+     * escritos em ordem (o encoder GIF do ImageIO é sequencial). Só 2x 'threads'
+     * frames ficam desenhados ao mesmo tempo: um replay longo não enche a memória.
+     */
+    public void exportAnimatedGif(List<BoardSnapshot> frames, File output, int frameDelayMs) throws IOException {
+        if (frames.isEmpty()) return;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(output)) {
+            int window = 2 * threads;
+            ArrayDeque<Future<BufferedImage>> images = new ArrayDeque<>(window);
+            int submitted = 0;
+
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            while (submitted < frames.size() || !images.isEmpty()) {
+                while (submitted < frames.size() && images.size() < window) {
+                    BoardSnapshot frame = frames.get(submitted++);
+                    images.addLast(pool.submit(() -> renderFrame(frame)));
+                }
+                BufferedImage image = getResult(images.pollFirst());
+                IIOMetadata metadata = createGifFrameMetadata(writer, image, frameDelayMs);
+                writer.writeToSequence(new IIOImage(image, null, metadata), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+            pool.shutdownNow();
+        }
+    }
+
+    // Metadados de GIF: atraso entre frames (em centésimos) e loop infinito
+    private IIOMetadata createGifFrameMetadata(ImageWriter writer, BufferedImage image, int frameDelayMs) throws IOException {
+        ImageTypeSpecifier type = ImageTypeSpecifier.createFromRenderedImage(image);
+        IIOMetadata metadata = writer.getDefaultImageMetadata(type, null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(Math.max(1, frameDelayMs / 10)));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        IIOMetadataNode appExtensions = new IIOMetadataNode("ApplicationExtensions");
+        IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+        loop.setAttribute("applicationID", "NETSCAPE");
+        loop.setAttribute("authenticationCode", "2.0");
+        loop.setUserObject(new byte[]{0x1, 0, 0});
+        appExtensions.appendChild(loop);
+        root.appendChild(appExtensions);
+
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private void waitAll(List<Future<?>> futures) throws IOException {
+        for (Future<?> future : futures) {
+            getResult(future);
+        }
+    }
+
+    private <T> T getResult(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportação interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Erro ao exportar frame: " + cause.getMessage(), cause);
+        }
+    }
+}
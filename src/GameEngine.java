@@ -1,19 +1,13 @@
 // Em GameEngine.java
-import javax.swing.Timer;
-import java.awt.event.ActionListener;
 import java.awt.Color;
-import java.util.Random;
 import java.util.List;
 import java.util.ArrayList;
 
-// Import para o JSON (Salvar/Carregar)
-import com.google.gson.Gson;
-
 public class GameEngine {
 
     // --- Campos da Classe ---
     private final Board board;
-    private final Random random = new Random();
+    private final GameRandom random = new GameRandom(System.nanoTime()); // Vai no save (ver SaveCodec)
 
     // Referências externas
     private GamePanel gamePanel;
@@ -21,6 +15,10 @@ public class GameEngine {
     private ThemeManager themeManager;
     private GameManager gameManager;
     private SoundManager soundManager;
+    private ReplayRecorder replayRecorder; // Opcional: grava frames para exportação
+    private AutosaveJournal autosave; // Opcional (só 1P): journal contra crash
+    private GarbageMailbox incomingGarbage; // Opcional: ataques recebidos (ver GarbageMailbox)
+    private GarbageMailbox garbageTarget;   // Opcional: caixa de entrada do adversário
 
     // Estado da peça, Estado do Jogo
     private Tetromino currentPiece;
@@ -33,14 +31,36 @@ public class GameEngine {
     private boolean isPaused = false;
     private boolean isGameOver = false;
     private boolean isWinner = false;
-    private Timer timer;
+    private boolean running = false; // false = o GameScheduler não avança esta engine
+
+    // Tempo: cada tick vale exatamente TICK_MS de tempo real (o GameScheduler
+    // repõe os ticks perdidos), então gravidade, lock delay e animações são em ms
+    private static final double TICK_MS = 1000.0 / GameScheduler.TICKS_PER_SECOND;
+    public static final int LINE_CLEAR_MS = 500;
+    private static final int ROTATION_FLASH_MS = 80;
+    private static final int LOCK_DELAY_MS = 500;
+    private static final int MAX_LOCK_RESETS = 15; // Mover/girar no chão adia o travamento, até este limite
+    private GravityCurve gravity = GravityCurve.fromSystemProperty();
+    private double fallProgress = 0; // Fração de célula acumulada pela gravidade
+    private double lockMillis = 0; // Tempo parado no chão
+    private int lockResets = 0;
 
     // Variáveis de Animação
     private boolean isAnimatingLineClear = false;
-    private int animationCounter = 0;
+    private double animationMillis = 0;
     private List<Integer> linesToClear = new ArrayList<>();
     private int ghostY;
-    private int rotationFlash = 0;
+    private double rotationFlash = 0; // ms restantes do "flash" ao girar
+
+    // Última peça travada, registrada no autosave quando a próxima entra em jogo
+    private Tetromino lockedPiece;
+    private int lockedRotation, lockedX, lockedY;
+
+    // Para as estatísticas: peças travadas e quadros jogados (sem pausa) nesta sessão
+    private int piecesLocked = 0;
+    private int playTicks = 0;
+
+    private boolean silent = false; // Re-simulação do rollback: sem repetir os sons
 
     // --- NOVOS CAMPOS PARA A PEÇA "HOLD" ---
     private Tetromino heldPiece = null;
@@ -55,7 +75,13 @@ public class GameEngine {
     public void setThemeManager(ThemeManager themeManager) { this.themeManager = themeManager; }
     public void setGameManager(GameManager manager) { this.gameManager = manager; }
     public void setSoundManager(SoundManager manager) { this.soundManager = manager; }
+    public void setReplayRecorder(ReplayRecorder recorder) { this.replayRecorder = recorder; }
+    public void setAutosaveJournal(AutosaveJournal journal) { this.autosave = journal; }
+    public void setGarbageMailboxes(GarbageMailbox incoming, GarbageMailbox target) { this.incomingGarbage = incoming; this.garbageTarget = target; }
+    public void setSilent(boolean silent) { this.silent = silent; }
     public GamePanel getGamePanel() { return gamePanel; }
+    public ScorePanel getScorePanel() { return scorePanel; }
+    public void setSeed(long seed) { random.setState(seed); }
 
     // --- Controle do Loop do Jogo ---
     public void startGame() {
@@ -67,47 +93,97 @@ public class GameEngine {
         isPaused = false;
         isWinner = false;
         isAnimatingLineClear = false;
-        animationCounter = 0;
+        animationMillis = 0;
         linesToClear.clear();
         rotationFlash = 0;
+        piecesLocked = 0;
+        playTicks = 0;
+        if (incomingGarbage != null) incomingGarbage.clear(); // Sobras da partida anterior
 
         heldPiece = null; // Limpa o "hold" no início
         canHold = true;   // Permite o "hold"
 
         spawnNewPiece(); // Define a peça ATUAL
         spawnNewPiece(); // Define a PRÓXIMA peça
+        lockedPiece = null;
+        if (autosave != null) autosave.startSession(captureState());
 
-        int timerDelay = 1000 / 60;
-        final int[] dropCounter = {0};
-        ActionListener gameLoop = e -> {
-            if (rotationFlash > 0) rotationFlash--;
-            if (isAnimatingLineClear) {
-                animationCounter++;
-                if (animationCounter > 30) {
-                    isAnimatingLineClear = false;
-                    animationCounter = 0;
-                    board.executeLineClearance(linesToClear);
-                    updateScoreAndLevel();
-                    linesToClear.clear();
-                    spawnNewPiece();
-                }
-            } else if (!isPaused && !isGameOver) {
-                int dropInterval = Math.max(1, 40 - level * 2);
-                dropCounter[0]++;
-                if (dropCounter[0] >= dropInterval) {
-                    moveDown();
-                    dropCounter[0] = 0;
-                }
+        running = true; // O GameScheduler do GameManager passa a chamar tick()
+    }
+
+    /**
+     * Um passo fixo da simulação (1/60 s). Quem chama é o GameScheduler, na EDT,
+     * para todas as engines da partida no mesmo tick; o repaint é feito por ele,
+     * uma vez por frame, depois de todas avançarem.
+     */
+    public void tick() {
+        if (!running || isPaused) return;
+        if (rotationFlash > 0) rotationFlash = Math.max(0, rotationFlash - TICK_MS);
+        if (isAnimatingLineClear) {
+            animationMillis += TICK_MS;
+            if (animationMillis >= LINE_CLEAR_MS) {
+                isAnimatingLineClear = false;
+                animationMillis = 0;
+                board.executeLineClearance(linesToClear);
+                updateScoreAndLevel();
+                linesToClear.clear();
+                spawnNewPiece();
+            }
+        } else if (!isGameOver) {
+            playTicks++;
+            applyGravity();
+        }
+        if (replayRecorder != null) replayRecorder.record(this);
+    }
+
+    /**
+     * Fronteira de tick: o lixo que chegou na caixa de entrada vira "pendente".
+     * Quem avança as engines chama isto para TODAS antes de qualquer tick(),
+     * então o que um atacante manda no tick N só conta para o adversário a
+     * partir do tick N+1, em qualquer ordem ou thread (resultado determinístico).
+     *
+     * O pendente não entra na hora: ele é anulado pelas linhas que esta engine
+     * mandar (updateScoreAndLevel) e o que sobrar sobe quando ela travar uma
+     * peça sem limpar linha (applyPendingGarbage). Nunca é perdido durante a
+     * animação de linha.
+     */
+    public int acceptIncomingGarbage() {
+        return (incomingGarbage != null) ? incomingGarbage.collect() : 0;
+    }
+
+    // Queda pelo tempo do tick (até 20G = 20 células por tick) e, no chão, o lock delay
+    private void applyGravity() {
+        int[][] shape = getCurrentPieceShape();
+        if (board.isValidPosition(shape, currentX, currentY + 1)) {
+            lockMillis = 0; // Saiu do chão (ex.: moveu para fora de uma borda)
+            fallProgress += gravity.cellsPerSecond(level) * TICK_MS / 1000.0;
+            while (fallProgress >= 1 && board.isValidPosition(shape, currentX, currentY + 1)) {
+                currentY++;
+                fallProgress -= 1;
             }
-            if (gamePanel != null) gamePanel.repaint();
-            if (scorePanel != null) scorePanel.update();
-        };
-        timer = new Timer(timerDelay, gameLoop);
-        timer.start();
+            if (board.isValidPosition(shape, currentX, currentY + 1)) return;
+            fallProgress = 0;
+        }
+        lockMillis += TICK_MS;
+        if (lockMillis >= LOCK_DELAY_MS) lockPiece();
+    }
+
+    // Peça nova (ou trocada pelo hold): gravidade e lock delay recomeçam
+    private void resetFall() {
+        fallProgress = 0;
+        lockMillis = 0;
+        lockResets = 0;
+    }
+
+    // Mover/girar com a peça no chão adia o travamento (limitado, para não travar nunca)
+    private void resetLockDelay() {
+        if (lockMillis > 0 && lockResets < MAX_LOCK_RESETS) {
+            lockMillis = 0;
+            lockResets++;
+        }
     }
 
     public void restartGame() {
-        if(timer != null) timer.stop();
         if (gameManager != null) {
             gameManager.resetMatchState();
         }
@@ -115,9 +191,7 @@ public class GameEngine {
     }
 
     public void stopGame() {
-        if (timer != null) {
-            timer.stop();
-        }
+        running = false;
     }
 
     // --- Lógica Principal do Jogo ---
@@ -129,6 +203,7 @@ public class GameEngine {
         currentX = Board.WIDTH / 2 - 2;
         currentY = 0;
         nextPiece = Tetromino.values()[random.nextInt(Tetromino.values().length)];
+        resetFall();
 
         canHold = true; // <-- ADICIONADO: Permite o "hold" para esta nova peça
 
@@ -141,22 +216,48 @@ public class GameEngine {
             }
         } else {
             updateGhostY();
+            if (autosave != null && lockedPiece != null) {
+                autosave.recordLock(lockedPiece, lockedRotation, lockedX, lockedY, captureState());
+            }
         }
+        lockedPiece = null;
     }
 
     private void lockPiece() {
+        piecesLocked++;
+        lockedPiece = currentPiece;
+        lockedRotation = currentRotation;
+        lockedX = currentX;
+        lockedY = currentY;
         board.placePiece(getCurrentPieceShape(), currentX, currentY, currentPiece);
         this.linesToClear = board.findFullLines();
 
         if (!linesToClear.isEmpty()) {
             this.isAnimatingLineClear = true;
-            this.animationCounter = 0;
+            this.animationMillis = 0;
             this.linesCleared += linesToClear.size();
             playSound("res/clear.wav");
         } else {
             playSound("res/lock.wav");
-            spawnNewPiece();
+            if (applyPendingGarbage()) spawnNewPiece();
+        }
+    }
+
+    // Peça travada sem limpar linha: o lixo pendente sobe agora. Retorna false se estourou o topo.
+    private boolean applyPendingGarbage() {
+        if (incomingGarbage == null) return true;
+        int lines = incomingGarbage.takeForLock(Board.HEIGHT);
+        if (lines == 0) return true;
+        boolean toppedOut = !board.areRowsEmpty(0, lines); // Blocos que seriam empurrados para fora
+        board.addGarbageLines(lines, random);
+        if (!toppedOut) return true;
+        if (gameManager != null && gameManager.getCurrentState() != GameState.MENU) {
+            gameManager.playerLost(this);
+        } else {
+            isGameOver = true;
+            stopGame();
         }
+        return false;
     }
 
     // --- ESTE MÉTODO ESTAVA VAZIO NO ARQUIVO RUIM ---
@@ -174,17 +275,16 @@ public class GameEngine {
         // Lógica de Nível
         level = 1 + linesCleared / 10;
 
-        // Lógica de Ataque 2P
-        if (gameManager != null && gameManager.getCurrentState() == GameState.TWO_PLAYER) {
+        // Lógica de Ataque (2P ou arena): primeiro anula o lixo pendente, o resto vai para o adversário
+        if (garbageTarget != null) {
             int garbageToSend = 0;
             switch (linesJustCleared) {
                 case 2: garbageToSend = 1; break;
                 case 3: garbageToSend = 2; break;
                 case 4: garbageToSend = 4; break;
             }
-            if (garbageToSend > 0) {
-                gameManager.sendGarbage(this, garbageToSend);
-            }
+            if (incomingGarbage != null) garbageToSend = incomingGarbage.cancel(garbageToSend);
+            garbageTarget.post(garbageToSend);
         }
     }
 
@@ -199,28 +299,6 @@ public class GameEngine {
         this.ghostY = testY;
     }
 
-    // --- ESTE MÉTODO ESTAVA VAZIO NO ARQUIVO RUIM ---
-    public void addGarbageLines(int lineCount) {
-        if (isGameOver || isAnimatingLineClear) return;
-        board.addGarbageLines(lineCount);
-        playSound("res/lock.wav");
-        if (!board.isValidPosition(getCurrentPieceShape(), currentX, currentY)) {
-            int saveY = currentY;
-            for (int i = 1; i <= lineCount + 1; i++) {
-                if (board.isValidPosition(getCurrentPieceShape(), currentX, currentY - i)) {
-                    currentY = currentY - i;
-                    break;
-                }
-            }
-            if (currentY == saveY && !board.isValidPosition(getCurrentPieceShape(), currentX, currentY)) {
-                if (gameManager != null && gameManager.getCurrentState() != GameState.MENU) {
-                    gameManager.playerLost(this);
-                }
-            }
-        }
-        updateGhostY();
-    }
-
     // --- NOVO MÉTODO: "HOLD PIECE" ---
     public void holdPiece() {
         if (isGameOver || isPaused || isAnimatingLineClear || !canHold) {
@@ -239,6 +317,7 @@ public class GameEngine {
             currentRotation = 0;
             currentX = Board.WIDTH / 2 - 2;
             currentY = 0;
+            resetFall();
             if (!board.isValidPosition(getCurrentPieceShape(), currentX, currentY)) {
                 if (gameManager != null && gameManager.getCurrentState() != GameState.MENU) {
                     gameManager.playerLost(this);
@@ -256,13 +335,13 @@ public class GameEngine {
     }
 
     // --- Métodos de Movimento ---
-    public void moveLeft() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { if (board.isValidPosition(getCurrentPieceShape(), currentX - 1, currentY)) { currentX--; playSound("res/move.wav"); updateGhostY(); } } }
-    public void moveRight() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { if (board.isValidPosition(getCurrentPieceShape(), currentX + 1, currentY)) { currentX++; playSound("res/move.wav"); updateGhostY(); } } }
+    public void moveLeft() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { if (board.isValidPosition(getCurrentPieceShape(), currentX - 1, currentY)) { currentX--; playSound("res/move.wav"); updateGhostY(); resetLockDelay(); } } }
+    public void moveRight() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { if (board.isValidPosition(getCurrentPieceShape(), currentX + 1, currentY)) { currentX++; playSound("res/move.wav"); updateGhostY(); resetLockDelay(); } } }
     public void moveDown() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { if (board.isValidPosition(getCurrentPieceShape(), currentX, currentY + 1)) { currentY++; updateGhostY(); } else { lockPiece(); } } }
     public void hardDrop() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { while (board.isValidPosition(getCurrentPieceShape(), currentX, currentY + 1)) { currentY++; score += 2; } lockPiece(); } }
-    public void rotate() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { int nextRotation = (currentRotation + 1) % currentPiece.getNumRotations(); int[][] nextShape = currentPiece.getShape(nextRotation); if (board.isValidPosition(nextShape, currentX, currentY)) { currentRotation = nextRotation; playSound("res/rotate.wav"); updateGhostY(); this.rotationFlash = 5; } else if (board.isValidPosition(nextShape, currentX + 1, currentY)) { currentX++; currentRotation = nextRotation; playSound("res/rotate.wav"); updateGhostY(); this.rotationFlash = 5; } else if (board.isValidPosition(nextShape, currentX - 1, currentY)) { currentX--; currentRotation = nextRotation; playSound("res/rotate.wav"); updateGhostY(); this.rotationFlash = 5; } } }
-    public void togglePause() { if (!isGameOver && !isAnimatingLineClear) { isPaused = !isPaused; if(isPaused) { if (timer != null) timer.stop(); } else { if (timer != null) timer.start(); } if (gamePanel != null) { gamePanel.repaint(); } } }
-    private void playSound(String soundFile) { if (soundManager != null) { soundManager.playSound(soundFile, false); } }
+    public void rotate() { if (!isGameOver && !isPaused && !isAnimatingLineClear) { int nextRotation = (currentRotation + 1) % currentPiece.getNumRotations(); int[][] nextShape = currentPiece.getShape(nextRotation); if (board.isValidPosition(nextShape, currentX, currentY)) { currentRotation = nextRotation; playSound("res/rotate.wav"); updateGhostY(); this.rotationFlash = ROTATION_FLASH_MS; resetLockDelay(); } else if (board.isValidPosition(nextShape, currentX + 1, currentY)) { currentX++; currentRotation = nextRotation; playSound("res/rotate.wav"); updateGhostY(); this.rotationFlash = ROTATION_FLASH_MS; resetLockDelay(); } else if (board.isValidPosition(nextShape, currentX - 1, currentY)) { currentX--; currentRotation = nextRotation; playSound("res/rotate.wav"); updateGhostY(); this.rotationFlash = ROTATION_FLASH_MS; resetLockDelay(); } } }
+    public void togglePause() { if (!isGameOver && !isAnimatingLineClear) { isPaused = !isPaused; if (gamePanel != null) { gamePanel.repaint(); } } }
+    private void playSound(String soundFile) { if (soundManager != null && !silent) { soundManager.playSound(soundFile, false); } }
 
     // --- Controlador de Teclas (ATUALIZADO) ---
     public void handleKeyPress(int keyCode) {
@@ -292,6 +371,9 @@ public class GameEngine {
     public Board getBoard() { return board; }
     public int[][] getCurrentPieceShape() { return (currentPiece != null) ? currentPiece.getShape(currentRotation) : null; }
     public Color getCurrentPieceColor() { return (currentPiece != null) ? themeManager.getColor(currentPiece) : Color.BLACK; }
+    public Tetromino getCurrentPiece() { return currentPiece; }
+    public int getCurrentRotation() { return currentRotation; }
+    public int getPendingGarbage() { return (incomingGarbage != null) ? incomingGarbage.pendingLines() : 0; }
     public int getCurrentPieceX() { return currentX; }
     public int getCurrentPieceY() { return currentY; }
     public Tetromino getNextPiece() { return nextPiece; }
@@ -299,30 +381,64 @@ public class GameEngine {
     public int getScore() { return score; }
     public int getLevel() { return level; }
     public int getLinesCleared() { return linesCleared; }
+    public int getPiecesLocked() { return piecesLocked; }
+    public long getPlayMillis() { return playTicks * 1000L / GameScheduler.TICKS_PER_SECOND; }
     public boolean isPaused() { return isPaused; }
     public boolean isGameOver() { return isGameOver; }
     public boolean isAnimatingLineClear() { return isAnimatingLineClear; }
     public List<Integer> getLinesToClear() { return linesToClear; }
-    public int getAnimationCounter() { return animationCounter; }
+    public int getAnimationMillis() { return (int) animationMillis; }
     public int getGhostY() { return ghostY; }
-    public int getRotationFlash() { return rotationFlash; }
+    public int getRotationFlash() { return (int) Math.ceil(rotationFlash); }
+    public void setGravityCurve(GravityCurve gravity) { this.gravity = gravity; }
     public void setGameOver(boolean gameOver) { this.isGameOver = gameOver; if (gameOver) { stopGame(); } }
     public void setWinner(boolean winner) { this.isWinner = winner; }
     public boolean isWinner() { return isWinner; }
 
+    // --- Snapshot para desenho (GamePanel, SpectatorPanel) ---
+    public void snapshotInto(BoardSnapshot snapshot) {
+        Tetromino[][] grid = board.getGrid();
+        byte[] cells = snapshot.cells;
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            int row = y * Board.WIDTH;
+            for (int x = 0; x < Board.WIDTH; x++) {
+                Tetromino t = grid[y][x];
+                cells[row + x] = (t != null) ? (byte) (t.ordinal() + 1) : 0;
+            }
+        }
+
+        snapshot.pieceType = currentPiece;
+        snapshot.pieceRotation = currentRotation;
+        snapshot.pieceX = currentX;
+        snapshot.pieceY = currentY;
+        snapshot.ghostY = ghostY;
+        snapshot.score = score;
+        snapshot.level = level;
+        snapshot.linesCleared = linesCleared;
+        snapshot.paused = isPaused;
+        snapshot.gameOver = isGameOver;
+        snapshot.winner = isWinner;
+        snapshot.animatingLineClear = isAnimatingLineClear;
+        snapshot.animationMillis = (int) animationMillis;
+        snapshot.rotationFlash = (int) Math.ceil(rotationFlash);
+        snapshot.pendingGarbage = getPendingGarbage();
+
+        int mask = 0;
+        for (int y : linesToClear) mask |= 1 << y;
+        snapshot.clearingRowsMask = mask;
+    }
+
 
     // --- ESTE MÉTODO ESTAVA VAZIO NO ARQUIVO RUIM (O QUE CAUSOU O ERRO) ---
     public GameStateData captureState() {
         GameStateData state = new GameStateData();
 
         Tetromino[][] grid = board.getGrid();
-        state.boardGrid = new String[Board.HEIGHT][Board.WIDTH];
+        state.cells = new byte[Board.HEIGHT * Board.WIDTH];
         for (int y = 0; y < Board.HEIGHT; y++) {
             for (int x = 0; x < Board.WIDTH; x++) {
                 if (grid[y][x] != null) {
-                    state.boardGrid[y][x] = grid[y][x].name();
-                } else {
-                    state.boardGrid[y][x] = null;
+                    state.cells[y * Board.WIDTH + x] = (byte) (grid[y][x].ordinal() + 1);
                 }
             }
         }
@@ -333,10 +449,14 @@ public class GameEngine {
         state.currentRotation = this.currentRotation;
 
         if (nextPiece != null) state.nextPieceName = nextPiece.name();
+        if (heldPiece != null) state.heldPieceName = heldPiece.name();
+        state.canHold = this.canHold;
 
         state.score = this.score;
         state.level = this.level;
         state.linesCleared = this.linesCleared;
+        state.rngState = random.getState();
+        state.hasRngState = true;
 
         if (themeManager != null) {
             state.currentThemeName = themeManager.getCurrentThemeName();
@@ -345,14 +465,83 @@ public class GameEngine {
         return state; // <-- AQUI ESTÁ O 'return' QUE FALTAVA
     }
 
+    // --- Estado completo, sem alocar (rollback do RollbackSession, SNAPSHOT do NetSession) ---
+
+    public void saveSnapshot(EngineSnapshot s) {
+        board.copyGridTo(s.grid);
+        s.currentPiece = currentPiece;
+        s.nextPiece = nextPiece;
+        s.heldPiece = heldPiece;
+        s.currentX = currentX;
+        s.currentY = currentY;
+        s.currentRotation = currentRotation;
+        s.ghostY = ghostY;
+        s.canHold = canHold;
+        s.score = score;
+        s.level = level;
+        s.linesCleared = linesCleared;
+        s.paused = isPaused;
+        s.gameOver = isGameOver;
+        s.winner = isWinner;
+        s.running = running;
+        s.rngState = random.getState();
+        s.fallProgress = fallProgress;
+        s.lockMillis = lockMillis;
+        s.lockResets = lockResets;
+        s.animatingLineClear = isAnimatingLineClear;
+        s.animationMillis = animationMillis;
+        s.rotationFlash = rotationFlash;
+        int mask = 0;
+        for (int y : linesToClear) mask |= 1 << y;
+        s.clearingRowsMask = mask;
+        s.piecesLocked = piecesLocked;
+        s.playTicks = playTicks;
+        if (incomingGarbage != null) incomingGarbage.saveTo(s);
+    }
+
+    public void restoreSnapshot(EngineSnapshot s) {
+        board.copyGridFrom(s.grid);
+        currentPiece = s.currentPiece;
+        nextPiece = s.nextPiece;
+        heldPiece = s.heldPiece;
+        currentX = s.currentX;
+        currentY = s.currentY;
+        currentRotation = s.currentRotation;
+        ghostY = s.ghostY;
+        canHold = s.canHold;
+        score = s.score;
+        level = s.level;
+        linesCleared = s.linesCleared;
+        isPaused = s.paused;
+        isGameOver = s.gameOver;
+        isWinner = s.winner;
+        running = s.running;
+        random.setState(s.rngState);
+        fallProgress = s.fallProgress;
+        lockMillis = s.lockMillis;
+        lockResets = s.lockResets;
+        isAnimatingLineClear = s.animatingLineClear;
+        animationMillis = s.animationMillis;
+        rotationFlash = s.rotationFlash;
+        linesToClear.clear();
+        for (int y = Board.HEIGHT - 1; y >= 0; y--) { // Mesma ordem do findFullLines()
+            if ((s.clearingRowsMask & (1 << y)) != 0) linesToClear.add(y);
+        }
+        piecesLocked = s.piecesLocked;
+        playTicks = s.playTicks;
+        lockedPiece = null;
+        if (incomingGarbage != null) incomingGarbage.restoreFrom(s);
+    }
+
     // --- ESTE MÉTODO ESTAVA VAZIO NO ARQUIVO RUIM ---
     public void loadState(GameStateData state) {
         board.reset();
-        String[][] grid = state.boardGrid;
+        Tetromino[] types = Tetromino.values();
         for (int y = 0; y < Board.HEIGHT; y++) {
             for (int x = 0; x < Board.WIDTH; x++) {
-                if (grid[y][x] != null) {
-                    board.placePiece(new int[][]{{1}}, x, y, Tetromino.valueOf(grid[y][x]));
+                int cell = state.cells[y * Board.WIDTH + x];
+                if (cell != 0) {
+                    board.placePiece(new int[][]{{1}}, x, y, types[cell - 1]);
                 }
             }
         }
@@ -367,16 +556,22 @@ public class GameEngine {
         if (state.nextPieceName != null) {
             this.nextPiece = Tetromino.valueOf(state.nextPieceName);
         }
+        this.heldPiece = (state.heldPieceName != null) ? Tetromino.valueOf(state.heldPieceName) : null;
+        this.canHold = state.canHold;
+        if (state.hasRngState) random.setState(state.rngState);
 
         this.score = state.score;
         this.level = state.level;
         this.linesCleared = state.linesCleared;
+        this.piecesLocked = 0;
+        this.playTicks = 0;
 
         if (this.themeManager != null && state.currentThemeName != null) {
             this.themeManager.setCurrentTheme(state.currentThemeName);
         }
 
         updateGhostY();
+        if (autosave != null) autosave.startSession(captureState());
         if (gamePanel != null) gamePanel.repaint();
         if (scorePanel != null) scorePanel.update();
     }
@@ -1,15 +1,18 @@
 // Em GameManager.java
-import javax.swing.Timer;
-import java.awt.event.ActionListener;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 enum GameState {
     MENU,
     ONE_PLAYER,
-    TWO_PLAYER
+    TWO_PLAYER,
+    BATTLE,
+    NETWORK
 }
 
 public class GameManager {
@@ -23,11 +26,22 @@ public class GameManager {
     private ThemeManager themeManager;
     private HighScoreManager highScoreManager;
     private SoundManager soundManager;
-    private DatabaseManager databaseManager;
-
-    private Timer gameTimer;
+    private GameStore gameStore; // MySQL ou arquivo local (-Dtetris.store)
+    private PersistenceQueue persistenceQueue; // Escritas no banco fora da EDT
+    private LeaderboardCache leaderboardCache; // Rankings em memória para o menu
+    private AutosaveJournal autosaveJournal; // Partida 1P atual, para retomar após um crash
+
+    private final GameScheduler scheduler; // Um relógio para todas as engines da partida
+    private BattleMatch battle; // 2P e batalha contra bots: N engines, lixo por TargetingStrategy
+    private ActionQueueController player1Input; // Setas (e, na batalha, também WASD)
+    private ActionQueueController player2Input; // WASD no 2P
+    private static final int BATTLE_BOT_BASE_TICKS = 24; // Bots da batalha: 0,4 s a 0,7 s por peça
+    private NetMatch netSession; // Só no modo em rede (LAN): rollback ou espelho atrasado
+    private boolean opponentShown = false; // Título já trocado para "eu x oponente"
+    private static final String WINDOW_TITLE = "Tetris Java - OOP Project";
+    private static final int RANK_NEIGHBOURS = 2;
+    private static final long RANK_LOOKUP_TIMEOUT_MS = 500;
     private boolean matchOver = false;
-    private Gson gson;
 
     // Estado do Jogo Salvo
     private String loadedSaveName = null;
@@ -41,14 +55,19 @@ public class GameManager {
         this.themeManager = new ThemeManager();
         this.highScoreManager = new HighScoreManager();
         this.currentState = GameState.MENU;
-        this.databaseManager = new DatabaseManager();
-        this.gson = new Gson();
+        this.gameStore = GameStore.open();
+        this.persistenceQueue = new PersistenceQueue(gameStore);
+        this.leaderboardCache = new LeaderboardCache(gameStore, persistenceQueue);
+        this.autosaveJournal = new AutosaveJournal();
+        this.scheduler = new GameScheduler(this::onFrame);
         this.soundManager = new SoundManager();
         soundManager.setVolume(0.8f); // Define o volume, mas não toca
     }
 
     public SoundManager getSoundManager() { return soundManager; }
-    public DatabaseManager getDatabaseManager() { return databaseManager; }
+    public GameStore getGameStore() { return gameStore; }
+    public ThemeManager getThemeManager() { return themeManager; }
+    public LeaderboardCache getLeaderboardCache() { return leaderboardCache; }
 
     public void resetMatchState() {
         this.matchOver = false;
@@ -61,9 +80,11 @@ public class GameManager {
         currentState = GameState.ONE_PLAYER;
         resetMatchState();
         player1Engine = createPlayerEngine();
+        player1Engine.setAutosaveJournal(autosaveJournal);
         gameWindow.showGamePanel(player1Engine, null, themeManager);
         soundManager.startDefaultMusic(); // Toca a música
         player1Engine.startGame();
+        scheduler.start(List.of(player1Engine));
     }
 
     public void startTwoPlayerGame() {
@@ -80,29 +101,171 @@ public class GameManager {
         if (player1Nickname.length() > 50) player1Nickname = player1Nickname.substring(0, 50);
         if (player2Nickname.length() > 50) player2Nickname = player2Nickname.substring(0, 50);
 
-        player1Engine = createPlayerEngine();
-        player2Engine = createPlayerEngine();
+        // 2P é uma BattleMatch de dois lugares (com dois, todo alvo é "o outro")
+        player1Engine = createMatchEngine(true);
+        player2Engine = createMatchEngine(true);
+        player1Input = new ActionQueueController();
+        player2Input = new ActionQueueController();
+        battle = new BattleMatch(TargetingStrategy.RANDOM, System.nanoTime());
+        battle.addPlayer(player1Nickname, player1Engine, player1Input);
+        battle.addPlayer(player2Nickname, player2Engine, player2Input);
+        battle.setOnFinished(this::battleFinished);
 
         gameWindow.showGamePanel(player1Engine, player2Engine, themeManager);
         soundManager.startDefaultMusic(); // Toca a música
-        player1Engine.startGame();
-        player2Engine.startGame();
+        battle.start();
+        scheduler.start(List.of(), battle::step); // A partida avança as engines, no mesmo tick
     }
 
-    public void loadGame(String saveName) {
+    /**
+     * Batalha: o jogador (setas ou WASD) contra 'bots' bots, todos contra
+     * todos, até sobrar um. Os tabuleiros ficam numa grade que se ajusta ao
+     * número de jogadores; o do jogador aparece grande à esquerda.
+     */
+    public void startBattle(String nickname, int bots, TargetingStrategy strategy) {
+        resetMatchState();
+        currentState = GameState.BATTLE;
+        player1Nickname = nickname;
+
+        player1Input = new ActionQueueController();
+        battle = new BattleMatch(strategy, System.nanoTime());
+        player1Engine = createMatchEngine(true);
+        battle.addPlayer(nickname, player1Engine, player1Input);
+        for (int i = 1; i <= bots; i++) {
+            battle.addPlayer("Bot " + i, createMatchEngine(false), new SimpleBot(BATTLE_BOT_BASE_TICKS + 6 * (i % 4)));
+        }
+        battle.setOnFinished(this::battleFinished);
+
+        List<String> names = new ArrayList<>();
+        for (BattleMatch.Slot slot : battle.getSlots()) names.add(slot.getNickname());
+        gameWindow.showBattlePanel(battle.getEngines(), names, player1Engine, themeManager);
+        soundManager.startDefaultMusic(); // Toca a música
+        battle.start();
+        scheduler.start(List.of(), battle::step);
+    }
+
+    // Fim da BattleMatch (2P ou batalha): placar, ranking e aviso
+    private void battleFinished() {
+        matchOver = true;
+        soundManager.playSound("res/gameover.wav", false);
+        BattleMatch.Slot winner = battle.getWinner();
+        if (currentState == GameState.TWO_PLAYER) {
+            if (winner != null) persistenceQueue.addWin(winner.getNickname());
+            highScoreManager.recordTwoPlayerMatch((winner == null) ? 0 : winner.getIndex() + 1);
+            return;
+        }
+
+        // Batalha: vitórias contra bots não entram no ranking 2P
+        BattleMatch.Slot me = battle.getSlots().get(0);
+        String text = (winner == me)
+                ? "Você venceu a batalha! KOs: " + me.getKos()
+                : "Você ficou em #" + me.getPlacement() + " de " + battle.getSlots().size() + ". KOs: " + me.getKos()
+                        + ((winner != null) ? "\nVencedor: " + winner.getNickname() : "");
+        // Fora do tick do scheduler: o diálogo modal não pode rodar no meio do step()
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(gameWindow,
+                text + "\nPressione 'R' para voltar ao menu.", "Fim da Batalha", JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    /**
+     * Versus em rede: host == null cria a partida na porta dada e espera;
+     * senão entra na partida de host:porta. A engine local fica à direita
+     * (setas) e o espelho do oponente à esquerda. Com -Dtetris.net.latency,
+     * .jitter e .loss dá para simular uma rede ruim (ver NetLink).
+     */
+    public void startNetworkGame(String host, int port, String nickname) {
+        NetLink link;
         try {
-            String jsonState = databaseManager.loadGameJSON(saveName);
-            if (jsonState == null) { throw new Exception("Save '" + saveName + "' não encontrado."); }
-            GameStateData state = gson.fromJson(jsonState, GameStateData.class);
+            NetLink.Conditions conditions = NetLink.Conditions.fromSystemProperties();
+            link = (host == null) ? NetLink.listen(port, conditions) : NetLink.connect(host, port, conditions);
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(gameWindow, "Erro ao abrir a conexão: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        resetMatchState();
+        currentState = GameState.NETWORK;
+        player1Nickname = nickname;
+
+        player1Engine = createMatchEngine(true);
+        player2Engine = createMatchEngine(false);
+        // -Dtetris.net.rollback=false volta ao NetSession; os dois jogadores precisam usar o mesmo modo
+        if (Boolean.parseBoolean(System.getProperty("tetris.net.rollback", "true"))) {
+            netSession = (host == null)
+                    ? RollbackSession.host(link, nickname, System.nanoTime(), player1Engine, player2Engine)
+                    : RollbackSession.join(link, nickname, player1Engine, player2Engine);
+        } else {
+            netSession = (host == null)
+                    ? NetSession.host(link, nickname, System.nanoTime(), player1Engine, player2Engine)
+                    : NetSession.join(link, nickname, player1Engine, player2Engine);
+        }
+        netSession.setOnFinished(this::networkMatchFinished);
+        opponentShown = false;
 
-            startNewOnePlayerGame(); // Prepara a engine (e chama resetMatchState)
-            this.loadedSaveName = saveName; // "Trackeia" o save
+        gameWindow.showGamePanel(player1Engine, player2Engine, themeManager);
+        gameWindow.setTitle((host == null) ? "Aguardando oponente na porta " + port + "..." : "Conectando a " + host + ":" + port + "...");
+        soundManager.startDefaultMusic(); // Toca a música
+        scheduler.start(List.of(), netSession::step); // A sessão avança as duas engines
+    }
 
-            player1Engine.stopGame();
-            player1Engine.togglePause();
-            player1Engine.loadState(state);
+    // Engine de BattleMatch ou da partida em rede: sem GameManager, quem decide o fim é a partida
+    private GameEngine createMatchEngine(boolean withSound) {
+        GameEngine engine = new GameEngine();
+        engine.setThemeManager(themeManager);
+        if (withSound) engine.setSoundManager(this.soundManager);
+        return engine;
+    }
+
+    private void networkMatchFinished() {
+        matchOver = true;
+        NetSession.Result result = netSession.getResult();
+        switch (result) {
+            case WON:
+                player1Engine.setWinner(true);
+                player2Engine.setGameOver(true);
+                persistenceQueue.addWin(player1Nickname);
+                break;
+            case LOST:
+                player1Engine.setGameOver(true);
+                player2Engine.setWinner(true);
+                soundManager.playSound("res/gameover.wav", false);
+                break;
+            case DRAW:
+                player1Engine.setGameOver(true);
+                player2Engine.setGameOver(true);
+                break;
+            case DISCONNECTED:
+                // Fora do tick do scheduler: o diálogo modal não pode rodar no meio do step()
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(gameWindow,
+                        "Conexão com o oponente perdida.\nPressione 'R' para voltar ao menu.",
+                        "Partida em Rede", JOptionPane.WARNING_MESSAGE));
+                break;
+        }
+    }
+
+    // Depois de cada tick de todas as engines: placares + um repaint da tela da partida
+    private void onFrame() {
+        if (netSession != null && !opponentShown && netSession.getPhase() == NetSession.Phase.PLAYING) {
+            opponentShown = true;
+            gameWindow.setTitle(WINDOW_TITLE + " - " + player1Nickname + " x " + netSession.getRemoteNickname());
+        }
+        List<GameEngine> engines = (netSession != null) ? netSession.getEngines()
+                : (battle != null) ? battle.getEngines() : scheduler.getEngines();
+        for (GameEngine engine : engines) {
+            if (engine.getScorePanel() != null) engine.getScorePanel().update();
+        }
+        gameWindow.repaintGameView();
+    }
 
-            soundManager.startDefaultMusic(); // Toca a música
+    public void loadGame(String saveName) {
+        try {
+            // Um save que ainda está na fila de escrita vale mais que o do banco
+            String savedState = persistenceQueue.getPendingSave(saveName);
+            if (savedState == null) savedState = gameStore.loadGameJSON(saveName);
+            else if (savedState.isEmpty()) savedState = null;
+            if (savedState == null) { throw new Exception("Save '" + saveName + "' não encontrado."); }
+            GameStateData state = SaveCodec.fromText(savedState); // Binário ou JSON antigo
+
+            startFromState(state);
+            this.loadedSaveName = saveName; // "Trackeia" o save
 
             JOptionPane.showMessageDialog(gameWindow, "Jogo '" + saveName + "' carregado!\nPressione 'P' para despausar.", "Jogo Carregado", JOptionPane.INFORMATION_MESSAGE);
 
@@ -112,7 +275,46 @@ public class GameManager {
         }
     }
 
+    // Nova partida 1P já pausada no estado dado (save carregado ou autosave)
+    private void startFromState(GameStateData state) {
+        startNewOnePlayerGame(); // Prepara a engine (e chama resetMatchState)
+        player1Engine.togglePause(); // Pausada: o scheduler não a avança até o 'P'
+        player1Engine.loadState(state);
+        soundManager.startDefaultMusic(); // Toca a música
+    }
+
+    /**
+     * Chamado ao abrir o jogo: se a última partida 1P não terminou (crash,
+     * jogo fechado à força), oferece retomar do último ponto do autosave.
+     */
+    public void offerAutosaveResume() {
+        GameStateData state = AutosaveJournal.recover();
+        if (state == null) return;
+        int choice = JOptionPane.showConfirmDialog(gameWindow,
+                "A última partida não foi terminada (pontuação: " + state.score + ").\nDeseja continuar de onde parou?",
+                "Retomar Partida", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (choice == JOptionPane.YES_OPTION) {
+            startFromState(state);
+            JOptionPane.showMessageDialog(gameWindow, "Partida retomada!\nPressione 'P' para despausar.", "Retomar Partida", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            autosaveJournal.discard();
+        }
+    }
+
     public void returnToMenu() {
+        if (currentState == GameState.ONE_PLAYER) autosaveJournal.discard(); // Saiu de propósito
+        scheduler.stop();
+        if (netSession != null) {
+            netSession.close(); // Manda BYE: o oponente não fica esperando o timeout
+            netSession = null;
+            gameWindow.setTitle(WINDOW_TITLE);
+        }
+        if (battle != null) {
+            for (GameEngine engine : battle.getEngines()) engine.stopGame();
+            battle = null;
+            player1Input = null;
+            player2Input = null;
+        }
         if (player1Engine != null) player1Engine.stopGame();
         if (player2Engine != null) player2Engine.stopGame();
         soundManager.stopMusic(); // Para a música
@@ -134,66 +336,84 @@ public class GameManager {
 
     // --- ESTE MÉTODO ESTAVA VAZIO ---
     public void playerLost(GameEngine lostEngine) {
-        if (matchOver) return;
+        // Só o 1P passa por aqui: 2P, batalha e rede terminam pela BattleMatch / partida em rede
+        if (matchOver || currentState != GameState.ONE_PLAYER) return;
 
         soundManager.playSound("res/gameover.wav", false);
+        matchOver = true;
+        lostEngine.setGameOver(true);
+        autosaveJournal.discard(); // Fim de jogo: nada para retomar
+        int finalScore = lostEngine.getScore();
+        highScoreManager.recordOnePlayerGame(finalScore, lostEngine.getLinesCleared(), lostEngine.getLevel(),
+                lostEngine.getPiecesLocked(), lostEngine.getPlayMillis()); // Só memória; o arquivo é gravado em outra thread
+
+        if (finalScore > 0) {
+            // Fora do tick do scheduler e sem travar a EDT: o ranking vem de outra thread, depois o diálogo
+            lookupRank(finalScore).thenAccept(around ->
+                    SwingUtilities.invokeLater(() -> askNickname(finalScore, describeRank(finalScore, around))));
+        }
 
-        if (currentState == GameState.ONE_PLAYER) {
-            matchOver = true;
-            lostEngine.setGameOver(true);
-            int finalScore = lostEngine.getScore();
-            highScoreManager.checkAndSetHighScore(finalScore);
-
-            if (finalScore > 0) {
-                String nickname = (String)JOptionPane.showInputDialog(
-                        gameWindow, "Fim de Jogo! Pontuação: " + finalScore + "\nDigite seu nome para o ranking:",
-                        "Salvar Pontuação", JOptionPane.PLAIN_MESSAGE, null, null, "Jogador" );
-                if (nickname != null && !nickname.trim().isEmpty()) {
-                    String safeNickname = nickname.trim();
-                    if (safeNickname.length() > 50) safeNickname = safeNickname.substring(0, 50);
-                    databaseManager.addHighScore(safeNickname, finalScore);
-                }
-            }
-
-            if (this.loadedSaveName != null) {
-                databaseManager.deleteSaveGame(this.loadedSaveName);
-                this.loadedSaveName = null;
-            }
+        if (this.loadedSaveName != null) {
+            persistenceQueue.deleteSaveGame(this.loadedSaveName);
+            this.loadedSaveName = null;
+        }
 
-            if (lostEngine.getGamePanel() != null) lostEngine.getGamePanel().repaint();
+        if (lostEngine.getGamePanel() != null) lostEngine.getGamePanel().repaint();
+    }
 
-        } else if (currentState == GameState.TWO_PLAYER) {
-            matchOver = true;
-            player1Engine.stopGame();
-            player2Engine.stopGame();
+    private void askNickname(int finalScore, String rankText) {
+        String nickname = (String)JOptionPane.showInputDialog(
+                gameWindow, "Fim de Jogo! Pontuação: " + finalScore + rankText + "\nDigite seu nome para o ranking:",
+                "Salvar Pontuação", JOptionPane.PLAIN_MESSAGE, null, null, "Jogador" );
+        if (nickname != null && !nickname.trim().isEmpty()) {
+            String safeNickname = nickname.trim();
+            if (safeNickname.length() > 50) safeNickname = safeNickname.substring(0, 50);
+            persistenceQueue.addHighScore(safeNickname, finalScore);
+        }
+    }
 
-            String winnerNickname;
-            if (lostEngine == player1Engine) {
-                player1Engine.setGameOver(true);
-                player2Engine.setWinner(true);
-                winnerNickname = player2Nickname;
-            } else {
-                player2Engine.setGameOver(true);
-                player1Engine.setWinner(true);
-                winnerNickname = player1Nickname;
+    /**
+     * Vizinhos de 'score' no ranking, consultados fora da EDT com um limite
+     * curto: se o banco estiver lento ou fora do ar, completa com null.
+     */
+    private CompletableFuture<LeaderboardPage> lookupRank(int score) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return gameStore.getScoresAround(score, RANK_NEIGHBOURS, RANK_NEIGHBOURS);
+            } catch (GameStoreException e) {
+                return null;
             }
-            databaseManager.addWin(winnerNickname);
-
-            if (player1Engine.getGamePanel() != null) player1Engine.getGamePanel().repaint();
-            if (player2Engine.getGamePanel() != null) player2Engine.getGamePanel().repaint();
-        }
+        }).completeOnTimeout(null, RANK_LOOKUP_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> null);
     }
 
-    // --- ESTE MÉTODO ESTAVA VAZIO ---
-    public void sendGarbage(GameEngine sender, int lineCount) {
-        if (matchOver || currentState != GameState.TWO_PLAYER) { return; }
-        GameEngine target = (sender == player1Engine) ? player2Engine : player1Engine;
-        if (target != null) { target.addGarbageLines(lineCount); }
+    /** "Sua posição: #N" e os vizinhos no ranking, para o diálogo de fim de jogo ("" sem ranking). */
+    private String describeRank(int score, LeaderboardPage around) {
+        if (around == null) return "";
+
+        int myRank = around.getFirstRank();
+        StringBuilder text = new StringBuilder("\n\n");
+        int rank = around.getFirstRank();
+        boolean placed = false;
+        for (LeaderboardEntry entry : around.getEntries()) {
+            if (!placed && entry.getValue() <= score) {
+                myRank = rank;
+                text.append("#").append(rank++).append("  >> VOCÊ << - ").append(score).append("\n");
+                placed = true;
+            }
+            text.append("#").append(rank++).append("  ").append(entry.getNickname())
+                    .append(" - ").append(entry.getValue()).append("\n");
+        }
+        if (!placed) {
+            myRank = rank;
+            text.append("#").append(rank).append("  >> VOCÊ << - ").append(score).append("\n");
+        }
+        return "\nSua posição no ranking: #" + myRank + text;
     }
 
     // --- ESTE MÉTODO ESTAVA VAZIO (PARCIALMENTE) ---
-    public List<String> getSavedGameNames() {
-        return databaseManager.getSavedGameNames();
+    public List<SaveInfo> getSaveInfos() {
+        return persistenceQueue.mergePendingSaveInfos(gameStore.getSaveInfos());
     }
 
     // --- ESTE MÉTODO ESTAVA VAZIO ---
@@ -201,8 +421,7 @@ public class GameManager {
         if (player1Engine == null || currentState != GameState.ONE_PLAYER) { return; }
         try {
             GameStateData state = player1Engine.captureState();
-            String jsonState = gson.toJson(state);
-            databaseManager.saveGame(saveName, jsonState);
+            persistenceQueue.saveGame(saveName, SaveCodec.toText(state));
             if (saveName.equals(this.loadedSaveName)) {
                 this.loadedSaveName = null;
             }
@@ -221,31 +440,27 @@ public class GameManager {
 
     // --- handleKeyPress() (O MÉTODO QUE MUDAMOS) ---
     public void handleKeyPress(int keyCode) {
-        if (currentState == GameState.TWO_PLAYER && keyCode == 82) { // 'R'
+        if (currentState != GameState.MENU && currentState != GameState.ONE_PLAYER && keyCode == 82) { // 'R'
             returnToMenu();
             return;
         }
 
+        if (currentState == GameState.NETWORK && netSession != null) {
+            PlayerAction action = PlayerAction.fromKey(keyCode); // Setas ou WASD, tanto faz
+            if (action != null) netSession.localInput(action);
+            return;
+        }
+
         if (currentState == GameState.ONE_PLAYER && player1Engine != null) {
             player1Engine.handleKeyPress(keyCode);
 
-        } else if (currentState == GameState.TWO_PLAYER) {
-
-            // P1 (Setas, Espaço, 'C' para Hold)
-            if (player1Engine != null &&
-                    (keyCode == 37 || keyCode == 39 || keyCode == 40 || keyCode == 38 || keyCode == 32 || keyCode == 67)) {
-                player1Engine.handleKeyPress(keyCode);
-            }
+        } else if (currentState == GameState.TWO_PLAYER && player1Input != null) {
+            // P1: Setas, Espaço, 'C' para Hold / P2: WASD, 'Q' para Drop, 'E' para Hold
+            boolean arrows = keyCode == 37 || keyCode == 39 || keyCode == 40 || keyCode == 38 || keyCode == 32 || keyCode == 67;
+            (arrows ? player1Input : player2Input).offer(PlayerAction.fromKey(keyCode));
 
-            // P2 (WASD, 'Q' para Drop, 'E' para Hold)
-            if (player2Engine != null) {
-                if (keyCode == 65) player2Engine.moveLeft();   // A
-                if (keyCode == 68) player2Engine.moveRight();  // D
-                if (keyCode == 83) player2Engine.moveDown();   // S
-                if (keyCode == 87) player2Engine.rotate();     // W
-                if (keyCode == 81) player2Engine.hardDrop();   // Q
-                if (keyCode == 69) player2Engine.holdPiece();  // E (Hold)
-            }
+        } else if (currentState == GameState.BATTLE && player1Input != null) {
+            player1Input.offer(PlayerAction.fromKey(keyCode)); // Setas ou WASD, tanto faz
         }
     }
 
@@ -253,4 +468,5 @@ public class GameManager {
     public GameEngine getPlayer1Engine() { return player1Engine; }
     public GameEngine getPlayer2Engine() { return player2Engine; }
     public int getHighScore() { return highScoreManager.getHighScore(); }
+    public HighScoreManager getStats() { return highScoreManager; }
 }
\ No newline at end of file
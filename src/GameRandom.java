@@ -0,0 +1,35 @@
+// Em GameRandom.java
+
+/**
+ * Gerador de números da engine (SplitMix64).
+ *
+ * Diferente de java.util.Random, o estado inteiro é um único long público
+ * (getState/setState), então ele pode ir junto no save e uma partida
+ * carregada continua com a MESMA sequência de peças e buracos de lixo.
+ * Com a mesma semente, duas engines geram exatamente as mesmas peças.
+ */
+public class GameRandom {
+
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    public long getState() { return state; }
+    public void setState(long state) { this.state = state; }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Inteiro uniforme em [0, bound). */
+    public int nextInt(int bound) {
+        // Multiplicação de 32x32 bits: sem o viés de um simples '%'
+        long r = nextLong() >>> 32;
+        return (int) ((r * bound) >>> 32);
+    }
+}
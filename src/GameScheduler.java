@@ -0,0 +1,101 @@
+// Em GameScheduler.java
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relógio único da partida: um só Timer na EDT avança TODAS as engines no
+ * mesmo tick (1P, 2P ou N jogadores/bots) e depois chama 'onFrame' uma vez,
+ * para um único repaint da tela inteira.
+ *
+ * Antes cada engine tinha seu próprio Timer: em 2P eram dois relógios
+ * independentes, com fase diferente, e um repaint por engine.
+ *
+ * Passo fixo com acumulador de System.nanoTime(): o Timer só "acorda" o
+ * laço; cada disparo roda quantos ticks de 1/60 s couberem no tempo real
+ * passado. Se a EDT atrasar (GC, diálogo, máquina lenta), os ticks perdidos
+ * são repostos e o jogo não fica mais lento. Acima de MAX_CATCH_UP_TICKS o
+ * excesso é descartado, para não entrar em espiral após uma pausa longa.
+ */
+public class GameScheduler {
+
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    private static final int TIMER_DELAY_MS = 1000 / (TICKS_PER_SECOND * 2); // Acorda mais que o necessário: menos atraso por tick
+    private static final int MAX_CATCH_UP_TICKS = 15; // 250 ms
+
+    private final Timer timer;
+    private final Runnable onFrame;
+    private final List<GameEngine> engines = new ArrayList<>();
+    private Runnable perTick; // Opcional: roda a cada tick antes das engines (ex.: NetSession)
+    private long tickCount = 0;
+    private long lastNanos;
+    private long accumulatorNanos;
+    private long droppedTicks = 0;
+
+    public GameScheduler(Runnable onFrame) {
+        this.onFrame = onFrame;
+        this.timer = new Timer(TIMER_DELAY_MS, e -> step());
+        this.timer.setCoalesce(true); // EDT atrasada: eventos acumulados viram um só
+    }
+
+    /** Troca as engines da partida e começa a contar do zero. */
+    public void start(List<GameEngine> matchEngines) {
+        start(matchEngines, null);
+    }
+
+    /**
+     * Igual, com um passo extra por tick. Engines que esse passo avança por
+     * conta própria (partida em rede) NÃO devem estar em 'matchEngines'.
+     */
+    public void start(List<GameEngine> matchEngines, Runnable perTick) {
+        this.perTick = perTick;
+        engines.clear();
+        engines.addAll(matchEngines);
+        tickCount = 0;
+        droppedTicks = 0;
+        accumulatorNanos = 0;
+        lastNanos = System.nanoTime();
+        timer.restart();
+    }
+
+    public void stop() {
+        timer.stop();
+        engines.clear();
+        perTick = null;
+    }
+
+    public boolean isRunning() { return timer.isRunning(); }
+    public long getTickCount() { return tickCount; }
+    public long getDroppedTicks() { return droppedTicks; }
+    public List<GameEngine> getEngines() { return engines; }
+
+    private void step() {
+        long now = System.nanoTime();
+        accumulatorNanos += now - lastNanos;
+        lastNanos = now;
+
+        int ticks = (int) Math.min(accumulatorNanos / TICK_NANOS, MAX_CATCH_UP_TICKS);
+        if (ticks == 0) return; // Ainda não passou um tick inteiro: nada novo para desenhar
+        accumulatorNanos -= ticks * TICK_NANOS;
+        if (accumulatorNanos >= TICK_NANOS) {
+            droppedTicks += accumulatorNanos / TICK_NANOS;
+            accumulatorNanos %= TICK_NANOS;
+        }
+
+        // Cópia: um tick pode terminar a partida e mexer na lista (returnToMenu)
+        GameEngine[] current = engines.toArray(new GameEngine[0]);
+        Runnable extra = perTick;
+        for (int i = 0; i < ticks; i++) {
+            if (extra != null) extra.run();
+            for (GameEngine engine : current) {
+                engine.acceptIncomingGarbage(); // Fronteira de tick: antes de qualquer engine avançar
+            }
+            for (GameEngine engine : current) {
+                engine.tick();
+            }
+            tickCount++;
+        }
+        onFrame.run(); // Um repaint por frame, não por tick
+    }
+}
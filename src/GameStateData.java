@@ -2,7 +2,10 @@
 // (Não precisa de 'import's, esta é uma classe de dados pura)
 
 public class GameStateData {
-    // String[][] é mais seguro para JSON do que Tetromino[][]
+    // Tabuleiro: HEIGHT*WIDTH células, 0 = vazio, ordinal+1 = peça (ver SaveCodec)
+    public byte[] cells;
+
+    // Formato antigo (JSON): só é preenchido ao ler saves antigos
     public String[][] boardGrid;
 
     public String currentPieceName;
@@ -12,13 +15,21 @@ public class GameStateData {
 
     public String nextPieceName;
 
+    // Peça guardada ("hold") e se ainda pode trocar nesta peça
+    public String heldPieceName;
+    public boolean canHold = true;
+
     public int score;
     public int level;
     public int linesCleared;
 
+    // Estado do GameRandom: a partida carregada continua com a mesma sequência
+    public long rngState;
+    public boolean hasRngState;
+
     // Adicionamos o tema também, para uma restauração completa
     public String currentThemeName;
 
     // Construtor vazio é necessário para o Gson
     public GameStateData() { }
-}
\ No newline at end of file
+}
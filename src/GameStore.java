@@ -0,0 +1,50 @@
+// Em GameStore.java
+import java.util.List;
+
+/**
+ * Armazenamento de pontuações, vitórias e jogos salvos.
+ *
+ * Dois backends:
+ *  - DatabaseManager: MySQL (o original).
+ *  - LocalGameStore: arquivo local embutido, sem servidor nenhum.
+ *
+ * O backend é escolhido com -Dtetris.store=mysql|local (padrão: mysql).
+ */
+public interface GameStore {
+
+    // --- Escritas (a PersistenceQueue usa writeBatch; as outras são atalhos de uma escrita só) ---
+    void writeBatch(List<PersistenceQueue.PendingWrite> writes) throws GameStoreException;
+    void addHighScore(String nickname, int score);
+    void addWin(String nickname);
+    void saveGame(String saveName, String stateData);
+    void deleteSaveGame(String saveName);
+
+    // --- Rankings ---
+    List<LeaderboardEntry> getTopScores(int limit) throws GameStoreException;
+    List<LeaderboardEntry> getTopWinners(int limit) throws GameStoreException;
+    int getWins(String nickname) throws GameStoreException;
+
+    // --- Ranking completo, paginado por cursor ('after' = última linha da página anterior, null = topo) ---
+    LeaderboardPage getScorePage(LeaderboardEntry after, int size) throws GameStoreException;
+    LeaderboardPage getWinnerPage(LeaderboardEntry after, int size) throws GameStoreException;
+    /** Posição que 'score' teria no ranking 1P (1 + quantas pontuações são maiores). */
+    int getRank(int score) throws GameStoreException;
+    /** Até 'before' pontuações acima de 'score' e 'after' a partir dela, com a posição da primeira. */
+    LeaderboardPage getScoresAround(int score, int before, int after) throws GameStoreException;
+
+    // --- Jogos salvos (retornam null / lista vazia em caso de erro, como sempre foi) ---
+    String loadGameJSON(String saveName);
+    List<String> getSavedGameNames();
+    /** Resumo de todos os saves (mais recente primeiro), sem ler o estado completo de nenhum. */
+    List<SaveInfo> getSaveInfos();
+
+    void close();
+
+    static GameStore open() {
+        String backend = System.getProperty("tetris.store", "mysql");
+        if (backend.equalsIgnoreCase("local")) {
+            return new LocalGameStore();
+        }
+        return new DatabaseManager();
+    }
+}
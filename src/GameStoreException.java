@@ -0,0 +1,8 @@
+// Em GameStoreException.java
+
+// Erro de armazenamento, independente do backend (MySQL ou arquivo local)
+public class GameStoreException extends Exception {
+    public GameStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
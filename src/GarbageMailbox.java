@@ -0,0 +1,114 @@
+// Em GarbageMailbox.java
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lixo recebido por UMA engine: uma fila de ataques, cada um com N linhas.
+ *
+ * - Qualquer thread pode postar (ConcurrentLinkedQueue, sem lock: vários
+ *   atacantes no modo N jogadores).
+ * - Só a thread que avança a dona mexe no resto, e nos momentos definidos
+ *   pela engine: collect() na fronteira de tick, cancel() quando ela limpa
+ *   linhas, takeForLock() quando ela trava uma peça sem limpar nada.
+ * - pendingLines() é o medidor de lixo pendente, lido pela tela.
+ */
+public class GarbageMailbox {
+
+    private final ConcurrentLinkedQueue<Integer> inbox = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>(); // Só a dona; o mais antigo primeiro
+    private final AtomicInteger pendingLines = new AtomicInteger();  // inbox + pending
+
+    public void post(int lines) {
+        if (lines <= 0) return;
+        pendingLines.addAndGet(lines);
+        inbox.offer(lines);
+    }
+
+    /** Fronteira de tick: o que chegou passa a ser "pendente" e pode ser cancelado ou aplicado. */
+    public int collect() {
+        int lines = 0;
+        Integer attack;
+        while ((attack = inbox.poll()) != null) {
+            pending.addLast(attack);
+            lines += attack;
+        }
+        return lines; // Quanto chegou neste tick (a rede transmite isso)
+    }
+
+    /**
+     * Contra-ataque: as linhas que a dona ia mandar primeiro anulam o lixo
+     * pendente (o mais antigo antes). Retorna o que sobra para mandar.
+     */
+    public int cancel(int outgoing) {
+        while (outgoing > 0 && !pending.isEmpty()) {
+            int head = pending.pollFirst();
+            int used = Math.min(head, outgoing);
+            outgoing -= used;
+            pendingLines.addAndGet(-used);
+            if (head > used) pending.addFirst(head - used);
+        }
+        return outgoing;
+    }
+
+    /** Todo o lixo pendente, que entra agora no tabuleiro (limitado a 'max' linhas; o resto fica). */
+    public int takeForLock(int max) {
+        int taken = 0;
+        while (taken < max && !pending.isEmpty()) {
+            int head = pending.pollFirst();
+            int used = Math.min(head, max - taken);
+            taken += used;
+            if (head > used) pending.addFirst(head - used);
+        }
+        pendingLines.addAndGet(-taken);
+        return taken;
+    }
+
+    /**
+     * Usada como caixa de SAÍDA (modo N jogadores): tudo o que a dona mandou
+     * desde a última chamada, para a partida entregar ao alvo escolhido.
+     */
+    public int drain() {
+        int lines = 0;
+        Integer attack;
+        while ((attack = inbox.poll()) != null) lines += attack;
+        pendingLines.addAndGet(-lines);
+        return lines;
+    }
+
+    // --- Rollback (RollbackSession): só a thread que avança a dona ---
+
+    /** Copia os ataques pendentes e os ainda na caixa para o snapshot. */
+    void saveTo(EngineSnapshot snapshot) {
+        snapshot.pendingCount = 0;
+        for (int attack : pending) snapshot.pendingAttacks = EngineSnapshot.append(snapshot.pendingAttacks, snapshot.pendingCount++, attack);
+        snapshot.inboxCount = 0;
+        for (int attack : inbox) snapshot.inboxAttacks = EngineSnapshot.append(snapshot.inboxAttacks, snapshot.inboxCount++, attack);
+    }
+
+    /** Volta exatamente ao que saveTo() copiou. */
+    void restoreFrom(EngineSnapshot snapshot) {
+        pending.clear();
+        inbox.clear();
+        int lines = 0;
+        for (int i = 0; i < snapshot.pendingCount; i++) {
+            pending.addLast(snapshot.pendingAttacks[i]);
+            lines += snapshot.pendingAttacks[i];
+        }
+        for (int i = 0; i < snapshot.inboxCount; i++) {
+            inbox.offer(snapshot.inboxAttacks[i]);
+            lines += snapshot.inboxAttacks[i];
+        }
+        pendingLines.set(lines);
+    }
+
+    public int pendingLines() {
+        return pendingLines.get();
+    }
+
+    /** Partida nova: descarta tudo. */
+    public void clear() {
+        collect();
+        takeForLock(Integer.MAX_VALUE);
+    }
+}
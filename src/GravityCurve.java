@@ -0,0 +1,69 @@
+// Em GravityCurve.java
+
+/**
+ * Velocidade de queda por nível, em G: células por frame de 1/60 s
+ * (1G = uma célula por frame; 20G = a peça cai até o chão no mesmo frame).
+ *
+ * A engine converte para células por segundo e avança pelo tempo real de
+ * cada tick, então a velocidade não depende de quantos frames a tela consegue
+ * desenhar. Escolha com -Dtetris.gravity=classic (padrão), guideline ou uma
+ * lista de valores em G por nível, ex.: -Dtetris.gravity=0.05,0.1,0.5,1,20
+ */
+public class GravityCurve {
+
+    public static final double MAX_G = 20.0;
+    private static final double FRAMES_PER_SECOND = 60.0;
+
+    private final double[] gPerLevel; // Índice 0 = nível 1; depois do último nível, vale o último valor
+
+    public GravityCurve(double... gPerLevel) {
+        if (gPerLevel.length == 0) throw new IllegalArgumentException("Curva de gravidade vazia");
+        this.gPerLevel = new double[gPerLevel.length];
+        for (int i = 0; i < gPerLevel.length; i++) {
+            this.gPerLevel[i] = Math.max(0, Math.min(MAX_G, gPerLevel[i]));
+        }
+    }
+
+    public double gravityAt(int level) {
+        int index = Math.max(0, Math.min(gPerLevel.length - 1, level - 1));
+        return gPerLevel[index];
+    }
+
+    public double cellsPerSecond(int level) {
+        return gravityAt(level) * FRAMES_PER_SECOND;
+    }
+
+    /** A curva original do jogo (40 - 2*nível frames por célula), depois acelerando até 20G. */
+    public static GravityCurve classic() {
+        double[] g = new double[25];
+        for (int level = 1; level <= 19; level++) g[level - 1] = 1.0 / (40 - level * 2);
+        double[] fast = {1, 2, 3, 5, 10, MAX_G};
+        System.arraycopy(fast, 0, g, 19, fast.length);
+        return new GravityCurve(g);
+    }
+
+    /** Curva das diretrizes modernas: (0.8 - (nível-1)*0.007)^(nível-1) segundos por célula. */
+    public static GravityCurve guideline() {
+        double[] g = new double[20];
+        for (int level = 1; level <= g.length; level++) {
+            double secondsPerCell = Math.pow(0.8 - (level - 1) * 0.007, level - 1);
+            g[level - 1] = 1.0 / (secondsPerCell * FRAMES_PER_SECOND);
+        }
+        return new GravityCurve(g);
+    }
+
+    public static GravityCurve fromSystemProperty() {
+        String value = System.getProperty("tetris.gravity", "classic").trim();
+        if (value.equalsIgnoreCase("classic")) return classic();
+        if (value.equalsIgnoreCase("guideline")) return guideline();
+        try {
+            String[] parts = value.split(",");
+            double[] g = new double[parts.length];
+            for (int i = 0; i < parts.length; i++) g[i] = Double.parseDouble(parts[i].trim());
+            return new GravityCurve(g);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Curva de gravidade inválida (" + value + "); usando a clássica.");
+            return classic();
+        }
+    }
+}
@@ -1,53 +1,208 @@
 // Em HighScoreManager.java
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
 
+/**
+ * Estatísticas locais: recorde 1P e totais de todas as partidas.
+ *
+ * Arquivo binário de tamanho fixo (tetris_stats.bin):
+ * [magic "TSTA"][versão byte][campos...][crc32 int]. Cada gravação escreve um
+ * arquivo temporário, faz fsync e renomeia por cima do antigo, então um crash
+ * deixa o arquivo antigo ou o novo inteiros, nunca um pela metade.
+ *
+ * Quem grava é uma thread própria; a EDT só atualiza os números em memória e
+ * enfileira uma cópia. Várias gravações pendentes viram uma só (vale a última).
+ * O highscore.txt antigo é importado na primeira vez.
+ */
 public class HighScoreManager {
+
+    private static final String FILE_NAME = "tetris_stats.bin";
+    private static final String LEGACY_FILE_NAME = "highscore.txt";
+    private static final int MAGIC = 0x54535441; // "TSTA"
+    private static final byte VERSION = 1;
+    private static final int BODY_BYTES = 4 * 4 + 4 * 8 + 3 * 4;
+    private static final int FILE_BYTES = 4 + 1 + BODY_BYTES + 4;
+
+    private final File file;
+
+    // --- 1P: melhores marcas ---
     private int highScore;
-    private static final String FILE_NAME = "highscore.txt";
+    private int bestLines;
+    private int bestLevel;
+    private int onePlayerGames;
+
+    // --- 1P: totais da vida inteira ---
+    private long totalScore;
+    private long totalLines;
+    private long totalPieces;
+    private long totalPlayMillis;
+
+    // --- 2P ---
+    private int twoPlayerMatches;
+    private int player1Wins;
+    private int player2Wins;
+
+    private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
 
     public HighScoreManager() {
-        this.highScore = loadHighScore();
+        this(new File(FILE_NAME));
+    }
+
+    public HighScoreManager(File file) {
+        this.file = file;
+        if (!load()) importLegacyHighScore();
+        this.writer = new Thread(this::writerLoop, "tetris-stats");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "tetris-stats-exit"));
     }
 
-    private int loadHighScore() {
+    // --- Chamados pela EDT; só mexem na memória e enfileiram ---
+
+    /** Fim de uma partida 1P. Retorna true se foi um novo recorde. */
+    public boolean recordOnePlayerGame(int score, int lines, int level, int pieces, long playMillis) {
+        boolean newRecord = score > highScore;
+        if (newRecord) highScore = score;
+        bestLines = Math.max(bestLines, lines);
+        bestLevel = Math.max(bestLevel, level);
+        onePlayerGames++;
+        totalScore += score;
+        totalLines += lines;
+        totalPieces += pieces;
+        totalPlayMillis += playMillis;
+        queue.offer(encode());
+        return newRecord;
+    }
+
+    /** Fim de uma partida 2P; winner é 1 ou 2. */
+    public void recordTwoPlayerMatch(int winner) {
+        twoPlayerMatches++;
+        if (winner == 1) player1Wins++;
+        else if (winner == 2) player2Wins++;
+        queue.offer(encode());
+    }
+
+    public int getHighScore() { return highScore; }
+    public int getBestLines() { return bestLines; }
+    public int getBestLevel() { return bestLevel; }
+    public int getOnePlayerGames() { return onePlayerGames; }
+    public long getTotalScore() { return totalScore; }
+    public long getTotalLines() { return totalLines; }
+    public long getTotalPieces() { return totalPieces; }
+    public long getTotalPlayMillis() { return totalPlayMillis; }
+    public int getTwoPlayerMatches() { return twoPlayerMatches; }
+    public int getPlayer1Wins() { return player1Wins; }
+    public int getPlayer2Wins() { return player2Wins; }
+
+    // --- Formato ---
+
+    private byte[] encode() {
+        ByteBuffer out = ByteBuffer.allocate(FILE_BYTES);
+        out.putInt(MAGIC).put(VERSION);
+        out.putInt(highScore).putInt(bestLines).putInt(bestLevel).putInt(onePlayerGames);
+        out.putLong(totalScore).putLong(totalLines).putLong(totalPieces).putLong(totalPlayMillis);
+        out.putInt(twoPlayerMatches).putInt(player1Wins).putInt(player2Wins);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    // Retorna false se não havia arquivo (ou ele estava corrompido)
+    private boolean load() {
+        if (!file.exists()) return false;
+        byte[] data;
         try {
-            File file = new File(FILE_NAME);
-            if (file.exists()) {
-                Scanner scanner = new Scanner(file);
-                if (scanner.hasNextInt()) {
-                    int score = scanner.nextInt();
-                    scanner.close();
-                    return score;
-                }
-                scanner.close();
-            }
+            data = Files.readAllBytes(file.toPath());
         } catch (IOException e) {
-            System.err.println("Erro ao ler o high score: " + e.getMessage());
+            System.err.println("Erro ao ler as estatísticas: " + e.getMessage());
+            return false;
+        }
+        if (data.length != FILE_BYTES) {
+            System.err.println("Arquivo de estatísticas com tamanho inválido; começando do zero.");
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, FILE_BYTES - 4);
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.getInt(FILE_BYTES - 4) != (int) crc.getValue() || in.getInt() != MAGIC || in.get() != VERSION) {
+            System.err.println("Arquivo de estatísticas corrompido; começando do zero.");
+            return false;
         }
-        return 0; // Retorna 0 se não houver arquivo ou der erro
+        highScore = in.getInt();
+        bestLines = in.getInt();
+        bestLevel = in.getInt();
+        onePlayerGames = in.getInt();
+        totalScore = in.getLong();
+        totalLines = in.getLong();
+        totalPieces = in.getLong();
+        totalPlayMillis = in.getLong();
+        twoPlayerMatches = in.getInt();
+        player1Wins = in.getInt();
+        player2Wins = in.getInt();
+        return true;
     }
 
-    private void saveHighScore() {
+    // O formato antigo era só o número em texto
+    private void importLegacyHighScore() {
+        File legacy = new File(LEGACY_FILE_NAME);
+        if (!legacy.exists()) return;
         try {
-            FileWriter writer = new FileWriter(FILE_NAME);
-            writer.write(String.valueOf(highScore));
-            writer.close();
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar o high score: " + e.getMessage());
+            highScore = Integer.parseInt(new String(Files.readAllBytes(legacy.toPath()), StandardCharsets.UTF_8).trim());
+            queue.offer(encode());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Erro ao importar o high score antigo: " + e.getMessage());
         }
     }
 
-    public void checkAndSetHighScore(int newScore) {
-        if (newScore > highScore) {
-            this.highScore = newScore;
-            saveHighScore();
+    // --- Thread de escrita ---
+
+    private void writerLoop() {
+        while (true) {
+            try {
+                byte[] latest = queue.take();
+                byte[] newer;
+                while ((newer = queue.poll()) != null) latest = newer; // Só a última importa
+                write(latest);
+            } catch (InterruptedException e) {
+                return;
+            }
         }
     }
 
-    public int getHighScore() {
-        return highScore;
+    // temp + fsync + rename: o arquivo de verdade nunca fica pela metade
+    private synchronized void write(byte[] data) {
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+                out.setLength(0);
+                out.write(data);
+                out.getFD().sync();
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar as estatísticas: " + e.getMessage());
+        }
+    }
+
+    /** Grava o que ainda estiver na fila (saída do jogo). */
+    public void flush() {
+        writer.interrupt(); // Para não gravar um estado mais velho depois deste
+        try {
+            writer.join(1000);
+        } catch (InterruptedException ignored) {
+            // Saindo de qualquer jeito
+        }
+        byte[] latest = null, newer;
+        while ((newer = queue.poll()) != null) latest = newer;
+        if (latest != null) write(latest);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+// Em LeaderboardCache.java
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rankings em memória. O top-K de cada ranking é lido do banco uma vez (em
+ * segundo plano, na inicialização) e depois mantido incrementalmente: cada
+ * ADD_SCORE / ADD_WIN confirmado pela PersistenceQueue atualiza a lista aqui.
+ * O menu lê direto da memória, sem abrir conexão e sem esperar: enquanto o
+ * banco não respondeu (ou está fora do ar) a leitura devolve o que houver,
+ * até vazio, e pede uma nova carga em segundo plano. A consulta ao banco
+ * nunca roda segurando o lock que a EDT usa.
+ */
+public class LeaderboardCache {
+
+    public static final int TOP_K = 10;
+    private static final int MAX_LOAD_ATTEMPTS = 3; // Commits durante a consulta: tenta de novo
+
+    private final GameStore gameStore;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tetris-leaderboard-load");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private List<LeaderboardEntry> topScores = new ArrayList<>();
+    private List<LeaderboardEntry> topWinners = new ArrayList<>();
+    private boolean scoresLoaded = false;
+    private boolean winnersLoaded = false;
+    private boolean lastLoadFailed = false;
+    private boolean loading = false;
+    private long commits = 0; // Commits com pontos/vitórias vistos (a carga confere se mudou no meio)
+
+    public LeaderboardCache(GameStore gameStore, PersistenceQueue persistenceQueue) {
+        this.gameStore = gameStore;
+        persistenceQueue.addCommitListener(this::onCommitted);
+        requestLoad();
+    }
+
+    // --- Leitura (menu, na EDT: nunca bloqueia) ---
+
+    public synchronized List<LeaderboardEntry> getTopScores() {
+        if (!scoresLoaded) requestLoad();
+        return Collections.unmodifiableList(new ArrayList<>(topScores));
+    }
+
+    public synchronized List<LeaderboardEntry> getTopWinners() {
+        if (!winnersLoaded) requestLoad();
+        return Collections.unmodifiableList(new ArrayList<>(topWinners));
+    }
+
+    /** true se a última tentativa de carregar do banco falhou (o menu mostra o erro). */
+    public synchronized boolean hasLoadError() { return lastLoadFailed; }
+
+    /** Descarta o cache; o que estiver na memória continua visível até a nova carga chegar. */
+    public synchronized void invalidate() {
+        scoresLoaded = false;
+        winnersLoaded = false;
+        requestLoad();
+    }
+
+    // --- Carga em segundo plano ---
+
+    private synchronized void requestLoad() {
+        if (loading) return;
+        loading = true;
+        loader.execute(this::load);
+    }
+
+    // Consulta sem o lock; só publica se nenhum commit chegou no meio (senão o valor novo se perderia)
+    private void load() {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long seen;
+                boolean needScores, needWinners;
+                synchronized (this) {
+                    seen = commits;
+                    needScores = !scoresLoaded;
+                    needWinners = !winnersLoaded;
+                }
+                if (!needScores && !needWinners) return;
+                List<LeaderboardEntry> scores = needScores ? new ArrayList<>(gameStore.getTopScores(TOP_K)) : null;
+                List<LeaderboardEntry> winners = needWinners ? new ArrayList<>(gameStore.getTopWinners(TOP_K)) : null;
+                synchronized (this) {
+                    if (commits == seen || attempt == MAX_LOAD_ATTEMPTS) {
+                        if (scores != null) { topScores = scores; scoresLoaded = true; }
+                        if (winners != null) { topWinners = winners; winnersLoaded = true; }
+                        lastLoadFailed = false;
+                        return;
+                    }
+                }
+            }
+        } catch (GameStoreException e) {
+            System.err.println("Erro ao ler os rankings: " + e.getMessage());
+            synchronized (this) {
+                lastLoadFailed = true;
+            }
+        } finally {
+            synchronized (this) {
+                loading = false;
+            }
+        }
+    }
+
+    // --- Atualização incremental (chamada pela thread de escrita após o commit) ---
+
+    private void onCommitted(List<PersistenceQueue.PendingWrite> writes) {
+        synchronized (this) {
+            commits++;
+        }
+        for (PersistenceQueue.PendingWrite w : writes) {
+            if (w.type == PersistenceQueue.WriteType.ADD_SCORE) {
+                offerScore(w.key, w.value);
+            } else if (w.type == PersistenceQueue.WriteType.ADD_WIN) {
+                recordWin(w.key, w.value);
+            }
+        }
+    }
+
+    private synchronized void offerScore(String nickname, int score) {
+        if (!scoresLoaded) return; // Ainda não carregou: o load vai trazer o valor do banco
+        if (topScores.size() >= TOP_K && score <= topScores.get(topScores.size() - 1).getValue()) return;
+        insertSorted(topScores, new LeaderboardEntry(nickname, score));
+    }
+
+    private void recordWin(String nickname, int increment) {
+        synchronized (this) {
+            if (!winnersLoaded) return;
+            for (int i = 0; i < topWinners.size(); i++) {
+                LeaderboardEntry e = topWinners.get(i);
+                if (e.getNickname().equals(nickname)) {
+                    topWinners.remove(i);
+                    insertSorted(topWinners, new LeaderboardEntry(nickname, e.getValue() + increment));
+                    return;
+                }
+            }
+        }
+        // Jogador fora do top-K: busca só o total dele (chave única) para ver se entrou
+        int wins;
+        try {
+            wins = gameStore.getWins(nickname);
+        } catch (GameStoreException e) {
+            invalidate();
+            return;
+        }
+        synchronized (this) {
+            if (!winnersLoaded) return;
+            if (topWinners.size() >= TOP_K && wins <= topWinners.get(topWinners.size() - 1).getValue()) return;
+            insertSorted(topWinners, new LeaderboardEntry(nickname, wins));
+        }
+    }
+
+    // Insere mantendo ordem decrescente; empates ficam depois dos que já estavam
+    private static void insertSorted(List<LeaderboardEntry> list, LeaderboardEntry entry) {
+        int i = 0;
+        while (i < list.size() && list.get(i).getValue() >= entry.getValue()) i++;
+        list.add(i, entry);
+        while (list.size() > TOP_K) list.remove(list.size() - 1);
+    }
+}
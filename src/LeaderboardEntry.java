@@ -0,0 +1,27 @@
+// Em LeaderboardEntry.java
+
+// Uma linha de ranking: pontuação (1P) ou número de vitórias (2P)
+public class LeaderboardEntry {
+    private final String nickname;
+    private final int value;
+    private final long id; // Desempate da paginação (0 se desconhecido)
+
+    public LeaderboardEntry(String nickname, int value) {
+        this(nickname, value, 0);
+    }
+
+    public LeaderboardEntry(String nickname, int value, long id) {
+        this.nickname = nickname;
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getNickname() { return nickname; }
+    public int getValue() { return value; }
+    public long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return nickname + " - " + value;
+    }
+}
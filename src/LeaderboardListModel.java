@@ -0,0 +1,112 @@
+// Em LeaderboardListModel.java
+import javax.swing.AbstractListModel;
+import javax.swing.SwingWorker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Lista de ranking que carrega sob demanda: começa com uma página e busca a
+ * próxima (em segundo plano) quando o jogador rola perto do fim. Cada página
+ * continua da última linha da anterior (ver LeaderboardPage).
+ */
+public class LeaderboardListModel extends AbstractListModel<String> {
+
+    /** De onde vêm as páginas (ex.: gameStore::getScorePage). */
+    public interface PageSource {
+        LeaderboardPage load(LeaderboardEntry after, int size) throws GameStoreException;
+    }
+
+    public static final int PAGE_SIZE = 50;
+
+    private final PageSource source;
+    private final Function<LeaderboardEntry, String> formatter;
+    private final String emptyText;
+
+    private final List<LeaderboardEntry> entries = new ArrayList<>();
+    private boolean provisional; // Linhas do cache, sem cursor: a primeira página substitui
+    private boolean hasMore = true;
+    private boolean loading = false;
+    private String status = null; // Linha extra no fim ("Carregando...", erro, lista vazia)
+
+    public LeaderboardListModel(PageSource source, Function<LeaderboardEntry, String> formatter,
+                                String emptyText, List<LeaderboardEntry> initial) {
+        this.source = source;
+        this.formatter = formatter;
+        this.emptyText = emptyText;
+        if (initial != null && !initial.isEmpty()) {
+            entries.addAll(initial);
+            provisional = true;
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size() + (status != null ? 1 : 0);
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index >= entries.size()) return status;
+        return (index + 1) + ". " + formatter.apply(entries.get(index));
+    }
+
+    /** Quantas linhas de ranking já foram carregadas (sem contar a linha de status). */
+    public int getLoadedCount() { return entries.size(); }
+
+    /** Pede a próxima página, se houver e se nenhuma estiver a caminho. Chamar na EDT. */
+    public void loadMore() {
+        if (loading || !hasMore) return;
+        loading = true;
+        final LeaderboardEntry cursor = provisional ? null : lastEntry();
+        setStatus("Carregando...");
+
+        new SwingWorker<LeaderboardPage, Void>() {
+            @Override
+            protected LeaderboardPage doInBackground() throws GameStoreException {
+                return source.load(cursor, PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                loading = false;
+                try {
+                    LeaderboardPage page = get();
+                    if (provisional) {
+                        int old = entries.size();
+                        entries.clear();
+                        provisional = false;
+                        if (old > 0) fireIntervalRemoved(LeaderboardListModel.this, 0, old - 1);
+                    }
+                    int start = entries.size();
+                    entries.addAll(page.getEntries());
+                    hasMore = page.hasMore();
+                    if (entries.size() > start) fireIntervalAdded(LeaderboardListModel.this, start, entries.size() - 1);
+                    setStatus(entries.isEmpty() ? emptyText : null);
+                } catch (InterruptedException | ExecutionException e) {
+                    hasMore = false; // Não insiste a cada rolagem; reabrir o ranking tenta de novo
+                    setStatus("Erro ao conectar ao banco de dados!");
+                }
+            }
+        }.execute();
+    }
+
+    private LeaderboardEntry lastEntry() {
+        return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+    }
+
+    private void setStatus(String text) {
+        int index = entries.size();
+        if (status != null && text == null) {
+            status = null;
+            fireIntervalRemoved(this, index, index);
+        } else if (status == null && text != null) {
+            status = text;
+            fireIntervalAdded(this, index, index);
+        } else if (text != null) {
+            status = text;
+            fireContentsChanged(this, index, index);
+        }
+    }
+}
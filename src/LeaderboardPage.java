@@ -0,0 +1,27 @@
+// Em LeaderboardPage.java
+import java.util.List;
+
+/**
+ * Uma página de ranking. A próxima página é pedida passando getLast() como
+ * cursor ("tudo depois desta linha"), em vez de um OFFSET: o banco vai
+ * direto ao ponto pelo índice, não importa quão fundo no ranking.
+ */
+public class LeaderboardPage {
+    private final List<LeaderboardEntry> entries;
+    private final int firstRank; // Posição da primeira linha (1 = topo), 0 se não calculada
+    private final boolean hasMore;
+
+    public LeaderboardPage(List<LeaderboardEntry> entries, int firstRank, boolean hasMore) {
+        this.entries = entries;
+        this.firstRank = firstRank;
+        this.hasMore = hasMore;
+    }
+
+    public List<LeaderboardEntry> getEntries() { return entries; }
+    public int getFirstRank() { return firstRank; }
+    public boolean hasMore() { return hasMore; }
+
+    public LeaderboardEntry getLast() {
+        return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+    }
+}
@@ -0,0 +1,351 @@
+// Em LeaderboardTransfer.java
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta/importa leaderboard, leaderboard_2p e saved_games do MySQL para um
+ * arquivo compacto, para backup ou para levar os dados para outra máquina.
+ *
+ *   java -cp "out:lib/*" LeaderboardTransfer export backup.tlb [--fetch 1000]
+ *   java -cp "out:lib/*" LeaderboardTransfer import backup.tlb [--batch 1000] [--replace]
+ *
+ * Tudo é em streaming, linha a linha: a memória usada não depende do tamanho
+ * das tabelas. Na leitura o driver usa cursor no servidor (useCursorFetch +
+ * fetch size); na escrita, executeBatch() com rewriteBatchedStatements e um
+ * commit a cada lote.
+ *
+ * Arquivo (gzip): [magic int][versão byte] e, para cada tabela,
+ * [id da tabela byte] + linhas, cada uma precedida de 1, e um 0 no fim.
+ * O CRC do gzip detecta arquivo truncado ou corrompido.
+ *
+ * Sem --replace, o import soma ao que já existe: pontuações são
+ * acrescentadas, vitórias somadas por nickname e saves com o mesmo nome são
+ * substituídos. Com --replace as três tabelas são esvaziadas antes.
+ */
+public class LeaderboardTransfer {
+
+    private static final int MAGIC = 0x544C4258; // "TLBX"
+    private static final byte VERSION = 1;
+    private static final byte TABLE_SCORES = 1;
+    private static final byte TABLE_WINS = 2;
+    private static final byte TABLE_SAVES = 3;
+    private static final byte ROW = 1;
+    private static final byte END = 0;
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+    private static final String TRANSFER_URL_PARAMS = "&useCursorFetch=true&rewriteBatchedStatements=true";
+
+    private static final String SQL_EXPORT_SCORES = "SELECT nickname, score, created_at FROM leaderboard ORDER BY id";
+    private static final String SQL_EXPORT_WINS = "SELECT nickname, wins, created_at FROM leaderboard_2p ORDER BY id";
+    private static final String SQL_EXPORT_SAVES = "SELECT saveName, gameStateJSON, score, level, lines_cleared, updated_at, thumbnail "
+            + "FROM saved_games ORDER BY id";
+
+    private static final String SQL_IMPORT_SCORE = "INSERT INTO leaderboard (nickname, score, created_at) VALUES (?, ?, ?)";
+    private static final String SQL_IMPORT_WIN = "INSERT INTO leaderboard_2p (nickname, wins, created_at) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE wins = wins + VALUES(wins)";
+    private static final String SQL_IMPORT_SAVE = "INSERT INTO saved_games "
+            + "(saveName, gameStateJSON, score, level, lines_cleared, updated_at, thumbnail) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE gameStateJSON = VALUES(gameStateJSON), score = VALUES(score), level = VALUES(level), "
+            + "lines_cleared = VALUES(lines_cleared), updated_at = VALUES(updated_at), thumbnail = VALUES(thumbnail)";
+    // Contagens de getRank: agregadas por lote em memória, um upsert por valor distinto
+    private static final String SQL_IMPORT_SCORE_COUNT = "INSERT INTO leaderboard_score_counts (score, total) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE total = total + VALUES(total)";
+    private static final String SQL_IMPORT_BUCKET_COUNT = "INSERT INTO leaderboard_buckets (bucket, total) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE total = total + VALUES(total)";
+    private static final String[] SQL_REPLACE = {
+            "DELETE FROM leaderboard", "DELETE FROM leaderboard_2p", "DELETE FROM saved_games",
+            "DELETE FROM leaderboard_score_counts", "DELETE FROM leaderboard_buckets"
+    };
+
+    private final int batchSize;
+    private final int fetchSize;
+
+    public LeaderboardTransfer(int batchSize, int fetchSize) {
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.err.println("Uso: LeaderboardTransfer export|import <arquivo> [--batch N] [--fetch N] [--replace]");
+            System.exit(2);
+        }
+        int batchSize = DEFAULT_BATCH_SIZE;
+        int fetchSize = DEFAULT_FETCH_SIZE;
+        boolean replace = false;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--batch": batchSize = Integer.parseInt(args[++i]); break;
+                case "--fetch": fetchSize = Integer.parseInt(args[++i]); break;
+                case "--replace": replace = true; break;
+                default:
+                    System.err.println("Opção desconhecida: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        LeaderboardTransfer transfer = new LeaderboardTransfer(batchSize, fetchSize);
+        try (Connection conn = DriverManager.getConnection(DatabaseManager.DB_URL + TRANSFER_URL_PARAMS,
+                DatabaseManager.DB_USER, DatabaseManager.DB_PASS)) {
+            new SchemaMigrator().migrate(conn);
+            if (args[0].equals("export")) transfer.exportTo(conn, args[1]);
+            else transfer.importFrom(conn, args[1], replace);
+        } catch (SQLException | IOException e) {
+            System.err.println("Erro na transferência: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // --- Export ---
+
+    public void exportTo(Connection conn, String path) throws SQLException, IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(path), 64 * 1024)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            exportTable(conn, out, TABLE_SCORES, SQL_EXPORT_SCORES, "leaderboard");
+            exportTable(conn, out, TABLE_WINS, SQL_EXPORT_WINS, "leaderboard_2p");
+            exportTable(conn, out, TABLE_SAVES, SQL_EXPORT_SAVES, "saved_games");
+        }
+    }
+
+    private void exportTable(Connection conn, DataOutputStream out, byte table, String sql, String name)
+            throws SQLException, IOException {
+        Progress progress = new Progress("Exportando " + name);
+        out.writeByte(table);
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    out.writeByte(ROW);
+                    if (table == TABLE_SAVES) {
+                        out.writeUTF(rs.getString(1));
+                        writeLongString(out, rs.getString(2));
+                        out.writeInt(rs.getInt(3));
+                        out.writeInt(rs.getInt(4));
+                        out.writeInt(rs.getInt(5));
+                        out.writeLong(rs.getTimestamp(6).getTime());
+                        byte[] thumbnail = rs.getBytes(7);
+                        out.writeShort(thumbnail == null ? -1 : thumbnail.length);
+                        if (thumbnail != null) out.write(thumbnail);
+                    } else {
+                        out.writeUTF(rs.getString(1));
+                        out.writeInt(rs.getInt(2));
+                        out.writeLong(rs.getTimestamp(3).getTime());
+                    }
+                    progress.add(1);
+                }
+            }
+        }
+        out.writeByte(END);
+        progress.finish();
+    }
+
+    // writeUTF só aceita até 64KB; o estado salvo pode (em tese) passar disso
+    private static void writeLongString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Import ---
+
+    public void importFrom(Connection conn, String path, boolean replace) throws SQLException, IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(path), 64 * 1024)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Arquivo não é um export do Tetris");
+            if (in.readByte() != VERSION) throw new IOException("Versão de arquivo não suportada");
+
+            conn.setAutoCommit(false);
+            try {
+                if (replace) {
+                    try (Statement stmt = conn.createStatement()) {
+                        for (String sql : SQL_REPLACE) stmt.executeUpdate(sql);
+                    }
+                    conn.commit();
+                }
+                int table;
+                while ((table = in.read()) != -1) {
+                    switch (table) {
+                        case TABLE_SCORES: importScores(conn, in); break;
+                        case TABLE_WINS: importSimple(conn, in, SQL_IMPORT_WIN, "leaderboard_2p"); break;
+                        case TABLE_SAVES: importSaves(conn, in); break;
+                        default: throw new IOException("Tabela desconhecida no arquivo: " + table);
+                    }
+                }
+            } catch (SQLException | IOException e) {
+                conn.rollback(); // Só o lote atual; os anteriores já foram gravados
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Arquivo truncado", e);
+        }
+    }
+
+    private void importScores(Connection conn, DataInputStream in) throws SQLException, IOException {
+        Progress progress = new Progress("Importando leaderboard");
+        Map<Integer, Integer> scoreCounts = new HashMap<>();
+        Map<Integer, Integer> bucketCounts = new HashMap<>();
+        try (PreparedStatement insert = conn.prepareStatement(SQL_IMPORT_SCORE);
+             PreparedStatement countScore = conn.prepareStatement(SQL_IMPORT_SCORE_COUNT);
+             PreparedStatement countBucket = conn.prepareStatement(SQL_IMPORT_BUCKET_COUNT)) {
+            int pending = 0;
+            while (in.readByte() == ROW) {
+                String nickname = in.readUTF();
+                int score = in.readInt();
+                insert.setString(1, nickname);
+                insert.setInt(2, score);
+                insert.setTimestamp(3, new Timestamp(in.readLong()));
+                insert.addBatch();
+                scoreCounts.merge(score, 1, Integer::sum);
+                bucketCounts.merge(score / SchemaMigrator.SCORE_BUCKET_SIZE, 1, Integer::sum);
+                if (++pending == batchSize) {
+                    flushScores(conn, insert, countScore, countBucket, scoreCounts, bucketCounts);
+                    progress.add(pending);
+                    pending = 0;
+                }
+            }
+            flushScores(conn, insert, countScore, countBucket, scoreCounts, bucketCounts);
+            progress.add(pending);
+        }
+        progress.finish();
+    }
+
+    // Pontuações e contagens no mesmo commit, como no DatabaseManager.writeBatch
+    private static void flushScores(Connection conn, PreparedStatement insert, PreparedStatement countScore,
+                                    PreparedStatement countBucket, Map<Integer, Integer> scoreCounts,
+                                    Map<Integer, Integer> bucketCounts) throws SQLException {
+        insert.executeBatch();
+        addCounts(countScore, scoreCounts);
+        addCounts(countBucket, bucketCounts);
+        conn.commit();
+    }
+
+    private static void addCounts(PreparedStatement pstmt, Map<Integer, Integer> counts) throws SQLException {
+        if (counts.isEmpty()) return;
+        for (Map.Entry<Integer, Integer> e : counts.entrySet()) {
+            pstmt.setInt(1, e.getKey());
+            pstmt.setInt(2, e.getValue());
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+        counts.clear();
+    }
+
+    private void importSimple(Connection conn, DataInputStream in, String sql, String name)
+            throws SQLException, IOException {
+        Progress progress = new Progress("Importando " + name);
+        try (PreparedStatement insert = conn.prepareStatement(sql)) {
+            int pending = 0;
+            while (in.readByte() == ROW) {
+                insert.setString(1, in.readUTF());
+                insert.setInt(2, in.readInt());
+                insert.setTimestamp(3, new Timestamp(in.readLong()));
+                insert.addBatch();
+                if (++pending == batchSize) {
+                    insert.executeBatch();
+                    conn.commit();
+                    progress.add(pending);
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+            conn.commit();
+            progress.add(pending);
+        }
+        progress.finish();
+    }
+
+    private void importSaves(Connection conn, DataInputStream in) throws SQLException, IOException {
+        Progress progress = new Progress("Importando saved_games");
+        try (PreparedStatement insert = conn.prepareStatement(SQL_IMPORT_SAVE)) {
+            int pending = 0;
+            while (in.readByte() == ROW) {
+                insert.setString(1, in.readUTF());
+                insert.setString(2, readLongString(in));
+                insert.setInt(3, in.readInt());
+                insert.setInt(4, in.readInt());
+                insert.setInt(5, in.readInt());
+                insert.setTimestamp(6, new Timestamp(in.readLong()));
+                int thumbnailLength = in.readShort();
+                byte[] thumbnail = null;
+                if (thumbnailLength >= 0) {
+                    thumbnail = new byte[thumbnailLength];
+                    in.readFully(thumbnail);
+                }
+                insert.setBytes(7, thumbnail);
+                insert.addBatch();
+                // Saves são maiores: lotes menores para não segurar muitos estados na memória
+                if (++pending == Math.max(1, batchSize / 10)) {
+                    insert.executeBatch();
+                    conn.commit();
+                    progress.add(pending);
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+            conn.commit();
+            progress.add(pending);
+        }
+        progress.finish();
+    }
+
+    /** Linhas processadas e linhas/s, no máximo uma vez por PROGRESS_INTERVAL_MS. */
+    private static class Progress {
+        private final String label;
+        private final long start = System.nanoTime();
+        private long rows = 0;
+        private long lastReport = System.currentTimeMillis();
+
+        Progress(String label) {
+            this.label = label;
+        }
+
+        void add(int count) {
+            rows += count;
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= PROGRESS_INTERVAL_MS) {
+                lastReport = now;
+                report("...");
+            }
+        }
+
+        void finish() {
+            report("concluído:");
+        }
+
+        private void report(String status) {
+            double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+            System.out.printf("%s %s %d linhas em %.1f s (%.0f linhas/s)%n",
+                    label, status, rows, seconds, rows / seconds);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+// Em LoadGenerator.java
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Cliente de carga para o MatchServer: milhares de jogadores falsos numa
+ * thread só (um Selector NIO), cada um entrando numa partida, mandando
+ * ações aleatórias e entrando de novo quando a partida acaba.
+ *
+ *   java -cp "out:lib/*" LoadGenerator [host] [porta] [clientes] [segundos] [jogadores por partida]
+ *
+ * A cada segundo mostra conexões, quantos estão jogando, mensagens recebidas
+ * por tipo e a banda; no fim, a latência do JOIN até o WELCOME.
+ */
+public class LoadGenerator {
+
+    private static final int CONNECTS_PER_ROUND = 100; // Rampa: o backlog do servidor não estoura
+    private static final long ACTION_EVERY_MS = 200;
+
+    private static class Client {
+        final int id;
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+        final ByteBuffer out = ByteBuffer.allocate(512);
+        SelectionKey key;
+        boolean playing;
+        long joinSentAt;
+        long nextActionAt;
+
+        Client(int id, SocketChannel channel) {
+            this.id = id;
+            this.channel = channel;
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final int players;
+    private final Random random = new Random(1);
+    private final List<Client> clients = new ArrayList<>();
+    private Selector selector;
+
+    // Contadores (zerados a cada segundo os "por segundo")
+    private int connected, playing;
+    private long welcomes, rejects, states, results, bytesIn, closedByServer;
+    private long statesThisSecond, bytesThisSecond;
+    private long welcomeLatencyTotalMs, welcomeLatencyMaxMs;
+
+    public LoadGenerator(String host, int port, int players) {
+        this.host = host;
+        this.port = port;
+        this.players = players;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = (args.length > 0) ? args[0] : "127.0.0.1";
+        int port = (args.length > 1) ? Integer.parseInt(args[1]) : MatchServer.DEFAULT_PORT;
+        int count = (args.length > 2) ? Integer.parseInt(args[2]) : 1000;
+        int seconds = (args.length > 3) ? Integer.parseInt(args[3]) : 30;
+        int players = (args.length > 4) ? Integer.parseInt(args[4]) : 2;
+        new LoadGenerator(host, port, players).run(count, seconds);
+    }
+
+    public void run(int count, int seconds) throws IOException {
+        selector = Selector.open();
+        System.out.printf("Carga: %d clientes em %s:%d, partidas de %d, %d s%n", count, host, port, players, seconds);
+
+        long start = System.currentTimeMillis();
+        long end = start + seconds * 1000L;
+        long nextReport = start + 1000;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < CONNECTS_PER_ROUND && clients.size() < count; i++) connect();
+
+            selector.select(10);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Client client = (Client) key.attachment();
+                try {
+                    if (key.isValid() && key.isConnectable()) finishConnect(client);
+                    if (key.isValid() && key.isReadable()) read(client);
+                    if (key.isValid() && key.isWritable()) flush(client);
+                } catch (IOException | BufferUnderflowException e) {
+                    drop(client);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            for (Client client : clients) {
+                if (client.playing && now >= client.nextActionAt && client.key.isValid()) {
+                    client.nextActionAt = now + ACTION_EVERY_MS / 2 + random.nextInt((int) ACTION_EVERY_MS);
+                    ByteBuffer payload = ByteBuffer.allocate(2);
+                    payload.put(NetProtocol.ACTION).put((byte) random.nextInt(PlayerAction.values().length));
+                    send(client, payload);
+                }
+            }
+
+            if (now >= nextReport) {
+                System.out.printf("%3d s | conectados %d, jogando %d | WELCOME %d, REJECT %d, RESULT %d | STATE %d/s, %.1f KB/s%n",
+                        (now - start) / 1000, connected, playing, welcomes, rejects, results,
+                        statesThisSecond, bytesThisSecond / 1024.0);
+                statesThisSecond = bytesThisSecond = 0;
+                nextReport += 1000;
+            }
+        }
+
+        System.out.printf("Fim: %d WELCOME (latência média %.0f ms, máx %d ms), %d REJECT, %d STATE, %d RESULT, "
+                        + "%.1f MB recebidos, %d fechadas pelo servidor%n",
+                welcomes, (welcomes > 0) ? (double) welcomeLatencyTotalMs / welcomes : 0.0, welcomeLatencyMaxMs,
+                rejects, states, results, bytesIn / (1024.0 * 1024.0), closedByServer);
+        for (Client client : clients) {
+            try {
+                client.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        selector.close();
+    }
+
+    private void connect() throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Client client = new Client(clients.size(), channel);
+        clients.add(client);
+        channel.connect(new InetSocketAddress(host, port));
+        client.key = channel.register(selector, SelectionKey.OP_CONNECT, client);
+    }
+
+    private void finishConnect(Client client) throws IOException {
+        if (!client.channel.finishConnect()) return;
+        connected++;
+        client.key.interestOps(SelectionKey.OP_READ);
+        join(client);
+    }
+
+    private void join(Client client) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(64);
+        payload.put(NetProtocol.JOIN).put(NetProtocol.VERSION);
+        NetProtocol.putVarInt(payload, players);
+        NetProtocol.putString(payload, "carga" + client.id);
+        client.joinSentAt = System.currentTimeMillis();
+        send(client, payload);
+    }
+
+    private void send(Client client, ByteBuffer payload) throws IOException {
+        payload.flip();
+        if (client.out.remaining() < payload.remaining() + 2) return; // Servidor não está lendo: descarta
+        NetProtocol.putFrame(client.out, payload);
+        flush(client);
+    }
+
+    private void flush(Client client) throws IOException {
+        client.out.flip();
+        client.channel.write(client.out);
+        client.out.compact();
+        int ops = (client.out.position() > 0) ? (SelectionKey.OP_READ | SelectionKey.OP_WRITE) : SelectionKey.OP_READ;
+        if (client.key.interestOps() != ops) client.key.interestOps(ops);
+    }
+
+    private void read(Client client) throws IOException {
+        int n = client.channel.read(client.in);
+        if (n < 0) {
+            closedByServer++;
+            drop(client);
+            return;
+        }
+        bytesIn += n;
+        bytesThisSecond += n;
+        ByteBuffer in = client.in;
+        in.flip();
+        while (in.hasRemaining()) {
+            in.mark();
+            int length;
+            try {
+                length = NetProtocol.getVarInt(in);
+            } catch (BufferUnderflowException e) {
+                in.reset();
+                break;
+            }
+            if (in.remaining() < length) {
+                in.reset();
+                break;
+            }
+            int end = in.position() + length;
+            handle(client, in.get(in.position()));
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void handle(Client client, byte type) throws IOException {
+        switch (type) {
+            case NetProtocol.WELCOME:
+                welcomes++;
+                long latency = System.currentTimeMillis() - client.joinSentAt;
+                welcomeLatencyTotalMs += latency;
+                welcomeLatencyMaxMs = Math.max(welcomeLatencyMaxMs, latency);
+                client.playing = true;
+                playing++;
+                break;
+            case NetProtocol.STATE:
+                states++;
+                statesThisSecond++;
+                break;
+            case NetProtocol.RESULT:
+                results++;
+                if (client.playing) playing--;
+                client.playing = false;
+                join(client); // Próxima partida
+                break;
+            case NetProtocol.REJECT:
+                rejects++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void drop(Client client) {
+        if (client.playing) playing--;
+        client.playing = false;
+        if (client.key.isValid() && client.channel.isConnected()) connected--;
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
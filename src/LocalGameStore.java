@@ -0,0 +1,527 @@
+// Em LocalGameStore.java
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Backend local, embutido, para quando não há servidor MySQL.
+ *
+ * Tudo fica em um único arquivo "log" onde registros são apenas ANEXADOS
+ * (nunca reescritos no lugar). Na abertura o log é lido uma vez e monta o
+ * índice em memória: rankings ordenados e, para cada save, a posição do seu
+ * conteúdo no arquivo (o conteúdo em si não fica na memória).
+ *
+ * Formato do registro: [tamanho int][crc32 int][tipo byte][dados...].
+ * Um registro cortado por crash (crc inválido) marca o fim do log válido.
+ * Quando o arquivo passa do dobro do tamanho "vivo", ele é compactado:
+ * reescrito só com os dados atuais em um temporário e trocado via rename.
+ */
+public class LocalGameStore implements GameStore {
+
+    private static final String DEFAULT_FILE = "tetris_store.log";
+    private static final byte REC_SCORE = 1;
+    private static final byte REC_WIN = 2;
+    private static final byte REC_SAVE = 3;
+    private static final byte REC_DELETE = 4;
+    private static final byte REC_SAVE_AT = 5; // REC_SAVE com a hora (os novos são sempre assim)
+    private static final int HEADER_BYTES = 8;
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    // Linha de ranking com um id crescente para desempate estável
+    private static class Row {
+        final String nickname;
+        final int value;
+        final long id;
+
+        Row(String nickname, int value, long id) {
+            this.nickname = nickname;
+            this.value = value;
+            this.id = id;
+        }
+    }
+
+    private static final Comparator<Row> BY_VALUE_DESC =
+            Comparator.<Row>comparingInt(r -> -r.value).thenComparingLong(r -> r.id);
+
+    // Posição do conteúdo de um save dentro do log, mais o resumo para a listagem
+    private static class SaveRef {
+        final long offset;
+        final int length;
+        final int recordBytes; // Registro inteiro (cabeçalho incluso), para a conta do liveBytes
+        final SaveInfo info;
+
+        SaveRef(long offset, int length, int recordBytes, SaveInfo info) {
+            this.offset = offset;
+            this.length = length;
+            this.recordBytes = recordBytes;
+            this.info = info;
+        }
+    }
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+
+    // --- Índice em memória ---
+    private final TreeSet<Row> scores = new TreeSet<>(BY_VALUE_DESC);
+    private final TreeSet<Row> winRanking = new TreeSet<>(BY_VALUE_DESC);
+    private final Map<String, Row> winsByNickname = new HashMap<>();
+    private final TreeMap<String, SaveRef> saves = new TreeMap<>();
+    private long nextId = 1;
+    private long liveBytes = 0;
+
+    public LocalGameStore() {
+        this(new File(DEFAULT_FILE));
+    }
+
+    public LocalGameStore(File file) {
+        this.file = file;
+        try {
+            open();
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o armazenamento local: " + e.getMessage());
+        }
+    }
+
+    private void open() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        long validEnd = replay();
+        if (validEnd < channel.size()) {
+            System.err.println("Armazenamento local: final corrompido descartado (" + (channel.size() - validEnd) + " bytes).");
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+    }
+
+    // Lê o log inteiro e reconstrói o índice; retorna onde termina a parte válida
+    private long replay() throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Log local grande demais para carregar (" + size + " bytes)");
+        }
+        ByteBuffer all = ByteBuffer.allocate((int) size);
+        while (all.hasRemaining()) {
+            if (channel.read(all, all.position()) < 0) break; // Um read() pode trazer menos que o pedido
+        }
+        all.flip();
+
+        long position = 0;
+        CRC32 crc = new CRC32();
+        while (all.remaining() >= HEADER_BYTES) {
+            int start = all.position();
+            int length = all.getInt();
+            int checksum = all.getInt();
+            if (length <= 0 || length > all.remaining()) break;
+            crc.reset();
+            crc.update(all.array(), all.position(), length);
+            if ((int) crc.getValue() != checksum) break;
+
+            apply(all, start + HEADER_BYTES, length);
+            all.position(start + HEADER_BYTES + length);
+            position = all.position();
+        }
+        return position;
+    }
+
+    private void apply(ByteBuffer buffer, int recordStart, int length) {
+        buffer.position(recordStart);
+        byte type = buffer.get();
+        String key = readString(buffer);
+        switch (type) {
+            case REC_SCORE:
+                applyScore(key, buffer.getInt());
+                break;
+            case REC_WIN:
+                applyWin(key, buffer.getInt());
+                break;
+            case REC_SAVE:
+            case REC_SAVE_AT: {
+                long updatedAt = (type == REC_SAVE_AT) ? buffer.getLong() : file.lastModified();
+                int dataLength = buffer.getInt();
+                int dataStart = buffer.position();
+                SaveInfo info = SaveInfo.fromText(key, readUtf8(buffer, dataLength), updatedAt);
+                applySave(key, new SaveRef(dataStart, dataLength, HEADER_BYTES + length, info));
+                break;
+            }
+            case REC_DELETE:
+                applyDelete(key);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void applyScore(String nickname, int score) {
+        scores.add(new Row(nickname, score, nextId++));
+        liveBytes += HEADER_BYTES + 16 + nickname.length();
+    }
+
+    private void applyWin(String nickname, int increment) {
+        Row old = winsByNickname.get(nickname);
+        int total = increment;
+        long id;
+        if (old != null) {
+            winRanking.remove(old);
+            total += old.value;
+            id = old.id;
+        } else {
+            id = nextId++;
+            liveBytes += HEADER_BYTES + 16 + nickname.length();
+        }
+        Row row = new Row(nickname, total, id);
+        winRanking.add(row);
+        winsByNickname.put(nickname, row);
+    }
+
+    private void applySave(String name, SaveRef ref) {
+        SaveRef old = saves.put(name, ref);
+        if (old != null) liveBytes -= old.recordBytes;
+        liveBytes += ref.recordBytes;
+    }
+
+    private void applyDelete(String name) {
+        SaveRef old = saves.remove(name);
+        if (old != null) liveBytes -= old.recordBytes;
+    }
+
+    // --- Escrita ---
+
+    @Override
+    public synchronized void writeBatch(List<PersistenceQueue.PendingWrite> writes) throws GameStoreException {
+        if (channel == null) throw new GameStoreException("Armazenamento local indisponível", null);
+        long batchStart;
+        try {
+            batchStart = channel.position();
+        } catch (IOException e) {
+            throw new GameStoreException("Erro ao gravar no armazenamento local", e);
+        }
+        try {
+            long now = System.currentTimeMillis();
+            for (PersistenceQueue.PendingWrite w : writes) {
+                appendRecord(w, now);
+            }
+            channel.force(false); // Um fsync por lote, não por registro
+        } catch (IOException | RuntimeException e) {
+            // Tudo ou nada: quem chama vai tentar o lote de novo, então o que entrou pela metade sai
+            discardFrom(batchStart);
+            throw new GameStoreException("Erro ao gravar no armazenamento local", e);
+        }
+        try {
+            maybeCompact();
+        } catch (IOException e) {
+            // O lote já está no disco; sem compactar o log só fica maior. Relê o que valer agora
+            System.err.println("Erro ao compactar o armazenamento local: " + e.getMessage());
+            reopen();
+        }
+    }
+
+    // Corta o log em 'end' e reconstrói o índice a partir do disco
+    private void discardFrom(long end) {
+        try {
+            channel.truncate(end);
+        } catch (IOException e) {
+            System.err.println("Erro ao desfazer lote no armazenamento local: " + e.getMessage());
+        }
+        reopen();
+    }
+
+    private void reopen() {
+        try {
+            raf.close();
+        } catch (IOException ignored) {
+        }
+        clearIndex();
+        try {
+            open();
+        } catch (IOException e) {
+            channel = null; // Próximas escritas falham com "indisponível" em vez de corromper o log
+            System.err.println("Erro ao reabrir o armazenamento local: " + e.getMessage());
+        }
+    }
+
+    private void appendRecord(PersistenceQueue.PendingWrite w, long savedAt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte type;
+        switch (w.type) {
+            case ADD_SCORE: type = REC_SCORE; break;
+            case ADD_WIN: type = REC_WIN; break;
+            case SAVE_GAME: type = REC_SAVE_AT; break;
+            default: type = REC_DELETE; break;
+        }
+        out.writeByte(type);
+        writeString(out, w.key);
+        int payloadOffset = 0;
+        byte[] payload = null;
+        if (type == REC_SCORE || type == REC_WIN) {
+            out.writeInt(w.value);
+        } else if (type == REC_SAVE_AT) {
+            out.writeLong(savedAt);
+            payload = w.payload.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(payload.length);
+            payloadOffset = out.size();
+            out.write(payload);
+        }
+        out.flush();
+
+        long recordStart = channel.position();
+        writeFramed(bytes.toByteArray());
+
+        // Atualiza o índice com exatamente o que foi para o disco
+        switch (type) {
+            case REC_SCORE: applyScore(w.key, w.value); break;
+            case REC_WIN: applyWin(w.key, w.value); break;
+            case REC_SAVE_AT:
+                applySave(w.key, new SaveRef(recordStart + HEADER_BYTES + payloadOffset, payload.length,
+                        HEADER_BYTES + bytes.size(), SaveInfo.fromText(w.key, w.payload, savedAt)));
+                break;
+            default: applyDelete(w.key); break;
+        }
+    }
+
+    private void writeFramed(byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + record.length);
+        buffer.putInt(record.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(record);
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    // --- Compactação ---
+
+    private void maybeCompact() throws IOException {
+        long size = channel.size();
+        if (size < MIN_COMPACT_BYTES || size < liveBytes * 2) return;
+        compact();
+    }
+
+    /** Reescreve o log só com o estado atual (temp + fsync + rename atômico). */
+    public synchronized void compact() throws IOException {
+        File temp = new File(file.getPath() + ".compact");
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            out.setLength(0);
+            FileChannel target = out.getChannel();
+            List<PersistenceQueue.PendingWrite> live = new ArrayList<>();
+            for (Row r : scores) {
+                live.add(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.ADD_SCORE, r.nickname, r.value, null));
+            }
+            for (Row r : winRanking) {
+                live.add(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.ADD_WIN, r.nickname, r.value, null));
+            }
+            Map<String, Long> saveTimes = new HashMap<>();
+            for (Map.Entry<String, SaveRef> e : saves.entrySet()) {
+                live.add(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.SAVE_GAME, e.getKey(), 0, readSave(e.getKey())));
+                saveTimes.put(e.getKey(), e.getValue().info.getUpdatedAtMillis());
+            }
+            FileChannel original = channel;
+            channel = target;
+            clearIndex();
+            try {
+                for (PersistenceQueue.PendingWrite w : live) {
+                    appendRecord(w, saveTimes.getOrDefault(w.key, 0L)); // Mantém a data original dos saves
+                }
+                target.force(true);
+            } finally {
+                channel = original;
+            }
+        }
+        raf.close();
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        clearIndex();
+        open();
+    }
+
+    private void clearIndex() {
+        scores.clear();
+        winRanking.clear();
+        winsByNickname.clear();
+        saves.clear();
+        nextId = 1;
+        liveBytes = 0;
+    }
+
+    // --- Atalhos de uma escrita só ---
+
+    @Override
+    public void addHighScore(String nickname, int score) {
+        writeOne(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.ADD_SCORE, nickname, score, null));
+    }
+
+    @Override
+    public void addWin(String nickname) {
+        writeOne(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.ADD_WIN, nickname, 1, null));
+    }
+
+    @Override
+    public void saveGame(String saveName, String stateData) {
+        writeOne(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.SAVE_GAME, saveName, 0, stateData));
+    }
+
+    @Override
+    public void deleteSaveGame(String saveName) {
+        if (saveName == null || saveName.isEmpty()) return;
+        writeOne(new PersistenceQueue.PendingWrite(PersistenceQueue.WriteType.DELETE_SAVE, saveName, 0, null));
+    }
+
+    private void writeOne(PersistenceQueue.PendingWrite write) {
+        try {
+            writeBatch(List.of(write));
+        } catch (GameStoreException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // --- Leitura (tudo do índice em memória) ---
+
+    @Override
+    public synchronized List<LeaderboardEntry> getTopScores(int limit) {
+        return top(scores, limit);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getTopWinners(int limit) {
+        return top(winRanking, limit);
+    }
+
+    private static List<LeaderboardEntry> top(TreeSet<Row> ranking, int limit) {
+        return page(ranking, null, limit).getEntries();
+    }
+
+    @Override
+    public synchronized LeaderboardPage getScorePage(LeaderboardEntry after, int size) {
+        return page(scores, after, size);
+    }
+
+    @Override
+    public synchronized LeaderboardPage getWinnerPage(LeaderboardEntry after, int size) {
+        return page(winRanking, after, size);
+    }
+
+    // O cursor é a própria linha (valor, id): tailSet vai direto a ela na árvore
+    private static LeaderboardPage page(TreeSet<Row> ranking, LeaderboardEntry after, int size) {
+        Iterable<Row> rows = (after == null) ? ranking
+                : ranking.tailSet(new Row(after.getNickname(), after.getValue(), after.getId()), false);
+        List<LeaderboardEntry> result = new ArrayList<>(Math.min(size, ranking.size()));
+        boolean hasMore = false;
+        for (Row r : rows) {
+            if (result.size() >= size) { hasMore = true; break; }
+            result.add(new LeaderboardEntry(r.nickname, r.value, r.id));
+        }
+        return new LeaderboardPage(result, (after == null) ? 1 : 0, hasMore);
+    }
+
+    // Linha "fantasma" que fica logo antes de todas as de valor == score
+    private static Row probe(int score) {
+        return new Row("", score, Long.MIN_VALUE);
+    }
+
+    @Override
+    public synchronized int getRank(int score) {
+        // headSet().size() percorre as linhas acima: ok para o volume de um arquivo local
+        return scores.headSet(probe(score)).size() + 1;
+    }
+
+    @Override
+    public synchronized LeaderboardPage getScoresAround(int score, int before, int after) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        Iterator<Row> above = scores.headSet(probe(score), false).descendingIterator();
+        while (above.hasNext() && entries.size() < before) {
+            Row r = above.next();
+            entries.add(0, new LeaderboardEntry(r.nickname, r.value, r.id));
+        }
+        int firstRank = getRank(score) - entries.size();
+        LeaderboardPage below = page(scores, new LeaderboardEntry("", score, Long.MIN_VALUE), after);
+        entries.addAll(below.getEntries());
+        return new LeaderboardPage(entries, firstRank, below.hasMore());
+    }
+
+    @Override
+    public synchronized int getWins(String nickname) {
+        Row row = winsByNickname.get(nickname);
+        return (row != null) ? row.value : 0;
+    }
+
+    @Override
+    public synchronized String loadGameJSON(String saveName) {
+        try {
+            return saves.containsKey(saveName) ? readSave(saveName) : null;
+        } catch (IOException e) {
+            System.err.println("Erro ao carregar o jogo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String readSave(String saveName) throws IOException {
+        SaveRef ref = saves.get(saveName);
+        ByteBuffer buffer = ByteBuffer.allocate(ref.length);
+        long pos = ref.offset;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, pos);
+            if (n < 0) throw new IOException("Save truncado: " + saveName);
+            pos += n;
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized List<String> getSavedGameNames() {
+        return new ArrayList<>(saves.keySet());
+    }
+
+    @Override
+    public synchronized List<SaveInfo> getSaveInfos() {
+        List<SaveInfo> infos = new ArrayList<>(saves.size());
+        for (SaveRef ref : saves.values()) infos.add(ref.info);
+        infos.sort(Comparator.comparingLong(SaveInfo::getUpdatedAtMillis).reversed());
+        return infos;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (channel != null) channel.force(true);
+            if (raf != null) raf.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o armazenamento local: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    // --- Strings: [tamanho short][UTF-8] ---
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return readUtf8(buffer, buffer.getShort() & 0xFFFF);
+    }
+
+    private static String readUtf8(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
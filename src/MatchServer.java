@@ -0,0 +1,426 @@
+// Em MatchServer.java
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor de partidas sem interface (nada de Swing): muitas partidas de
+ * jogadores remotos e bots ao mesmo tempo, numa máquina só.
+ *
+ *   java -Djava.awt.headless=true -cp "out:lib/*" MatchServer [porta] [workers] [maxPartidas]
+ *
+ * - Conexões: UMA thread de rede com um Selector NIO (TCP) atende todos os
+ *   clientes; nenhuma thread por conexão.
+ * - Simulação: um pool fixo de SimulationWorker (padrão: um por CPU), cada
+ *   um dono das suas partidas, em passo fixo de 60 ticks/s.
+ * - Lobby: JOIN pede N jogadores; a partida começa quando enche ou depois de
+ *   LOBBY_WAIT_MS, com bots nos lugares vazios.
+ * - Admissão: limite de conexões, de partidas e de memória. Cada partida
+ *   reserva o seu orçamento (lugares + buffers das conexões) ao abrir o
+ *   lobby; sem orçamento, o JOIN recebe REJECT em vez de derrubar o servidor.
+ * - Resultados: vitórias de jogadores remotos vão para o GameStore
+ *   (DatabaseManager por padrão) pela PersistenceQueue, fora dos workers.
+ *
+ * O protocolo está descrito no NetProtocol; o LoadGenerator é o cliente de teste.
+ */
+public class MatchServer {
+
+    public static final int DEFAULT_PORT = 7878;
+    public static final int MAX_PLAYERS_PER_MATCH = 16;
+
+    private static final long LOBBY_WAIT_MS = 2000;
+    private static final long SELECT_TIMEOUT_MS = 50;
+    private static final long STATS_EVERY_MS = 5000;
+    private static final double HEAP_FRACTION = 0.6; // Do -Xmx, para as reservas das partidas
+    private static final int MAX_CLIENT_FRAME = 64;  // JOIN com apelido é o maior
+
+    /** Um lobby aberto por tamanho de partida. */
+    private static class Lobby {
+        final int size;
+        final List<ServerConnection> players = new ArrayList<>();
+        final long openedAt;
+        final long memoryBudget;
+
+        Lobby(int size, long openedAt, long memoryBudget) {
+            this.size = size;
+            this.openedAt = openedAt;
+            this.memoryBudget = memoryBudget;
+        }
+    }
+
+    private final int port;
+    private final int maxMatches;
+    private final int maxConnections;
+    private final long memoryLimit;
+    private final SimulationWorker[] workers;
+    private final PersistenceQueue results;
+
+    private final Map<Integer, Lobby> lobbies = new HashMap<>(); // Só a thread de rede
+    private final ConcurrentLinkedQueue<ServerConnection> flushQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reservedMatches = new AtomicInteger(); // Lobbies + partidas em andamento
+    private final AtomicLong reservedMemory = new AtomicLong();
+    private final AtomicLong finishedMatches = new AtomicLong();
+    private final AtomicLong recordedWins = new AtomicLong();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running = true;
+    private int connectionCount = 0;
+    private int nextMatchId = 1;
+    private long rejectedJoins = 0;
+    private long rejectedConnections = 0;
+
+    public MatchServer(int port, int workerCount, int maxMatches, GameStore store) {
+        this.port = port;
+        this.maxMatches = maxMatches;
+        this.maxConnections = maxMatches * 4;
+        this.memoryLimit = (long) (Runtime.getRuntime().maxMemory() * HEAP_FRACTION);
+        this.results = new PersistenceQueue(store);
+        this.workers = new SimulationWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) workers[i] = new SimulationWorker(i, this);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int maxMatches = (args.length > 2) ? Integer.parseInt(args[2]) : 5000;
+
+        MatchServer server = new MatchServer(port, Math.max(1, workers), maxMatches, GameStore.open());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "match-server-exit"));
+        server.run();
+    }
+
+    public void stop() {
+        running = false;
+        if (selector != null) selector.wakeup();
+    }
+
+    /** Laço da thread de rede (bloqueia até stop()). */
+    public void run() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        for (SimulationWorker worker : workers) worker.start();
+        Thread.currentThread().setName("match-server-io");
+
+        System.out.printf("Servidor de partidas na porta %d: %d workers, até %d partidas, %d MB para partidas%n",
+                port, workers.length, maxMatches, memoryLimit >> 20);
+
+        long nextStats = System.currentTimeMillis() + STATS_EVERY_MS;
+        while (running) {
+            selector.select(SELECT_TIMEOUT_MS);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) continue;
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                ServerConnection conn = (ServerConnection) key.attachment();
+                try {
+                    if (key.isReadable()) read(conn);
+                    if (key.isValid() && key.isWritable()) flush(conn);
+                } catch (IOException e) {
+                    close(conn); // Cliente caiu: normal com milhares de conexões
+                }
+            }
+
+            ServerConnection conn;
+            while ((conn = flushQueue.poll()) != null) {
+                conn.flushQueued.set(false);
+                try {
+                    flush(conn);
+                } catch (IOException e) {
+                    close(conn);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            startReadyLobbies(now);
+            if (now >= nextStats) {
+                printStats();
+                nextStats = now + STATS_EVERY_MS;
+            }
+        }
+
+        for (SimulationWorker worker : workers) worker.stop();
+        for (SelectionKey key : selector.keys()) key.channel().close();
+        selector.close();
+    }
+
+    // --- Conexões ---
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            if (connectionCount >= maxConnections) {
+                rejectedConnections++;
+                rejectAndClose(channel, "Servidor cheio");
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ServerConnection conn = new ServerConnection(channel);
+            conn.key = channel.register(selector, SelectionKey.OP_READ, conn);
+            connectionCount++;
+        }
+    }
+
+    // Antes de registrar: um write só, sem esperar (se não couber, o cliente vê só o fechamento)
+    private void rejectAndClose(SocketChannel channel, String reason) {
+        try {
+            channel.configureBlocking(false);
+            channel.write(rejectFrame(reason));
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void read(ServerConnection conn) throws IOException {
+        if (conn.channel.read(conn.in) < 0) {
+            close(conn);
+            return;
+        }
+        ByteBuffer in = conn.in;
+        in.flip();
+        try {
+            while (in.hasRemaining() && !conn.closed) {
+                in.mark();
+                int length;
+                try {
+                    length = NetProtocol.getVarInt(in);
+                } catch (BufferUnderflowException e) {
+                    in.reset(); // Tamanho ainda incompleto
+                    break;
+                }
+                if (length <= 0 || length > MAX_CLIENT_FRAME) {
+                    close(conn); // Protocolo inválido
+                    return;
+                }
+                if (in.remaining() < length) {
+                    in.reset();
+                    break;
+                }
+                int end = in.position() + length;
+                ByteBuffer message = in.slice(in.position(), length);
+                in.position(end);
+                try {
+                    handle(conn, message);
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    close(conn);
+                    return;
+                }
+            }
+        } finally {
+            in.compact();
+        }
+    }
+
+    private void handle(ServerConnection conn, ByteBuffer message) {
+        byte type = message.get();
+        switch (type) {
+            case NetProtocol.JOIN: {
+                int version = message.get();
+                int players = NetProtocol.getVarInt(message);
+                String nickname = NetProtocol.getString(message, 40);
+                join(conn, version, players, nickname);
+                break;
+            }
+            case NetProtocol.ACTION: {
+                ServerMatch match = conn.match;
+                if (match != null) conn.input.offer(PlayerAction.fromCode(message.get()));
+                break;
+            }
+            case NetProtocol.BYE:
+                close(conn);
+                break;
+            default:
+                break; // Tipos desconhecidos são ignorados (versões futuras)
+        }
+    }
+
+    private void join(ServerConnection conn, int version, int players, String nickname) {
+        if (conn.match != null || conn.wantedPlayers > 0) return; // Já está numa partida ou num lobby
+        if (version != NetProtocol.VERSION) {
+            reject(conn, "Versão incompatível");
+            return;
+        }
+        if (nickname.isBlank() || nickname.length() > 20) {
+            reject(conn, "Apelido inválido");
+            return;
+        }
+        int size = Math.max(2, Math.min(MAX_PLAYERS_PER_MATCH, players));
+
+        Lobby lobby = lobbies.get(size);
+        if (lobby == null) {
+            long budget = ServerMatch.memoryBudgetFor(size, size);
+            if (!reserve(budget)) {
+                rejectedJoins++;
+                reject(conn, "Servidor cheio");
+                return;
+            }
+            lobby = new Lobby(size, System.currentTimeMillis(), budget);
+            lobbies.put(size, lobby);
+        }
+        conn.input.clear(); // Ações que sobraram da partida anterior não entram na próxima
+        conn.nickname = nickname.trim();
+        conn.wantedPlayers = size;
+        lobby.players.add(conn);
+        if (lobby.players.size() == size) startMatch(lobby);
+    }
+
+    // Admissão: partidas e memória, reservadas juntas (workers liberam ao terminar)
+    private boolean reserve(long budget) {
+        if (reservedMatches.incrementAndGet() > maxMatches) {
+            reservedMatches.decrementAndGet();
+            return false;
+        }
+        if (reservedMemory.addAndGet(budget) > memoryLimit) {
+            reservedMemory.addAndGet(-budget);
+            reservedMatches.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void release(long budget) {
+        reservedMemory.addAndGet(-budget);
+        reservedMatches.decrementAndGet();
+    }
+
+    private void reject(ServerConnection conn, String reason) {
+        if (conn.enqueue(rejectFrame(reason))) requestFlush(conn);
+        conn.closeAfterFlush = true;
+    }
+
+    private static ByteBuffer rejectFrame(String reason) {
+        ByteBuffer payload = ByteBuffer.allocate(NetProtocol.MAX_SERVER_FRAME);
+        payload.put(NetProtocol.REJECT);
+        NetProtocol.putString(payload, reason);
+        payload.flip();
+        ByteBuffer frame = ByteBuffer.allocate(NetProtocol.MAX_SERVER_FRAME + 4);
+        NetProtocol.putFrame(frame, payload);
+        frame.flip();
+        return frame;
+    }
+
+    private void flush(ServerConnection conn) throws IOException {
+        if (conn.closed) return;
+        boolean more = conn.flush();
+        if (!more && conn.closeAfterFlush) {
+            close(conn);
+            return;
+        }
+        int ops = more ? (SelectionKey.OP_READ | SelectionKey.OP_WRITE) : SelectionKey.OP_READ;
+        if (conn.key.interestOps() != ops) conn.key.interestOps(ops);
+    }
+
+    private void close(ServerConnection conn) {
+        if (conn.closed) return;
+        conn.closed = true; // O worker vê e dá a derrota, se estiver jogando
+        conn.key.cancel();
+        try {
+            conn.channel.close();
+        } catch (IOException ignored) {
+        }
+        connectionCount--;
+
+        if (conn.match == null && conn.wantedPlayers > 0) {
+            Lobby lobby = lobbies.get(conn.wantedPlayers);
+            if (lobby != null && lobby.players.remove(conn) && lobby.players.isEmpty()) {
+                lobbies.remove(lobby.size);
+                release(lobby.memoryBudget);
+            }
+        }
+    }
+
+    // --- Partidas ---
+
+    private void startReadyLobbies(long now) {
+        Iterator<Lobby> it = lobbies.values().iterator();
+        while (it.hasNext()) {
+            Lobby lobby = it.next();
+            if (now - lobby.openedAt >= LOBBY_WAIT_MS) {
+                it.remove();
+                launch(lobby);
+            }
+        }
+    }
+
+    private void startMatch(Lobby lobby) {
+        lobbies.remove(lobby.size);
+        launch(lobby);
+    }
+
+    private void launch(Lobby lobby) {
+        int id = nextMatchId++;
+        ServerMatch match = new ServerMatch(this, id, lobby.players, lobby.size, id * 7919L, lobby.memoryBudget);
+        for (ServerConnection conn : lobby.players) {
+            conn.wantedPlayers = 0;
+            conn.match = match; // Ações que chegarem antes do primeiro tick ficam na fila
+        }
+        leastLoadedWorker().submit(match);
+    }
+
+    private SimulationWorker leastLoadedWorker() {
+        SimulationWorker best = workers[0];
+        for (SimulationWorker worker : workers) {
+            if (worker.getLoad() < best.getLoad()) best = worker;
+        }
+        return best;
+    }
+
+    // --- Chamados pelos workers ---
+
+    void requestFlush(ServerConnection conn) {
+        if (conn.flushQueued.compareAndSet(false, true)) flushQueue.offer(conn);
+    }
+
+    void wakeUpIfFlushPending() {
+        if (!flushQueue.isEmpty()) selector.wakeup();
+    }
+
+    void matchFinished(ServerMatch match) {
+        release(match.getMemoryBudget());
+        finishedMatches.incrementAndGet();
+        ServerConnection winner = match.getWinnerConnection();
+        if (winner != null) {
+            results.addWin(winner.nickname); // Fila write-behind: não bloqueia o worker
+            recordedWins.incrementAndGet();
+        }
+    }
+
+    private void printStats() {
+        long ticks = 0, late = 0, dropped = 0;
+        int running = 0;
+        for (SimulationWorker worker : workers) {
+            ticks += worker.getTicks();
+            late += worker.getLateTicks();
+            dropped += worker.getDroppedTicks();
+            running += worker.getLoad();
+        }
+        Runtime rt = Runtime.getRuntime();
+        System.out.printf("conexões %d | partidas %d (%d em lobby) | terminadas %d, vitórias gravadas %d | "
+                        + "reservado %d/%d MB, heap %d MB | ticks %d (atrasados %d, pulados %d) | recusados %d JOIN, %d conexões%n",
+                connectionCount, running, lobbies.size(), finishedMatches.get(), recordedWins.get(),
+                reservedMemory.get() >> 20, memoryLimit >> 20, (rt.totalMemory() - rt.freeMemory()) >> 20,
+                ticks, late, dropped, rejectedJoins, rejectedConnections);
+    }
+}
@@ -12,16 +12,25 @@ import java.awt.Color; // <-- ADICIONADO
 import java.awt.Graphics; // <-- ADICIONADO
 import java.awt.FontMetrics; // <-- ADICIONADO
 
-// --- (Importações do Ranking, JTextArea, etc., permanecem) ---
-import javax.swing.JTextArea;
+// --- (Importações do Ranking, JList, etc.) ---
+import javax.swing.JList;
 import javax.swing.JScrollPane;
 import javax.swing.JOptionPane;
+import javax.swing.JComboBox;
+import javax.swing.JSpinner;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
+import java.awt.GridLayout;
 import java.util.List;
+import java.util.function.Function;
 
 public class MenuPanel extends JPanel {
 
     private final GameManager gameManager;
     private JLabel highScoreLabel;
+    private JLabel statsLabel;
+    private static final int DEFAULT_NET_PORT = 7777;
+    private static final int MAX_BATTLE_BOTS = 15;
 
     // As cores clássicas do Tetris para o título
     private final Color[] TETRIS_COLORS = {
@@ -38,7 +47,7 @@ public class MenuPanel extends JPanel {
         this.gameManager = gameManager;
 
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
-        setPreferredSize(new Dimension(800, 600));
+        setPreferredSize(new Dimension(800, 720));
 
         // --- MUDANÇAS DE ESTILO ---
         setBackground(Color.BLACK); // Fundo preto
@@ -81,6 +90,11 @@ public class MenuPanel extends JPanel {
         highScoreLabel.setFont(new Font("Arial", Font.PLAIN, 20));
         highScoreLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         highScoreLabel.setForeground(Color.WHITE); // Fonte branca
+
+        statsLabel = new JLabel(" ");
+        statsLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        statsLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        statsLabel.setForeground(Color.LIGHT_GRAY);
         updateHighScore();
 
         // --- 3. ESTILO DOS BOTÕES ---
@@ -96,6 +110,14 @@ public class MenuPanel extends JPanel {
         styleButton(twoPlayerButton);
         twoPlayerButton.addActionListener(e -> gameManager.startTwoPlayerGame());
 
+        JButton battleButton = new JButton("Batalha (vs Bots)");
+        styleButton(battleButton);
+        battleButton.addActionListener(e -> showBattleDialog());
+
+        JButton networkButton = new JButton("Rede (LAN)");
+        styleButton(networkButton);
+        networkButton.addActionListener(e -> showNetworkDialog());
+
         JButton ranking1PButton = new JButton("Ranking Pontuação (1P)");
         styleButton(ranking1PButton);
         ranking1PButton.addActionListener(e -> show1PRanking());
@@ -109,13 +131,19 @@ public class MenuPanel extends JPanel {
         add(titlePanel); // Adiciona o novo painel de título
         add(Box.createRigidArea(new Dimension(0, 30)));
         add(highScoreLabel);
-        add(Box.createRigidArea(new Dimension(0, 40)));
+        add(Box.createRigidArea(new Dimension(0, 5)));
+        add(statsLabel);
+        add(Box.createRigidArea(new Dimension(0, 35)));
         add(newOnePlayerButton);
         add(Box.createRigidArea(new Dimension(0, 15)));
         add(loadGameButton);
         add(Box.createRigidArea(new Dimension(0, 15)));
         add(twoPlayerButton);
         add(Box.createRigidArea(new Dimension(0, 15)));
+        add(battleButton);
+        add(Box.createRigidArea(new Dimension(0, 15)));
+        add(networkButton);
+        add(Box.createRigidArea(new Dimension(0, 15)));
         add(ranking1PButton);
         add(Box.createRigidArea(new Dimension(0, 15)));
         add(ranking2PButton);
@@ -151,56 +179,124 @@ public class MenuPanel extends JPanel {
 
     public void updateHighScore() {
         highScoreLabel.setText("Recorde Local: " + gameManager.getHighScore());
+        HighScoreManager stats = gameManager.getStats();
+        statsLabel.setText(String.format("Partidas: %d  |  Linhas: %d  |  Melhor nível: %d  |  Tempo: %d min",
+                stats.getOnePlayerGames(), stats.getTotalLines(), stats.getBestLevel(),
+                stats.getTotalPlayMillis() / 60_000));
     }
 
     private void showLoadGameDialog() {
-        List<String> saveNames = gameManager.getSavedGameNames();
-        if (saveNames.isEmpty()) {
+        List<SaveInfo> saves = gameManager.getSaveInfos(); // Só os resumos, não o estado completo
+        if (saves.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Nenhum jogo salvo encontrado.", "Carregar Jogo", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
-        Object[] options = saveNames.toArray();
-        String selectedSave = (String)JOptionPane.showInputDialog(
-                this, "Escolha um jogo para carregar:", "Carregar Jogo",
-                JOptionPane.PLAIN_MESSAGE, null, options, options[0] );
-        if (selectedSave != null && !selectedSave.isEmpty()) {
-            gameManager.loadGame(selectedSave);
+        JList<SaveInfo> list = new JList<>(saves.toArray(new SaveInfo[0]));
+        list.setCellRenderer(new SaveListRenderer(gameManager.getThemeManager()));
+        list.setSelectedIndex(0);
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setPreferredSize(new Dimension(400, 380));
+        int choice = JOptionPane.showConfirmDialog(this, scrollPane, "Carregar Jogo",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        SaveInfo selected = list.getSelectedValue();
+        if (choice == JOptionPane.OK_OPTION && selected != null) {
+            gameManager.loadGame(selected.getName());
         }
     }
 
-    private void show1PRanking() {
-        List<String> topScores = gameManager.getDatabaseManager().getTopScores();
-        if (topScores.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Nenhuma pontuação no ranking ainda!", "Ranking 1P", JOptionPane.INFORMATION_MESSAGE);
-            return;
-        }
-        StringBuilder rankingText = new StringBuilder("--- TOP 10 PONTUADORES ---\n\n");
-        for (String scoreEntry : topScores) {
-            rankingText.append(scoreEntry).append("\n");
+    /** Batalha: nome, quantos bots e como cada um escolhe o alvo do lixo. */
+    private void showBattleDialog() {
+        JTextField nameField = new JTextField("Jogador");
+        JSpinner botsSpinner = new JSpinner(new SpinnerNumberModel(7, 1, MAX_BATTLE_BOTS, 1));
+        JComboBox<TargetingStrategy> strategyBox = new JComboBox<>(TargetingStrategy.values());
+        JPanel form = new JPanel(new GridLayout(0, 2, 8, 8));
+        form.add(new JLabel("Seu nome:"));
+        form.add(nameField);
+        form.add(new JLabel("Bots:"));
+        form.add(botsSpinner);
+        form.add(new JLabel("Alvo do lixo:"));
+        form.add(strategyBox);
+
+        int choice = JOptionPane.showConfirmDialog(this, form, "Batalha (vs Bots)",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) return;
+        String nickname = nameField.getText().trim().isEmpty() ? "Jogador" : nameField.getText().trim();
+        if (nickname.length() > 50) nickname = nickname.substring(0, 50);
+        gameManager.startBattle(nickname, (Integer) botsSpinner.getValue(),
+                (TargetingStrategy) strategyBox.getSelectedItem());
+    }
+
+    /** Criar uma partida (espera na porta) ou entrar na de alguém (endereço:porta). */
+    private void showNetworkDialog() {
+        String[] options = {"Criar Partida", "Entrar", "Cancelar"};
+        int choice = JOptionPane.showOptionDialog(this, "Versus pela rede local.\nUse as setas (ou WASD), Espaço e C.",
+                "Rede (LAN)", JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (choice != 0 && choice != 1) return;
+
+        String nickname = JOptionPane.showInputDialog(this, "Seu nome:", "Jogador");
+        if (nickname == null) return;
+        nickname = nickname.trim().isEmpty() ? "Jogador" : nickname.trim();
+        if (nickname.length() > 50) nickname = nickname.substring(0, 50);
+
+        String defaultAddress = (choice == 0) ? String.valueOf(DEFAULT_NET_PORT) : "127.0.0.1:" + DEFAULT_NET_PORT;
+        String address = JOptionPane.showInputDialog(this,
+                (choice == 0) ? "Porta:" : "Endereço do host (ip:porta):", defaultAddress);
+        if (address == null) return;
+        address = address.trim();
+
+        try {
+            if (choice == 0) {
+                gameManager.startNetworkGame(null, Integer.parseInt(address), nickname);
+            } else {
+                int colon = address.lastIndexOf(':');
+                String host = (colon >= 0) ? address.substring(0, colon) : address;
+                int port = (colon >= 0) ? Integer.parseInt(address.substring(colon + 1)) : DEFAULT_NET_PORT;
+                gameManager.startNetworkGame(host, port, nickname);
+            }
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Porta inválida: " + address, "Erro", JOptionPane.ERROR_MESSAGE);
         }
-        JTextArea textArea = new JTextArea(rankingText.toString());
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-        textArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(350, 300));
-        JOptionPane.showMessageDialog(this, scrollPane, "Ranking Pontuação (1P)", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private void show1PRanking() {
+        LeaderboardCache cache = gameManager.getLeaderboardCache();
+        GameStore store = gameManager.getGameStore();
+        showRanking("Ranking Pontuação (1P)", store::getScorePage,
+                entry -> entry.getNickname() + " - " + entry.getValue(),
+                "Nenhuma pontuação no ranking ainda!", cache.getTopScores());
     }
 
     private void show2PRanking() {
-        List<String> topWinners = gameManager.getDatabaseManager().getTopWinners();
-        if (topWinners.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Nenhuma vitória registrada ainda!", "Ranking 2P", JOptionPane.INFORMATION_MESSAGE);
-            return;
-        }
-        StringBuilder rankingText = new StringBuilder("--- TOP 10 VENCEDORES ---\n\n");
-        for (String winnerEntry : topWinners) {
-            rankingText.append(winnerEntry).append("\n");
-        }
-        JTextArea textArea = new JTextArea(rankingText.toString());
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-        textArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(textArea);
+        LeaderboardCache cache = gameManager.getLeaderboardCache();
+        GameStore store = gameManager.getGameStore();
+        showRanking("Ranking Vitórias (2P)", store::getWinnerPage,
+                entry -> {
+                    int wins = entry.getValue();
+                    String winText = (wins == 1) ? "vitória" : "vitórias"; // (1 vitória, 2 vitórias)
+                    return entry.getNickname() + " - " + wins + " " + winText;
+                },
+                "Nenhuma vitória registrada ainda!", cache.getTopWinners());
+    }
+
+    /**
+     * Ranking completo em uma lista rolável. O top-10 do cache aparece na hora;
+     * o resto vem em páginas, carregadas quando a rolagem chega perto do fim.
+     */
+    private void showRanking(String title, LeaderboardListModel.PageSource source,
+                             Function<LeaderboardEntry, String> formatter, String emptyText,
+                             List<LeaderboardEntry> cached) {
+        LeaderboardListModel model = new LeaderboardListModel(source, formatter, emptyText, cached);
+        JList<String> list = new JList<>(model);
+        list.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        JScrollPane scrollPane = new JScrollPane(list);
         scrollPane.setPreferredSize(new Dimension(350, 300));
-        JOptionPane.showMessageDialog(this, scrollPane, "Ranking Vitórias (2P)", JOptionPane.PLAIN_MESSAGE);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            // Faltando menos de meia página para o fim: já pede a próxima
+            if (list.getLastVisibleIndex() >= model.getLoadedCount() - LeaderboardListModel.PAGE_SIZE / 2) {
+                model.loadMore();
+            }
+        });
+        model.loadMore();
+        JOptionPane.showMessageDialog(this, scrollPane, title, JOptionPane.PLAIN_MESSAGE);
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+// Em MusicStream.java
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Música tocada direto do disco, em pedaços pequenos.
+ *
+ * Uma thread de leitura decodifica o WAV e enche um buffer circular de
+ * tamanho fixo (~0,75 s); a thread do AudioMixer consome desse buffer sem
+ * nunca bloquear. Ao chegar ao fim do arquivo a leitura recomeça na hora,
+ * então o loop é contínuo (sem "buraco"). A memória usada é a mesma para
+ * uma faixa de 10 segundos ou de 10 minutos.
+ */
+public class MusicStream {
+
+    private static final int RING_SAMPLES = 1 << 16; // potência de 2 (estéreo intercalado)
+    private static final int MASK = RING_SAMPLES - 1;
+    private static final int CHUNK_BYTES = 4096;
+
+    private final File file;
+    private final short[] ring = new short[RING_SAMPLES];
+    private volatile long writeIndex = 0; // só a thread de leitura escreve
+    private volatile long readIndex = 0;  // só a thread do mixer escreve
+    private volatile boolean closed = false;
+    private volatile long underruns = 0;
+    private Thread reader;
+
+    public MusicStream(File file) {
+        this.file = file;
+    }
+
+    public void start() {
+        reader = new Thread(this::readLoop, "tetris-music-stream");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /** Pede para a thread de leitura parar; ela mesma fecha o arquivo. Não bloqueia. */
+    public void close() {
+        closed = true;
+        if (reader != null) LockSupport.unpark(reader);
+    }
+
+    public long getUnderruns() { return underruns; }
+
+    /**
+     * Chamado pela thread do mixer. Copia até 'samples' amostras para 'dst'
+     * e completa com silêncio se o buffer ainda não tiver dados suficientes.
+     */
+    public int read(short[] dst, int samples) {
+        long r = readIndex;
+        int available = (int) Math.min(samples, writeIndex - r);
+        for (int i = 0; i < available; i++) {
+            dst[i] = ring[(int) ((r + i) & MASK)];
+        }
+        if (available < samples) {
+            java.util.Arrays.fill(dst, available, samples, (short) 0);
+            if (!closed) underruns++;
+        }
+        readIndex = r + available;
+        return samples;
+    }
+
+    private void readLoop() {
+        byte[] chunk = new byte[CHUNK_BYTES];
+        while (!closed) {
+            try (AudioInputStream source = AudioSystem.getAudioInputStream(file);
+                 AudioInputStream in = AudioMixer.toMixerFormat(source)) {
+                int read;
+                while (!closed && (read = in.read(chunk)) != -1) {
+                    writeSamples(chunk, read & ~1);
+                }
+                // Fim do arquivo: o laço externo reabre e continua (loop sem intervalo)
+            } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+                System.err.println("Erro ao ler a música " + file.getName() + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void writeSamples(byte[] chunk, int bytes) {
+        int samples = bytes / 2;
+        int done = 0;
+        while (done < samples && !closed) {
+            long w = writeIndex;
+            int free = (int) (RING_SAMPLES - (w - readIndex));
+            if (free == 0) {
+                LockSupport.parkNanos(2_000_000L); // buffer cheio: espera o mixer consumir
+                continue;
+            }
+            int n = Math.min(free, samples - done);
+            for (int i = 0; i < n; i++) {
+                int b = (done + i) * 2;
+                ring[(int) ((w + i) & MASK)] = (short) ((chunk[b] & 0xFF) | (chunk[b + 1] << 8));
+            }
+            writeIndex = w + n;
+            done += n;
+        }
+    }
+}
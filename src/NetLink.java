@@ -0,0 +1,161 @@
+// Em NetLink.java
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Um "cano" UDP não bloqueante (NIO DatagramChannel) até o outro jogador.
+ *
+ * Para testar tudo em loopback, a saída pode simular uma rede ruim:
+ * atraso fixo + jitter e perda de pacotes (-Dtetris.net.latency=80,
+ * -Dtetris.net.jitter=20, -Dtetris.net.loss=0.05). Com jitter os pacotes
+ * também chegam fora de ordem, como na internet. Nada aqui bloqueia: quem
+ * usa chama poll() a cada tick.
+ */
+public class NetLink implements AutoCloseable {
+
+    /** Condições simuladas da rede, aplicadas a tudo o que este lado envia. */
+    public static final class Conditions {
+        public final int latencyMs;
+        public final int jitterMs;
+        public final double lossRate;
+
+        public Conditions(int latencyMs, int jitterMs, double lossRate) {
+            this.latencyMs = Math.max(0, latencyMs);
+            this.jitterMs = Math.max(0, jitterMs);
+            this.lossRate = Math.max(0, Math.min(1, lossRate));
+        }
+
+        public static final Conditions NONE = new Conditions(0, 0, 0);
+
+        public static Conditions fromSystemProperties() {
+            return new Conditions(Integer.getInteger("tetris.net.latency", 0),
+                    Integer.getInteger("tetris.net.jitter", 0),
+                    Double.parseDouble(System.getProperty("tetris.net.loss", "0")));
+        }
+
+        @Override
+        public String toString() {
+            return latencyMs + "±" + jitterMs + " ms, perda " + Math.round(lossRate * 100) + "%";
+        }
+    }
+
+    // Pacote "na rede" esperando a hora de sair (latência simulada)
+    private static final class Delayed implements Comparable<Delayed> {
+        final long dueNanos;
+        final long order;
+        final byte[] data;
+
+        Delayed(long dueNanos, long order, byte[] data) {
+            this.dueNanos = dueNanos;
+            this.order = order;
+            this.data = data;
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            int c = Long.compare(dueNanos, o.dueNanos);
+            return (c != 0) ? c : Long.compare(order, o.order);
+        }
+    }
+
+    private final DatagramChannel channel;
+    private final Conditions conditions;
+    private final Random impairment = new Random(0x5EED); // Fixo: a mesma "rede ruim" em cada teste
+    private final PriorityQueue<Delayed> inFlight = new PriorityQueue<>();
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+    private SocketAddress peer;
+    private long sentOrder = 0;
+
+    // --- Métricas (bytes de payload UDP, sem cabeçalhos IP/UDP) ---
+    private long bytesSent, bytesReceived, packetsSent, packetsReceived, packetsDropped;
+
+    private NetLink(DatagramChannel channel, SocketAddress peer, Conditions conditions) throws IOException {
+        this.channel = channel;
+        this.peer = peer;
+        this.conditions = conditions;
+        channel.configureBlocking(false);
+    }
+
+    /** Lado que cria a partida: espera o primeiro pacote para saber quem é o outro. */
+    public static NetLink listen(int port, Conditions conditions) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        return new NetLink(channel, null, conditions);
+    }
+
+    /** Lado que entra na partida de alguém. */
+    public static NetLink connect(String host, int port, Conditions conditions) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(0));
+        return new NetLink(channel, new InetSocketAddress(host, port), conditions);
+    }
+
+    public boolean hasPeer() { return peer != null; }
+    public void setPeer(SocketAddress peer) { this.peer = peer; }
+    public SocketAddress getPeer() { return peer; }
+    public int getLocalPort() throws IOException { return ((InetSocketAddress) channel.getLocalAddress()).getPort(); }
+
+    /** Envia (ou "perde", ou atrasa) um pacote já montado em 'packet' (position..limit). */
+    public void send(ByteBuffer packet) throws IOException {
+        if (peer == null) return;
+        packetsSent++;
+        bytesSent += packet.remaining();
+        if (conditions.lossRate > 0 && impairment.nextDouble() < conditions.lossRate) {
+            packetsDropped++;
+            return;
+        }
+        if (conditions.latencyMs == 0 && conditions.jitterMs == 0) {
+            channel.send(packet, peer);
+            return;
+        }
+        byte[] copy = new byte[packet.remaining()];
+        packet.get(copy);
+        long delayMs = conditions.latencyMs + (conditions.jitterMs > 0 ? impairment.nextInt(conditions.jitterMs * 2 + 1) - conditions.jitterMs : 0);
+        inFlight.add(new Delayed(System.nanoTime() + Math.max(0, delayMs) * 1_000_000L, sentOrder++, copy));
+    }
+
+    /**
+     * Manda os pacotes atrasados que já "chegaram" e lê UM datagrama recebido
+     * para 'into' (pronto para leitura). Retorna false se não havia nada.
+     */
+    public boolean poll(ByteBuffer into) throws IOException {
+        long now = System.nanoTime();
+        while (!inFlight.isEmpty() && inFlight.peek().dueNanos <= now) {
+            sendBuffer.clear();
+            sendBuffer.put(inFlight.poll().data).flip();
+            channel.send(sendBuffer, peer);
+        }
+        while (true) {
+            into.clear();
+            SocketAddress from = channel.receive(into);
+            if (from == null) return false;
+            if (peer == null) peer = from; // Primeiro contato: fica "conectado" a quem falou
+            if (peer.equals(from)) break;  // Pacote de um terceiro: ignora
+        }
+        into.flip();
+        packetsReceived++;
+        bytesReceived += into.remaining();
+        return true;
+    }
+
+    public Conditions getConditions() { return conditions; }
+    public long getBytesSent() { return bytesSent; }
+    public long getBytesReceived() { return bytesReceived; }
+    public long getPacketsSent() { return packetsSent; }
+    public long getPacketsReceived() { return packetsReceived; }
+    public long getPacketsDropped() { return packetsDropped; }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Fechando de qualquer jeito
+        }
+    }
+}
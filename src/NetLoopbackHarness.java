@@ -0,0 +1,84 @@
+// Em NetLoopbackHarness.java
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste da partida em rede sem interface e sem segunda máquina: dois
+ * NetSession (host e cliente) em 127.0.0.1, cada um com um SimpleBot, numa
+ * só thread e em tempo real (60 ticks/s), com a rede ruim simulada pelo
+ * NetLink.
+ *
+ *   java -Djava.awt.headless=true -cp "out:lib/*" NetLoopbackHarness [segundos] [latência ms] [jitter ms] [perda 0..1] [semente]
+ *
+ * No fim mostra a banda por jogador, os pacotes perdidos, as dessincronias
+ * detectadas e o resultado visto por cada lado (precisam concordar).
+ */
+public class NetLoopbackHarness {
+
+    private static final int BOT_TICKS_PER_PIECE = 8;
+    private static final int LINGER_TICKS = 2 * GameScheduler.TICKS_PER_SECOND; // Depois do fim: o outro lado ainda decide
+
+    public static void main(String[] args) throws IOException {
+        int seconds = (args.length > 0) ? Integer.parseInt(args[0]) : 60;
+        NetLink.Conditions defaults = NetLink.Conditions.fromSystemProperties();
+        NetLink.Conditions conditions = new NetLink.Conditions(
+                (args.length > 1) ? Integer.parseInt(args[1]) : defaults.latencyMs,
+                (args.length > 2) ? Integer.parseInt(args[2]) : defaults.jitterMs,
+                (args.length > 3) ? Double.parseDouble(args[3]) : defaults.lossRate);
+        long seed = (args.length > 4) ? Long.parseLong(args[4]) : 1L;
+
+        NetLink hostLink = NetLink.listen(0, conditions);
+        NetLink clientLink = NetLink.connect("127.0.0.1", hostLink.getLocalPort(), conditions);
+        NetSession hostSession = NetSession.host(hostLink, "Host", seed, new GameEngine(), new GameEngine());
+        NetSession clientSession = NetSession.join(clientLink, "Cliente", new GameEngine(), new GameEngine());
+        SimpleBot hostBot = new SimpleBot(BOT_TICKS_PER_PIECE);
+        SimpleBot clientBot = new SimpleBot(BOT_TICKS_PER_PIECE);
+
+        System.out.printf("Loopback: %s, até %d s, semente %d%n", conditions, seconds, seed);
+        long maxTicks = (long) seconds * GameScheduler.TICKS_PER_SECOND;
+        long next = System.nanoTime();
+        int linger = -1;
+        for (long tick = 0; tick < maxTicks; tick++) {
+            act(hostBot, hostSession);
+            act(clientBot, clientSession);
+            hostSession.step();
+            clientSession.step();
+
+            boolean bothDone = hostSession.getPhase() == NetSession.Phase.FINISHED
+                    && clientSession.getPhase() == NetSession.Phase.FINISHED;
+            if (bothDone && linger < 0) linger = LINGER_TICKS;
+            if (linger >= 0 && linger-- == 0) break;
+
+            next += GameScheduler.TICK_NANOS; // Tempo real: a latência simulada usa System.nanoTime()
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+
+        report("Host", hostSession);
+        report("Cliente", clientSession);
+        NetSession.Result h = hostSession.getResult(), c = clientSession.getResult();
+        boolean agree = (h == null && c == null)
+                || (h == NetSession.Result.WON && c == NetSession.Result.LOST)
+                || (h == NetSession.Result.LOST && c == NetSession.Result.WON)
+                || (h == NetSession.Result.DRAW && c == NetSession.Result.DRAW);
+        System.out.println(agree ? "Resultados concordam." : "ATENÇÃO: resultados diferentes nos dois lados!");
+
+        hostSession.close();
+        clientSession.close();
+    }
+
+    private static void act(SimpleBot bot, NetSession session) {
+        if (session.getPhase() == NetSession.Phase.PLAYING) bot.act(session.getLocalEngine(), session::localInput);
+    }
+
+    private static void report(String name, NetSession session) {
+        NetLink link = session.getLink();
+        GameEngine local = session.getLocalEngine();
+        System.out.printf("%-8s %s | pontos %d, linhas %d | ticks %d (espelho %d)%n", name,
+                (session.getResult() != null) ? session.getResult() : "sem resultado no tempo limite",
+                local.getScore(), local.getLinesCleared(), session.getLocalTicks(), session.getMirrorTicks());
+        System.out.printf("         %.0f bytes/s enviados, %d pacotes (%d perdidos), %d recebidos, %d dessincronias%n",
+                session.getBytesSentPerSecond(), link.getPacketsSent(), link.getPacketsDropped(),
+                link.getPacketsReceived(), session.getDesyncs());
+    }
+}
@@ -0,0 +1,39 @@
+// Em NetMatch.java
+import java.util.List;
+
+/**
+ * Uma partida versus em rede, do jeito que o GameManager a usa. Duas
+ * implementações: NetSession (cada lado simula a sua engine e um espelho
+ * atrasado do outro) e RollbackSession (prevê o outro e corrige voltando
+ * no tempo). Tudo na thread que chama step(), uma vez por tick.
+ */
+public interface NetMatch extends AutoCloseable {
+
+    void step();
+
+    /** Ação do jogador local, antes do próximo tick. */
+    void localInput(PlayerAction action);
+
+    void setOnFinished(Runnable onFinished);
+
+    NetSession.Phase getPhase();
+
+    NetSession.Result getResult();
+
+    String getRemoteNickname();
+
+    GameEngine getLocalEngine();
+
+    /** Local primeiro, depois o adversário (ordem dos painéis). */
+    List<GameEngine> getEngines();
+
+    NetLink getLink();
+
+    int getDesyncs();
+
+    double getBytesSentPerSecond();
+
+    /** Avisa o outro lado (BYE) e fecha o socket. */
+    @Override
+    void close();
+}
@@ -0,0 +1,120 @@
+// Em NetProtocol.java
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protocolo binário do versus em rede (UDP). Cada datagrama começa com
+ * [tipo byte]; inteiros não negativos vão como varint (1 byte até 127).
+ *
+ * HELLO    [versão][semente long][apelido: tamanho + UTF-8]
+ * INPUT    [flags][finalTag+1][finalTag-base][ack+1][n] + n eventos [delta do tick][código][linhas se LIXO]
+ *          (+ [tick do digest][EngineSnapshot.digest int] se flags tem FLAG_DIGEST)
+ *          finalTag: todos os eventos até este tick estão no pacote (ou já confirmados);
+ *          base: último tick confirmado pelo outro lado (os eventos vêm depois dele);
+ *          ack: até que tick este lado já recebeu os eventos do outro.
+ * RESYNC   [tick]                      (pede o estado completo: digest não bateu)
+ * SNAPSHOT [tick][EngineSnapshot.writeTo]  (resposta ao RESYNC: estado completo do tick)
+ * BYE      (saiu da partida)
+ *
+ * Um evento é uma PlayerAction ou "lixo recebido", marcado com o tick em
+ * que aconteceu. Todo INPUT repete os eventos que o outro lado ainda não
+ * confirmou (ack), então perder pacotes só atrasa, nunca perde entrada.
+ *
+ * Com rollback (RollbackSession), o HELLO vai com ROLLBACK_VERSION (os dois
+ * modos não conversam entre si) e a entrada vai em RB_INPUT:
+ * RB_INPUT [flags][vantagem][finalTag+1][finalTag-base][ack+1][n] + n eventos [delta do tick][código]
+ *          (+ [tick confirmado][digest int] se FLAG_DIGEST)
+ *          Só ações: o lixo sai da simulação, igual nos dois lados.
+ *          vantagem: quantos ticks quem manda está à frente do que já recebeu (0..255).
+ * RESYNC   [tick confirmado]           (quem entrou -> host: digest não bateu)
+ * SNAPSHOT [tick][engine do host][engine de quem entrou]  (EngineSnapshot.writeTo, no último tick confirmado do host)
+ *
+ * Servidor de partidas (MatchServer, TCP): cada mensagem é [tamanho varint][tipo]...
+ * JOIN    [versão][jogadores na partida][apelido]        cliente -> servidor
+ * ACTION  [código da PlayerAction]                       cliente -> servidor
+ * WELCOME [id da partida][lugar][jogadores]              servidor -> cliente
+ * REJECT  [motivo]                                       (servidor cheio, versão...)
+ * STATE   [tick][vivos][pontos][linhas][lixo pendente][peça+1][rotação][x+4][y+4]
+ *         [tabuleiro fixo: 100 bytes, 4 bits/célula]
+ * RESULT  [colocação][KOs][vencedor]
+ * BYE     (qualquer lado, antes de fechar)
+ */
+public final class NetProtocol {
+
+    public static final byte VERSION = 1;
+    public static final byte ROLLBACK_VERSION = 2;
+
+    public static final byte HELLO = 1;
+    public static final byte INPUT = 2;
+    public static final byte RESYNC = 3;
+    public static final byte SNAPSHOT = 4;
+    public static final byte BYE = 5;
+    public static final byte RB_INPUT = 6;
+
+    public static final byte JOIN = 16;
+    public static final byte ACTION = 17;
+    public static final byte WELCOME = 18;
+    public static final byte REJECT = 19;
+    public static final byte STATE = 20;
+    public static final byte RESULT = 21;
+    public static final int MAX_SERVER_FRAME = 256; // Maior mensagem do servidor (STATE ~115 bytes)
+
+    public static final int FLAG_DIGEST = 1;
+    public static final byte CODE_GARBAGE = 15; // Códigos 0..5 = PlayerAction
+
+    public static final int MAX_PACKET = 1200; // Abaixo do MTU típico, sem fragmentação
+
+    private NetProtocol() { }
+
+    /** Um evento do jogador: aconteceu depois de 'tick' ticks completos. */
+    public static final class Event {
+        public final int tick;
+        public final byte code;
+        public final int lines;
+
+        public Event(int tick, byte code, int lines) {
+            this.tick = tick;
+            this.code = code;
+            this.lines = lines;
+        }
+    }
+
+    public static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new BufferUnderflowException(); // Varint inválido: trata como pacote corrompido
+    }
+
+    /** Mensagem do servidor: [tamanho varint] + payload (já em modo leitura). */
+    public static void putFrame(ByteBuffer out, ByteBuffer payload) {
+        putVarInt(out, payload.remaining());
+        out.put(payload);
+    }
+
+    public static void putString(ByteBuffer out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    public static String getString(ByteBuffer in, int maxBytes) {
+        int length = getVarInt(in);
+        if (length > maxBytes) throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,326 @@
+// Em NetSession.java
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Uma partida versus pela rede (LAN), entre dois processos.
+ *
+ * Cada lado simula a PRÓPRIA engine de verdade e um "espelho" do adversário.
+ * Só viajam eventos: as ações do jogador (1 byte) e o lixo que ele recebeu,
+ * marcados com o tick em que aconteceram. Como a engine é determinística
+ * (mesma semente, mesmos eventos nos mesmos ticks = mesmo jogo), o espelho
+ * reproduz exatamente a partida do outro, com o atraso da rede.
+ *
+ * Lixo: quando o espelho do adversário limpa linhas, o ataque cai na MINHA
+ * caixa de entrada (é ele me atacando). O que a minha engine manda vai para
+ * um "ralo": quem recebe é a engine real dele, pelo espelho que ele tem de
+ * mim. O lixo que a minha engine recolhe num tick vira um evento, para o
+ * meu espelho do outro lado recebê-lo no mesmo tick.
+ *
+ * A cada DIGEST_EVERY_PACKETS pacotes vai também um digest do estado num
+ * tick (EngineSnapshot.digest: tabuleiro, timers, animação e lixo pendente);
+ * se o espelho chegar nesse tick com outro valor, pede o estado completo
+ * (RESYNC/SNAPSHOT com o EngineSnapshot). Banda: ~15 pacotes/s de 10 a 20 bytes.
+ *
+ * Socket, HELLO/BYE e a janela de eventos não confirmados ficam no
+ * NetTransport, o mesmo da RollbackSession.
+ *
+ * Tudo roda na thread que chama step() (a EDT, pelo GameScheduler), uma vez
+ * por tick. Quem morreu primeiro é decidido pelo número do tick, igual nos
+ * dois lados: os dois chegam ao mesmo resultado sem precisar combinar.
+ */
+public class NetSession implements NetMatch {
+
+    public enum Phase { CONNECTING, PLAYING, FINISHED }
+    public enum Result { WON, LOST, DRAW, DISCONNECTED }
+
+    private static final int TPS = GameScheduler.TICKS_PER_SECOND;
+    private static final int SEND_EVERY_TICKS = 4;        // 15 pacotes/s
+    private static final int DIGEST_EVERY_PACKETS = 5;     // Um digest a cada 1/3 s
+    private static final int RESYNC_COOLDOWN_TICKS = TPS;  // No máximo um pedido de estado por segundo
+
+    private final NetTransport transport;
+    private final boolean host;
+    private long seed;
+
+    private final GameEngine local;
+    private final GameEngine mirror;
+    private final GarbageMailbox localInbox = new GarbageMailbox();
+    private final GarbageMailbox mirrorInbox = new GarbageMailbox();
+    private final GarbageMailbox sink = new GarbageMailbox(); // Ataques da minha engine (ver acima)
+
+    // Minha engine logo depois do último tick (digest e SNAPSHOT) e rascunho do espelho
+    private final EngineSnapshot localState = new EngineSnapshot();
+    private final EngineSnapshot mirrorState = new EngineSnapshot();
+
+    private Phase phase = Phase.CONNECTING;
+    private Result result;
+    private Runnable onFinished;
+
+    // --- Minha engine (os eventos não confirmados ficam no transport) ---
+    private int localTicks = 0;
+    private int inputPackets = 0;
+
+    // --- Espelho: eventos recebidos e digests a conferir ---
+    private int mirrorTicks = 0;
+    private int remoteFinalTag = -1;
+    private final ArrayDeque<NetProtocol.Event> remoteEvents = new ArrayDeque<>();
+    private final ArrayDeque<int[]> remoteDigests = new ArrayDeque<>(); // {tick, crc}
+    private int lastDigestTick = -1;
+
+    private int localDeathTick = -1;
+    private int mirrorDeathTick = -1;
+    private int connectTicks = 0;
+    private int resyncCooldown = 0;
+    private boolean snapshotRequested = false;
+    private int desyncs = 0;
+
+    private NetSession(NetLink link, boolean host, String nickname, long seed, GameEngine local, GameEngine mirror) {
+        this.transport = new NetTransport(link, nickname);
+        this.host = host;
+        this.seed = seed;
+        this.local = local;
+        this.mirror = mirror;
+        // Sem GameManager: a sessão decide o fim da partida, não a engine
+        local.setGarbageMailboxes(localInbox, sink);
+        mirror.setGarbageMailboxes(mirrorInbox, localInbox);
+    }
+
+    /** Quem cria a partida escolhe a semente e espera alguém entrar. */
+    public static NetSession host(NetLink link, String nickname, long seed, GameEngine local, GameEngine mirror) {
+        return new NetSession(link, true, nickname, seed, local, mirror);
+    }
+
+    /** Quem entra recebe a semente no HELLO do host. */
+    public static NetSession join(NetLink link, String nickname, GameEngine local, GameEngine mirror) {
+        return new NetSession(link, false, nickname, 0, local, mirror);
+    }
+
+    public void setOnFinished(Runnable onFinished) { this.onFinished = onFinished; }
+
+    // --- Entrada do jogador local ---
+
+    public void localInput(PlayerAction action) {
+        if (phase != Phase.PLAYING || local.isGameOver()) return;
+        action.applyTo(local);
+        transport.queueEvent(localTicks, (byte) action.ordinal(), 0);
+    }
+
+    /** Um tick: rede, minha engine, espelho, resultado. */
+    public void step() {
+        transport.receiveAll(this::handlePacket);
+        if (resyncCooldown > 0) resyncCooldown--;
+
+        if (phase == Phase.CONNECTING) {
+            if (++connectTicks > NetTransport.TIMEOUT_TICKS) {
+                finish(Result.DISCONNECTED);
+            } else if (!host && connectTicks % NetTransport.HELLO_RESEND_TICKS == 1) {
+                transport.sendHello(NetProtocol.VERSION, seed);
+            }
+            return;
+        }
+
+        int garbage = local.acceptIncomingGarbage();
+        if (garbage > 0) transport.queueEvent(localTicks, NetProtocol.CODE_GARBAGE, garbage);
+        local.tick();
+        localTicks++;
+        sink.clear();
+        // Antes do advanceMirror(): a caixa de entrada ainda não tem o lixo do próximo tick
+        local.saveSnapshot(localState);
+        if (localDeathTick < 0 && local.isGameOver()) localDeathTick = localTicks;
+
+        if (snapshotRequested) sendSnapshot();
+        advanceMirror();
+        decide();
+        if (localTicks % SEND_EVERY_TICKS == 0) sendInput();
+
+        if (transport.tickSilence() && phase == Phase.PLAYING) finish(Result.DISCONNECTED);
+    }
+
+    // --- Espelho ---
+
+    private void advanceMirror() {
+        while (mirrorTicks <= remoteFinalTag) {
+            NetProtocol.Event event;
+            while ((event = remoteEvents.peekFirst()) != null && event.tick <= mirrorTicks) {
+                remoteEvents.pollFirst();
+                if (event.tick < mirrorTicks) continue; // Ficou para trás de um SNAPSHOT
+                if (event.code == NetProtocol.CODE_GARBAGE) {
+                    mirrorInbox.post(event.lines);
+                    mirror.acceptIncomingGarbage();
+                } else {
+                    PlayerAction.fromCode(event.code).applyTo(mirror);
+                }
+            }
+            mirror.tick();
+            mirrorTicks++;
+            if (mirrorDeathTick < 0 && mirror.isGameOver()) mirrorDeathTick = mirrorTicks;
+            checkDigest();
+        }
+    }
+
+    private void checkDigest() {
+        int[] digest;
+        while ((digest = remoteDigests.peekFirst()) != null && digest[0] <= mirrorTicks) {
+            remoteDigests.pollFirst();
+            if (digest[0] != mirrorTicks) continue;
+            mirror.saveSnapshot(mirrorState);
+            if (digest[1] != mirrorState.digest()) {
+                desyncs++;
+                requestResync();
+            }
+        }
+    }
+
+    // Mesma regra nos dois lados: morreu no tick menor perdeu; no mesmo tick, empate
+    private void decide() {
+        if (phase != Phase.PLAYING) return;
+        if (mirrorDeathTick >= 0) {
+            if (localDeathTick < 0) {
+                if (localTicks >= mirrorDeathTick) finish(Result.WON);
+            } else {
+                finish(mirrorDeathTick < localDeathTick ? Result.WON
+                        : mirrorDeathTick == localDeathTick ? Result.DRAW : Result.LOST);
+            }
+        } else if (localDeathTick >= 0 && mirrorTicks >= localDeathTick) {
+            finish(Result.LOST); // O espelho passou vivo do tick em que eu morri
+        }
+    }
+
+    private void finish(Result result) {
+        if (phase == Phase.FINISHED) return;
+        this.result = result;
+        phase = Phase.FINISHED;
+        local.stopGame();
+        mirror.stopGame();
+        // Continua mandando INPUT até close(): o outro lado precisa dos últimos eventos para decidir
+        if (onFinished != null) onFinished.run();
+    }
+
+    private void startMatch() {
+        local.setSeed(seed * 2 + (host ? 0 : 1));
+        mirror.setSeed(seed * 2 + (host ? 1 : 0));
+        local.startGame();
+        mirror.startGame();
+        phase = Phase.PLAYING;
+    }
+
+    // --- Envio ---
+
+    private void sendInput() {
+        boolean digest = (++inputPackets % DIGEST_EVERY_PACKETS == 0);
+        ByteBuffer out = transport.begin(NetProtocol.INPUT).put((byte) (digest ? NetProtocol.FLAG_DIGEST : 0));
+        transport.putEvents(out, localTicks, remoteFinalTag);
+        if (digest) {
+            // Estado depois de localTicks ticks, antes de qualquer evento marcado com localTicks
+            NetProtocol.putVarInt(out, localTicks);
+            out.putInt(localState.digest());
+        }
+        transport.transmit();
+    }
+
+    private void requestResync() {
+        if (resyncCooldown > 0) return;
+        resyncCooldown = RESYNC_COOLDOWN_TICKS;
+        NetProtocol.putVarInt(transport.begin(NetProtocol.RESYNC), mirrorTicks);
+        transport.transmit();
+    }
+
+    // Chamado logo depois do tick: o estado vale para "localTicks ticks completos"
+    private void sendSnapshot() {
+        snapshotRequested = false;
+        ByteBuffer out = transport.begin(NetProtocol.SNAPSHOT);
+        NetProtocol.putVarInt(out, localTicks);
+        localState.writeTo(out);
+        transport.transmit();
+    }
+
+    // --- Recepção ---
+
+    private void handlePacket(byte type, ByteBuffer in) {
+        switch (type) {
+            case NetProtocol.HELLO: handleHello(in); break;
+            case NetProtocol.INPUT: if (phase != Phase.CONNECTING) handleInput(in); break;
+            case NetProtocol.RESYNC: if (phase != Phase.CONNECTING) snapshotRequested = true; break;
+            case NetProtocol.SNAPSHOT: if (phase != Phase.CONNECTING) handleSnapshot(in); break;
+            case NetProtocol.BYE: finish(Result.DISCONNECTED); break;
+            default: throw new IllegalArgumentException("Tipo de pacote desconhecido: " + type);
+        }
+    }
+
+    private void handleHello(ByteBuffer in) {
+        if (!transport.readHello(in, NetProtocol.VERSION)) {
+            finish(Result.DISCONNECTED);
+            return;
+        }
+        if (host) {
+            transport.sendHello(NetProtocol.VERSION, seed); // Responde sempre: a resposta anterior pode ter se perdido
+            if (phase == Phase.CONNECTING) startMatch();
+        } else if (phase == Phase.CONNECTING) {
+            seed = transport.getRemoteSeed();
+            startMatch();
+        }
+    }
+
+    private void handleInput(ByteBuffer in) {
+        int flags = in.get();
+        int finalTag = transport.readEvents(in, true);
+        int digestTick = -1, digestCrc = 0;
+        if ((flags & NetProtocol.FLAG_DIGEST) != 0) {
+            digestTick = NetProtocol.getVarInt(in);
+            digestCrc = in.getInt();
+        }
+
+        transport.acknowledge(transport.getReadAck());
+        if (finalTag > remoteFinalTag) { // Pacotes velhos ou repetidos não trazem nada novo
+            for (NetProtocol.Event event : transport.getReadEvents()) {
+                if (event.tick > remoteFinalTag) remoteEvents.addLast(event);
+            }
+            remoteFinalTag = finalTag;
+        }
+        if (digestTick > lastDigestTick && digestTick >= mirrorTicks) {
+            lastDigestTick = digestTick;
+            remoteDigests.addLast(new int[]{digestTick, digestCrc});
+        }
+    }
+
+    private void handleSnapshot(ByteBuffer in) {
+        int tick = NetProtocol.getVarInt(in);
+        mirrorState.readFrom(in); // Inválido: exceção antes de mexer no espelho
+        if (tick < mirrorTicks || phase != Phase.PLAYING) return; // Chegou atrasado: o espelho já passou daí
+        // Estado completo: timers, animação, fim de jogo e o lixo pendente na caixa do espelho
+        mirror.restoreSnapshot(mirrorState);
+        mirrorTicks = tick;
+        if (mirrorDeathTick < 0 && mirror.isGameOver()) mirrorDeathTick = mirrorTicks;
+        while (!remoteDigests.isEmpty() && remoteDigests.peekFirst()[0] < tick) remoteDigests.pollFirst();
+        // Eventos antes de 'tick' já estão no estado; advanceMirror() os descarta
+    }
+
+    // --- Consultas ---
+
+    public Phase getPhase() { return phase; }
+    public Result getResult() { return result; }
+    public boolean isHost() { return host; }
+    public String getRemoteNickname() { return transport.getRemoteNickname(); }
+    public GameEngine getLocalEngine() { return local; }
+    public GameEngine getMirrorEngine() { return mirror; }
+    public List<GameEngine> getEngines() { return List.of(local, mirror); }
+    public int getLocalTicks() { return localTicks; }
+    public int getMirrorTicks() { return mirrorTicks; }
+    public int getDesyncs() { return desyncs; }
+    public int getCorruptPackets() { return transport.getCorruptPackets(); }
+    public NetLink getLink() { return transport.getLink(); }
+
+    /** Payload enviado por segundo de jogo (sem cabeçalhos IP/UDP). */
+    public double getBytesSentPerSecond() {
+        return transport.getLink().getBytesSent() * (double) TPS / Math.max(1, localTicks);
+    }
+
+    /** Avisa o outro lado (se ainda estiver jogando) e fecha o socket. */
+    @Override
+    public void close() {
+        transport.close(phase != Phase.CONNECTING);
+        phase = Phase.FINISHED;
+    }
+}
@@ -0,0 +1,216 @@
+// Em NetTransport.java
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A parte de rede comum às duas partidas em rede (NetSession e
+ * RollbackSession): o socket, HELLO, BYE, o "ouvi alguém nos últimos N
+ * ticks" e a janela de eventos ainda não confirmados pelo outro lado.
+ *
+ * Eventos: cada pacote de entrada leva [finalTag+1][finalTag-base][ack+1][n]
+ * e os n eventos desde o último que o outro lado confirmou (ack). Perder
+ * pacotes só atrasa: o próximo repete tudo o que ainda não foi confirmado.
+ *
+ * Tudo na thread da sessão, como ela.
+ */
+final class NetTransport {
+
+    static final int TPS = GameScheduler.TICKS_PER_SECOND;
+    static final int HELLO_RESEND_TICKS = TPS / 4;
+    static final int TIMEOUT_TICKS = 10 * TPS;         // 10 s sem ouvir nada = caiu
+    static final int MAX_EVENTS_PER_PACKET = 200;      // ~800 bytes, abaixo de MAX_PACKET
+    private static final int MAX_NICKNAME_BYTES = 200;
+    private static final int BYE_REPEATS = 3;          // UDP: manda mais de uma vez
+
+    /** Trata um pacote já sem o tipo. Pacote inválido: BufferUnderflowException ou IllegalArgumentException. */
+    interface PacketHandler {
+        void handle(byte type, ByteBuffer in);
+    }
+
+    private final NetLink link;
+    private final String nickname;
+    private String remoteNickname = "Oponente";
+    private long remoteSeed;
+
+    private final ArrayDeque<NetProtocol.Event> unacked = new ArrayDeque<>();
+    private int ackedByRemote = -1;
+
+    // Último pacote de eventos lido (readEvents), ainda sem efeito nenhum
+    private final List<NetProtocol.Event> readEvents = new ArrayList<>();
+    private int readAck;
+
+    private int ticksSinceHeard = 0;
+    private int corruptPackets = 0;
+
+    private final ByteBuffer out = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+    private final ByteBuffer in = ByteBuffer.allocate(NetProtocol.MAX_PACKET);
+
+    NetTransport(NetLink link, String nickname) {
+        this.link = link;
+        this.nickname = nickname;
+    }
+
+    // --- Envio ---
+
+    /** Buffer de saída limpo, já com o tipo; depois de escrever, transmit(). */
+    ByteBuffer begin(byte type) {
+        out.clear();
+        return out.put(type);
+    }
+
+    void transmit() {
+        out.flip();
+        try {
+            link.send(out);
+        } catch (IOException e) {
+            System.err.println("Erro ao enviar pacote: " + e.getMessage());
+        }
+    }
+
+    void sendHello(byte version, long seed) {
+        begin(NetProtocol.HELLO).put(version).putLong(seed);
+        NetProtocol.putString(out, nickname);
+        transmit();
+    }
+
+    /** Evento local, repetido em todo pacote até o outro lado confirmar. */
+    void queueEvent(int tick, byte code, int lines) {
+        unacked.addLast(new NetProtocol.Event(tick, code, lines));
+    }
+
+    /**
+     * [finalTag+1][finalTag-base][ack+1][n] + eventos. 'localTicks' ticks já
+     * completos; 'remoteFinalTag' = até onde recebi os eventos do outro lado.
+     */
+    void putEvents(ByteBuffer out, int localTicks, int remoteFinalTag) {
+        int finalTag = localTicks - 1;
+        int count = 0;
+        for (NetProtocol.Event event : unacked) {
+            if (count == MAX_EVENTS_PER_PACKET) {
+                finalTag = event.tick - 1; // Muitos eventos pendentes: manda até o tick anterior
+                break;
+            }
+            count++;
+        }
+        if (finalTag < localTicks - 1) {
+            count = 0;
+            for (NetProtocol.Event event : unacked) {
+                if (event.tick > finalTag) break;
+                count++;
+            }
+        }
+
+        NetProtocol.putVarInt(out, finalTag + 1);
+        NetProtocol.putVarInt(out, finalTag - ackedByRemote);
+        NetProtocol.putVarInt(out, remoteFinalTag + 1);
+        NetProtocol.putVarInt(out, count);
+        int previous = ackedByRemote + 1;
+        Iterator<NetProtocol.Event> it = unacked.iterator();
+        for (int i = 0; i < count; i++) {
+            NetProtocol.Event event = it.next();
+            NetProtocol.putVarInt(out, event.tick - previous);
+            previous = event.tick;
+            out.put(event.code);
+            if (event.code == NetProtocol.CODE_GARBAGE) NetProtocol.putVarInt(out, event.lines);
+        }
+    }
+
+    // --- Recepção ---
+
+    void receiveAll(PacketHandler handler) {
+        try {
+            while (link.poll(in)) {
+                ticksSinceHeard = 0;
+                try {
+                    handler.handle(in.get(), in);
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    corruptPackets++; // Pacote truncado ou inválido: descarta
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao receber pacote: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê um HELLO: guarda o apelido e a semente do outro lado. Versão
+     * diferente (outro modo de rede ou outra versão do jogo): avisa e retorna false.
+     */
+    boolean readHello(ByteBuffer in, byte expectedVersion) {
+        byte version = in.get();
+        long seed = in.getLong();
+        String name = NetProtocol.getString(in, MAX_NICKNAME_BYTES);
+        if (version != expectedVersion) {
+            System.err.println("Versão de protocolo diferente do oponente: " + version + " (esta é " + expectedVersion + ")");
+            return false;
+        }
+        if (!name.isEmpty()) remoteNickname = name;
+        remoteSeed = seed;
+        return true;
+    }
+
+    /**
+     * Lê os eventos de um pacote para getReadEvents() e retorna o finalTag,
+     * SEM mexer em nada: pacote truncado não deixa estado pela metade. Depois
+     * de validar o resto, a sessão chama acknowledge(getReadAck()).
+     * 'garbage' = o modo aceita eventos de lixo (com o número de linhas).
+     */
+    int readEvents(ByteBuffer in, boolean garbage) {
+        int finalTag = NetProtocol.getVarInt(in) - 1;
+        int base = finalTag - NetProtocol.getVarInt(in);
+        readAck = NetProtocol.getVarInt(in) - 1;
+        int count = NetProtocol.getVarInt(in);
+        if (count > MAX_EVENTS_PER_PACKET) throw new IllegalArgumentException("Eventos demais");
+
+        readEvents.clear();
+        int tick = base + 1;
+        for (int i = 0; i < count; i++) {
+            tick += NetProtocol.getVarInt(in);
+            byte code = in.get();
+            int lines = 0;
+            if (garbage && code == NetProtocol.CODE_GARBAGE) lines = NetProtocol.getVarInt(in);
+            else if (PlayerAction.fromCode(code) == null) throw new IllegalArgumentException("Evento inválido: " + code);
+            if (tick > finalTag) throw new IllegalArgumentException("Evento depois do finalTag");
+            readEvents.add(new NetProtocol.Event(tick, code, lines));
+        }
+        return finalTag;
+    }
+
+    List<NetProtocol.Event> getReadEvents() { return readEvents; }
+    int getReadAck() { return readAck; }
+
+    /** O outro lado já tem meus eventos até 'ack': param de ser repetidos. */
+    void acknowledge(int ack) {
+        if (ack <= ackedByRemote) return;
+        ackedByRemote = ack;
+        while (!unacked.isEmpty() && unacked.peekFirst().tick <= ack) unacked.pollFirst();
+    }
+
+    // --- Estado da conexão ---
+
+    /** Um tick sem pacote; true quando passou do limite de silêncio. */
+    boolean tickSilence() {
+        return ++ticksSinceHeard > TIMEOUT_TICKS;
+    }
+
+    String getRemoteNickname() { return remoteNickname; }
+    long getRemoteSeed() { return remoteSeed; }
+    int getCorruptPackets() { return corruptPackets; }
+    NetLink getLink() { return link; }
+
+    /** Avisa o outro lado (BYE, se já houve contato) e fecha o socket. */
+    void close(boolean connected) {
+        if (connected || link.hasPeer()) {
+            for (int i = 0; i < BYE_REPEATS; i++) {
+                begin(NetProtocol.BYE);
+                transmit();
+            }
+        }
+        link.close();
+    }
+}
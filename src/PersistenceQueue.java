@@ -0,0 +1,376 @@
+// Em PersistenceQueue.java
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fila "write-behind": o jogo enfileira as escritas (pontuação, vitória,
+ * salvar/deletar jogo) e volta na hora; uma thread de fundo grava em lotes,
+ * cada lote em UMA transação.
+ *
+ * Se o banco estiver fora do ar, o lote vai para um arquivo de journal local
+ * (uma linha por escrita) e a thread tenta de novo com backoff exponencial.
+ * Quando o banco volta, o journal é reaplicado em ordem e apagado.
+ */
+public class PersistenceQueue {
+
+    public enum WriteType { ADD_SCORE, ADD_WIN, SAVE_GAME, DELETE_SAVE }
+
+    /** Uma escrita pendente. 'key' é o nickname ou o nome do save. */
+    public static class PendingWrite {
+        public final WriteType type;
+        public final String key;
+        public final int value;
+        public final String payload;
+
+        public PendingWrite(WriteType type, String key, int value, String payload) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            this.payload = payload;
+        }
+
+        String toJournalLine() {
+            return type.name() + "\t" + encode(key) + "\t" + value + "\t" + encode(payload);
+        }
+
+        static PendingWrite fromJournalLine(String line) {
+            String[] parts = line.split("\t", -1);
+            return new PendingWrite(WriteType.valueOf(parts[0]), decode(parts[1]),
+                    Integer.parseInt(parts[2]), decode(parts[3]));
+        }
+
+        private static String encode(String s) {
+            return (s == null) ? "" : Base64.getEncoder().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static String decode(String s) {
+            return s.isEmpty() ? null : new String(Base64.getDecoder().decode(s), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final String JOURNAL_FILE = "pending_writes.journal";
+    private static final int MAX_BATCH = 100;
+    private static final long BATCH_WINDOW_MS = 50;
+    private static final long MIN_BACKOFF_MS = 250;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long EXIT_COMMIT_WAIT_MS = 5_000; // Ao fechar: espera o commit em andamento
+
+    // Marcador de "save deletado mas ainda não gravado" no mapa de leitura
+    private static final String DELETED = new String("<deleted>");
+
+    private final GameStore gameStore;
+    private final File journal;
+    private final LinkedBlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Lote que saiu da fila e ainda não está no banco nem no journal. 'committing' = o
+    // writeBatch está rodando: o JDBC ignora interrupt, então ao fechar esperamos ele
+    // terminar em vez de jogar o lote no journal (seria gravado duas vezes).
+    private final Object commitLock = new Object();
+    private List<PendingWrite> inFlight;
+    private boolean committing = false;
+
+    // Leitura das próprias escritas: saves ainda não gravados no banco
+    private final Map<String, String> pendingSaves = new ConcurrentHashMap<>();
+
+    // Avisados (na thread de escrita) depois de cada commit bem-sucedido
+    private final List<Consumer<List<PendingWrite>>> commitListeners = new CopyOnWriteArrayList<>();
+
+    public PersistenceQueue(GameStore gameStore) {
+        this(gameStore, new File(JOURNAL_FILE));
+    }
+
+    public PersistenceQueue(GameStore gameStore, File journal) {
+        this.gameStore = gameStore;
+        this.journal = journal;
+        this.writer = new Thread(this::writerLoop, "tetris-db-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        // Ao fechar o jogo, o que ainda estiver na memória vai para o journal
+        Runtime.getRuntime().addShutdownHook(new Thread(this::spillOnExit, "tetris-db-writer-exit"));
+    }
+
+    // --- API usada pelo GameManager (nunca bloqueia) ---
+
+    public void addHighScore(String nickname, int score) {
+        enqueue(new PendingWrite(WriteType.ADD_SCORE, nickname, score, null));
+    }
+
+    public void addWin(String nickname) {
+        enqueue(new PendingWrite(WriteType.ADD_WIN, nickname, 1, null));
+    }
+
+    public void saveGame(String saveName, String stateData) {
+        pendingSaves.put(saveName, stateData);
+        enqueue(new PendingWrite(WriteType.SAVE_GAME, saveName, 0, stateData));
+    }
+
+    public void deleteSaveGame(String saveName) {
+        if (saveName == null || saveName.isEmpty()) return;
+        pendingSaves.put(saveName, DELETED);
+        enqueue(new PendingWrite(WriteType.DELETE_SAVE, saveName, 0, null));
+    }
+
+    private void enqueue(PendingWrite write) {
+        queue.offer(write);
+    }
+
+    /** Estado de um save ainda não gravado: conteúdo, "" se foi deletado, ou null se não há nada pendente. */
+    public String getPendingSave(String saveName) {
+        String data = pendingSaves.get(saveName);
+        if (data == null) return null;
+        return (data == DELETED) ? "" : data;
+    }
+
+    /** Ajusta a lista de saves vinda do banco com os saves/deleções ainda pendentes (mais recente primeiro). */
+    public List<SaveInfo> mergePendingSaveInfos(List<SaveInfo> fromStore) {
+        Map<String, SaveInfo> merged = new LinkedHashMap<>();
+        for (SaveInfo info : fromStore) merged.put(info.getName(), info);
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, String> e : pendingSaves.entrySet()) {
+            if (e.getValue() == DELETED) merged.remove(e.getKey());
+            else merged.put(e.getKey(), SaveInfo.fromText(e.getKey(), e.getValue(), now));
+        }
+        List<SaveInfo> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparingLong(SaveInfo::getUpdatedAtMillis).reversed());
+        return result;
+    }
+
+    public void addCommitListener(Consumer<List<PendingWrite>> listener) {
+        commitListeners.add(listener);
+    }
+
+    public int getQueuedCount() { return queue.size(); }
+    public boolean hasJournal() { return journal.length() > 0; }
+
+    // --- Thread de escrita ---
+
+    private void writerLoop() {
+        long backoff = MIN_BACKOFF_MS;
+        List<PendingWrite> batch = new ArrayList<>(); // Só fica vazio depois de gravado no banco ou no journal
+        boolean failed = false;
+        while (running) {
+            try {
+                if (failed) {
+                    failed = false;
+                    Thread.sleep(backoff);
+                    backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+                }
+
+                // 1. Journal primeiro: ele tem as escritas mais antigas
+                if (batch.isEmpty() && hasJournal()) {
+                    if (replayJournal()) {
+                        backoff = MIN_BACKOFF_MS;
+                    } else {
+                        spillQueueToJournal();
+                        failed = true;
+                    }
+                    continue;
+                }
+
+                if (batch.isEmpty()) {
+                    // 2. Junta um lote: espera a primeira escrita e mais um pouco pelas seguintes.
+                    // Desde o poll o lote é 'inFlight': se o jogo fechar na janela, vai para o journal
+                    PendingWrite first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    synchronized (commitLock) {
+                        inFlight = batch;
+                    }
+                    Thread.sleep(BATCH_WINDOW_MS);
+                    synchronized (commitLock) {
+                        if (!running) return; // spillOnExit já guardou o lote
+                        queue.drainTo(batch, MAX_BATCH - 1);
+                        committing = true;
+                    }
+                } else {
+                    // Lote que nem o banco nem o journal aceitaram: tenta de novo, do mesmo jeito
+                    synchronized (commitLock) {
+                        if (!running) return; // spillOnExit já guardou o lote
+                        committing = true;
+                    }
+                }
+
+                try {
+                    gameStore.writeBatch(batch);
+                    committed(batch);
+                    batch = new ArrayList<>();
+                    backoff = MIN_BACKOFF_MS;
+                } catch (GameStoreException e) {
+                    System.err.println("Armazenamento indisponível, gravando no journal: " + e.getMessage());
+                    failed = true;
+                    appendToJournal(batch); // vai ser reaplicado no passo 1
+                    batch = new ArrayList<>();
+                } finally {
+                    endCommit(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // O lote (se houver) continua em 'batch' e em 'inFlight': nada se perde
+                System.err.println("Erro no journal de escritas: " + e.getMessage());
+                failed = true;
+            }
+        }
+    }
+
+    private void endCommit() {
+        endCommit(List.of());
+    }
+
+    // 'pending' vazio = o lote está no banco ou no journal; senão continua em voo até a próxima tentativa
+    private void endCommit(List<PendingWrite> pending) {
+        synchronized (commitLock) {
+            inFlight = pending.isEmpty() ? null : pending;
+            committing = false;
+            commitLock.notifyAll();
+        }
+    }
+
+    // Lote a lote: cada lote gravado sai do journal na hora, então uma falha no
+    // lote seguinte (ou um crash) não faz os anteriores serem gravados de novo
+    private boolean replayJournal() throws IOException {
+        List<PendingWrite> writes = readJournal();
+        for (int i = 0; i < writes.size(); i += MAX_BATCH) {
+            List<PendingWrite> chunk = writes.subList(i, Math.min(writes.size(), i + MAX_BATCH));
+            synchronized (commitLock) {
+                if (!running) return false;
+                committing = true;
+            }
+            try {
+                gameStore.writeBatch(chunk);
+                dropJournalHead(chunk.size());
+            } catch (GameStoreException e) {
+                return false;
+            } finally {
+                endCommit();
+            }
+            committed(chunk);
+        }
+        System.out.println("Journal reaplicado: " + writes.size() + " escrita(s).");
+        return true;
+    }
+
+    // Tira as 'count' primeiras escritas do journal (as novas só entram no fim, com o mesmo lock)
+    private synchronized void dropJournalHead(int count) throws IOException {
+        List<PendingWrite> rest = readJournal();
+        rest = rest.subList(Math.min(count, rest.size()), rest.size());
+        if (rest.isEmpty()) {
+            if (!journal.delete() && journal.exists()) throw new IOException("Não foi possível apagar " + journal);
+            return;
+        }
+        File temp = new File(journal.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             Writer out = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+            for (PendingWrite w : rest) {
+                out.write(w.toJournalLine());
+                out.write('\n');
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temp.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void committed(List<PendingWrite> writes) {
+        for (PendingWrite w : writes) {
+            if (w.type == WriteType.SAVE_GAME) {
+                pendingSaves.remove(w.key, w.payload);
+            } else if (w.type == WriteType.DELETE_SAVE) {
+                pendingSaves.remove(w.key, DELETED);
+            }
+        }
+        for (Consumer<List<PendingWrite>> listener : commitListeners) {
+            try {
+                listener.accept(writes);
+            } catch (RuntimeException e) {
+                System.err.println("Erro em um listener de commit: " + e.getMessage());
+            }
+        }
+    }
+
+    private void spillQueueToJournal() throws IOException {
+        List<PendingWrite> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        if (!pending.isEmpty()) appendToJournal(pending);
+    }
+
+    private synchronized void appendToJournal(List<PendingWrite> writes) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(journal, true);
+             Writer out = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+            for (PendingWrite w : writes) {
+                out.write(w.toJournalLine());
+                out.write('\n');
+            }
+            out.flush();
+            fos.getFD().sync(); // Só consideramos "guardado" depois do fsync
+        }
+    }
+
+    private synchronized List<PendingWrite> readJournal() throws IOException {
+        List<PendingWrite> writes = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(journal, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    writes.add(PendingWrite.fromJournalLine(line));
+                } catch (RuntimeException e) {
+                    // Última linha cortada por um crash no meio da escrita: ignora
+                    System.err.println("Linha inválida no journal ignorada.");
+                }
+            }
+        }
+        return writes;
+    }
+
+    private void spillOnExit() {
+        List<PendingWrite> unfinished;
+        synchronized (commitLock) {
+            running = false;
+            // Um commit em andamento termina sozinho (ou falha e vai para o journal pelo writer)
+            long deadline = System.currentTimeMillis() + EXIT_COMMIT_WAIT_MS;
+            long left;
+            while (committing && (left = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    commitLock.wait(left);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            if (committing) {
+                // Banco travado: na saída a conexão cai e a transação é desfeita, então guardamos o lote
+                System.err.println("Commit não terminou a tempo; o lote vai para o journal.");
+            }
+            writer.interrupt();
+            unfinished = inFlight;
+            inFlight = null;
+        }
+        try {
+            if (unfinished != null) appendToJournal(new ArrayList<>(unfinished));
+            spillQueueToJournal();
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar escritas pendentes: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+// Em PlayerAction.java
+
+/**
+ * Uma ação do jogador sobre a engine. É o que a rede transmite (1 byte) e o
+ * que é gravado/reproduzido tick a tick, em vez de códigos de tecla.
+ */
+public enum PlayerAction {
+    LEFT, RIGHT, SOFT_DROP, ROTATE, HARD_DROP, HOLD;
+
+    private static final PlayerAction[] VALUES = values();
+
+    public void applyTo(GameEngine engine) {
+        switch (this) {
+            case LEFT: engine.moveLeft(); break;
+            case RIGHT: engine.moveRight(); break;
+            case SOFT_DROP: engine.moveDown(); break;
+            case ROTATE: engine.rotate(); break;
+            case HARD_DROP: engine.hardDrop(); break;
+            case HOLD: engine.holdPiece(); break;
+        }
+    }
+
+    public static PlayerAction fromCode(int code) {
+        return (code >= 0 && code < VALUES.length) ? VALUES[code] : null;
+    }
+
+    /** Teclas de um jogador: setas + espaço + C, ou WASD + Q + E. null = tecla sem ação. */
+    public static PlayerAction fromKey(int keyCode) {
+        switch (keyCode) {
+            case 37: case 65: return LEFT;       // Seta esquerda / A
+            case 39: case 68: return RIGHT;      // Seta direita / D
+            case 40: case 83: return SOFT_DROP;  // Seta baixo / S
+            case 38: case 87: return ROTATE;     // Seta cima / W
+            case 32: case 81: return HARD_DROP;  // Espaço / Q
+            case 67: case 69: return HOLD;       // C / E
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+// Em PlayerController.java
+
+/**
+ * Quem ocupa um lugar numa partida de N jogadores: teclado, bot ou um
+ * jogador remoto. A partida chama act() uma vez por tick, antes do tick() da
+ * engine, na thread que avança a partida; é ali que as jogadas entram.
+ */
+public interface PlayerController {
+    void act(GameEngine engine);
+}
@@ -0,0 +1,37 @@
+// Em ReplayRecorder.java
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grava a sequência de BoardSnapshots de uma partida (um frame por tick da
+ * engine). A gravação pode depois ser exportada pelo FrameExporter.
+ */
+public class ReplayRecorder {
+
+    private final List<BoardSnapshot> frames = new ArrayList<>();
+    private final int maxFrames;
+    private final BoardSnapshot scratch = new BoardSnapshot();
+
+    public ReplayRecorder() {
+        this(60 * 60 * 10); // 10 minutos a 60 frames/s
+    }
+
+    public ReplayRecorder(int maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    public synchronized void record(GameEngine engine) {
+        if (frames.size() >= maxFrames) return;
+        engine.snapshotInto(scratch);
+        frames.add(scratch.copy());
+    }
+
+    public synchronized List<BoardSnapshot> getFrames() {
+        return Collections.unmodifiableList(new ArrayList<>(frames));
+    }
+
+    public synchronized int getFrameCount() { return frames.size(); }
+
+    public synchronized void clear() { frames.clear(); }
+}
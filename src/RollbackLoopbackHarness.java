@@ -0,0 +1,146 @@
+// Em RollbackLoopbackHarness.java
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste do rollback sem interface: duas RollbackSession (host e cliente) em
+ * 127.0.0.1, cada uma com um SimpleBot, numa só thread e em tempo real, com
+ * latência, jitter e perda simulados pelo NetLink.
+ *
+ *   java -Djava.awt.headless=true -cp "out:lib/*" RollbackLoopbackHarness [segundos] [latência ms] [jitter ms] [perda 0..1] [semente]
+ *
+ * Mostra quantos rollbacks houve, quantos ticks foram re-simulados, o custo
+ * de um snapshot, o tempo do pior frame e se os dois lados terminaram com o
+ * mesmo estado confirmado e o mesmo resultado.
+ */
+public class RollbackLoopbackHarness {
+
+    private static final int BOT_TICKS_PER_PIECE = 8;
+    private static final int LINGER_TICKS = 2 * GameScheduler.TICKS_PER_SECOND;
+    private static final int SNAPSHOT_ROUNDS = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        int seconds = (args.length > 0) ? Integer.parseInt(args[0]) : 60;
+        NetLink.Conditions defaults = NetLink.Conditions.fromSystemProperties();
+        NetLink.Conditions conditions = new NetLink.Conditions(
+                (args.length > 1) ? Integer.parseInt(args[1]) : defaults.latencyMs,
+                (args.length > 2) ? Integer.parseInt(args[2]) : defaults.jitterMs,
+                (args.length > 3) ? Double.parseDouble(args[3]) : defaults.lossRate);
+        long seed = (args.length > 4) ? Long.parseLong(args[4]) : 1L;
+
+        benchmarkSnapshots(seed);
+
+        NetLink hostLink = NetLink.listen(0, conditions);
+        NetLink clientLink = NetLink.connect("127.0.0.1", hostLink.getLocalPort(), conditions);
+        RollbackSession hostSession = RollbackSession.host(hostLink, "Host", seed, new GameEngine(), new GameEngine());
+        RollbackSession clientSession = RollbackSession.join(clientLink, "Cliente", new GameEngine(), new GameEngine());
+        SimpleBot hostBot = new SimpleBot(BOT_TICKS_PER_PIECE);
+        SimpleBot clientBot = new SimpleBot(BOT_TICKS_PER_PIECE);
+
+        System.out.printf("Loopback com rollback: %s, até %d s, semente %d%n", conditions, seconds, seed);
+        long maxTicks = (long) seconds * GameScheduler.TICKS_PER_SECOND;
+        long next = System.nanoTime();
+        long worstFrame = 0;
+        int linger = -1;
+        for (long tick = 0; tick < maxTicks; tick++) {
+            long frameStart = System.nanoTime();
+            act(hostBot, hostSession);
+            act(clientBot, clientSession);
+            hostSession.step();
+            clientSession.step();
+            worstFrame = Math.max(worstFrame, System.nanoTime() - frameStart);
+
+            boolean bothDone = hostSession.getPhase() == NetSession.Phase.FINISHED
+                    && clientSession.getPhase() == NetSession.Phase.FINISHED;
+            if (bothDone && linger < 0) linger = LINGER_TICKS;
+            if (linger >= 0 && linger-- == 0) break;
+
+            next += GameScheduler.TICK_NANOS; // Tempo real: a latência simulada usa System.nanoTime()
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+
+        report("Host", hostSession);
+        report("Cliente", clientSession);
+        System.out.printf("Pior frame (os dois lados, com rollback): %.2f ms de %.2f ms%n",
+                worstFrame / 1e6, GameScheduler.TICK_NANOS / 1e6);
+
+        // Mesmo tick confirmado nos dois lados = mesmo estado (se ainda estiver no anel dos dois)
+        int common = Math.min(hostSession.getConfirmedTicks(), clientSession.getConfirmedTicks());
+        int oldest = Math.max(hostSession.getLocalTicks(), clientSession.getLocalTicks()) - RollbackSession.RING_TICKS + 1;
+        if (common >= oldest) {
+            boolean same = hostSession.digestAt(common) == clientSession.digestAt(common);
+            System.out.println(same ? "Estado confirmado idêntico no tick " + common + "."
+                    : "ATENÇÃO: estados diferentes no tick " + common + "!");
+        }
+        NetSession.Result h = hostSession.getResult(), c = clientSession.getResult();
+        boolean agree = (h == null && c == null)
+                || (h == NetSession.Result.WON && c == NetSession.Result.LOST)
+                || (h == NetSession.Result.LOST && c == NetSession.Result.WON)
+                || (h == NetSession.Result.DRAW && c == NetSession.Result.DRAW);
+        System.out.println(agree ? "Resultados concordam." : "ATENÇÃO: resultados diferentes nos dois lados!");
+
+        hostSession.close();
+        clientSession.close();
+    }
+
+    private static void act(SimpleBot bot, RollbackSession session) {
+        if (session.getPhase() == NetSession.Phase.PLAYING) bot.act(session.getLocalEngine(), session::localInput);
+    }
+
+    private static void report(String name, RollbackSession session) {
+        NetLink link = session.getLink();
+        GameEngine local = session.getLocalEngine();
+        System.out.printf("%-8s %s | pontos %d, linhas %d | ticks %d (confirmados %d)%n", name,
+                (session.getResult() != null) ? session.getResult() : "sem resultado no tempo limite",
+                local.getScore(), local.getLinesCleared(), session.getLocalTicks(), session.getConfirmedTicks());
+        int rollbacks = session.getRollbacks();
+        System.out.printf("         %d rollbacks, %d ticks re-simulados (máx %d de uma vez), %.0f µs em média, máx %.0f µs%n",
+                rollbacks, session.getResimulatedTicks(), session.getMaxRollbackTicks(),
+                (rollbacks > 0) ? session.getRollbackNanos() / 1e3 / rollbacks : 0.0, session.getMaxRollbackNanos() / 1e3);
+        System.out.printf("         %d ticks esperando, %d pulos de sincronia | %.0f bytes/s, %d pacotes (%d perdidos) | %d dessincronias, %d resyncs%n",
+                session.getStallTicks(), session.getSyncSkips(), session.getBytesSentPerSecond(),
+                link.getPacketsSent(), link.getPacketsDropped(), session.getDesyncs(), session.getResyncs());
+    }
+
+    // Custo de salvar e restaurar uma engine no meio de uma partida (com peças no tabuleiro e lixo pendente)
+    private static void benchmarkSnapshots(long seed) {
+        GarbageMailbox inbox = new GarbageMailbox();
+        GameEngine engine = new GameEngine();
+        engine.setGarbageMailboxes(inbox, new GarbageMailbox());
+        engine.setSeed(seed);
+        engine.startGame();
+        SimpleBot bot = new SimpleBot(BOT_TICKS_PER_PIECE);
+        for (int i = 0; i < 600 && !engine.isGameOver(); i++) {
+            bot.act(engine);
+            engine.tick();
+        }
+        inbox.post(2);
+        engine.acceptIncomingGarbage();
+
+        EngineSnapshot snapshot = new EngineSnapshot();
+        int checksum = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < SNAPSHOT_ROUNDS; i++) engine.saveSnapshot(snapshot);
+            long saved = System.nanoTime();
+            for (int i = 0; i < SNAPSHOT_ROUNDS; i++) engine.restoreSnapshot(snapshot);
+            long restored = System.nanoTime();
+            checksum += snapshot.digest();
+            if (warmup == 1) {
+                System.out.printf("Snapshot da engine: salvar %.0f ns, restaurar %.0f ns (SaveCodec, para comparar: %.0f ns)%n",
+                        (saved - start) / (double) SNAPSHOT_ROUNDS, (restored - saved) / (double) SNAPSHOT_ROUNDS,
+                        saveCodecNanos(engine));
+            }
+        }
+        if (checksum == 42) System.out.println(); // Impede o JIT de descartar o laço
+    }
+
+    private static double saveCodecNanos(GameEngine engine) {
+        int rounds = SNAPSHOT_ROUNDS / 20;
+        long start = System.nanoTime();
+        int size = 0;
+        for (int i = 0; i < rounds; i++) size += SaveCodec.encode(engine.captureState()).length;
+        return (System.nanoTime() - start) / (double) rounds + (size == 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,488 @@
+// Em RollbackSession.java
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partida versus em rede com rollback (a alternativa ao NetSession).
+ *
+ * Os dois lados simulam as DUAS engines com o mesmo passo determinístico
+ * (simulate(): ações, tick, e o lixo na fronteira para o tick seguinte).
+ * As minhas ações entram na hora. As do outro ainda estão a caminho, então
+ * são PREVISTAS como "nenhuma ação": em Tetris cada ação é um toque, e
+ * repetir a última moveria a peça de novo. Quando as ações reais chegam e
+ * havia alguma num tick já simulado, a sessão volta ao EngineSnapshot
+ * daquele tick e re-simula até o presente no mesmo step(). O jogador vê a
+ * correção, nunca a espera.
+ *
+ * - Anel de snapshots: um por tick (RING_TICKS), reutilizados, sem alocar.
+ * - A previsão vai no máximo MAX_PREDICTION_TICKS à frente do que chegou;
+ *   passando disso este lado espera (stall). Assim o rollback nunca precisa
+ *   de um snapshot que já saiu do anel.
+ * - Relógio: quem começou antes fica sempre à frente. Cada RB_INPUT leva a
+ *   vantagem de quem mandou, e o lado mais adiantado pula um tick de vez em
+ *   quando até as duas vantagens ficarem iguais.
+ * - Resultado e digest usam só ticks CONFIRMADOS (com as ações dos dois).
+ *   Quem morreu primeiro é decidido pelo número do tick, igual nos dois lados.
+ * - Digest diferente: quem entrou pede o estado ao host (RESYNC), que manda
+ *   as duas engines no seu último tick confirmado (SNAPSHOT); quem entrou põe
+ *   esse estado no anel e re-simula dali como num rollback. Se continuar
+ *   divergindo depois de MAX_RESYNCS pedidos, a partida acaba (DISCONNECTED).
+ *
+ * Socket, HELLO/BYE e a janela de ações não confirmadas ficam no
+ * NetTransport, o mesmo do NetSession.
+ */
+public class RollbackSession implements NetMatch {
+
+    private static final int TPS = GameScheduler.TICKS_PER_SECOND;
+    static final int RING_TICKS = 128;                    // Potência de 2: índice = tick & RING_MASK
+    private static final int RING_MASK = RING_TICKS - 1;
+    static final int MAX_PREDICTION_TICKS = 30;           // Meio segundo; o anel cobre 2x isso com folga
+    private static final int MAX_ACTIONS_PER_TICK = 16;    // O SimpleBot usa até 13 (giros, passos, queda)
+    private static final int SEND_EVERY_TICKS = 2;        // 30 pacotes/s: quanto antes chega, menor o rollback
+    private static final int DIGEST_EVERY_PACKETS = 30;   // Um digest por segundo
+    private static final int TIME_SYNC_EVERY_TICKS = 20;  // No máximo 3 pulos de tick por segundo
+    private static final int RESYNC_COOLDOWN_TICKS = TPS;  // No máximo um pedido de estado por segundo
+    private static final int MAX_RESYNCS = 5;             // Divergiu de novo depois disso: desiste
+
+    private final NetTransport transport;
+    private final boolean host;
+    private long seed;
+
+    // [0] = host, [1] = quem entrou: a mesma ordem nos dois lados
+    private final GameEngine[] engines = new GameEngine[2];
+    private final GarbageMailbox[] inboxes = { new GarbageMailbox(), new GarbageMailbox() };
+    private final int localIndex, remoteIndex;
+
+    private final EngineSnapshot[][] ring = new EngineSnapshot[RING_TICKS][2]; // Estado depois de N ticks
+    private final byte[][][] inputs = new byte[2][RING_TICKS][MAX_ACTIONS_PER_TICK];
+    private final int[][] inputCounts = new int[2][RING_TICKS];
+    private final List<PlayerAction> pendingLocal = new ArrayList<>(); // Desde o último tick (já aplicadas)
+
+    private NetSession.Phase phase = NetSession.Phase.CONNECTING;
+    private NetSession.Result result;
+    private Runnable onFinished;
+
+    private int localTicks = 0;     // O presente (previsto)
+    private int confirmedTicks = 0; // Até aqui, com as ações reais dos dois
+    private int frames = 0;         // Chamadas de step() jogando (com ou sem tick)
+    private int rollbackFrom = Integer.MAX_VALUE;
+
+    private int inputPackets = 0;
+
+    // --- Do outro lado ---
+    private int remoteFinalTag = -1;
+    private int remoteAdvantage = 0;
+    private final ArrayDeque<int[]> remoteDigests = new ArrayDeque<>(); // {tick, digest}
+    private int lastDigestTick = -1;
+    private final int[] deathTicks = { -1, -1 };
+
+    private int connectTicks = 0;
+
+    // --- Resync: quem entrou pede, o host responde ---
+    private final EngineSnapshot[] resyncState = { new EngineSnapshot(), new EngineSnapshot() };
+    private int resyncCooldown = 0;
+    private int resyncs = 0;
+    private boolean snapshotRequested = false;
+
+    // Estatísticas (RollbackLoopbackHarness)
+    private int desyncs = 0;
+    private int rollbacks = 0;
+    private long resimulatedTicks = 0;
+    private int maxRollbackTicks = 0;
+    private int stallTicks = 0;
+    private int syncSkips = 0;
+    private long rollbackNanos = 0;
+    private long maxRollbackNanos = 0;
+
+    private RollbackSession(NetLink link, boolean host, String nickname, long seed, GameEngine local, GameEngine remote) {
+        this.transport = new NetTransport(link, nickname);
+        this.host = host;
+        this.seed = seed;
+        this.localIndex = host ? 0 : 1;
+        this.remoteIndex = 1 - localIndex;
+        engines[localIndex] = local;
+        engines[remoteIndex] = remote;
+        // Cada uma ataca a caixa da outra; a sessão decide o fim da partida
+        engines[0].setGarbageMailboxes(inboxes[0], inboxes[1]);
+        engines[1].setGarbageMailboxes(inboxes[1], inboxes[0]);
+        for (EngineSnapshot[] pair : ring) {
+            pair[0] = new EngineSnapshot();
+            pair[1] = new EngineSnapshot();
+        }
+    }
+
+    /** Quem cria a partida escolhe a semente e espera alguém entrar. */
+    public static RollbackSession host(NetLink link, String nickname, long seed, GameEngine local, GameEngine remote) {
+        return new RollbackSession(link, true, nickname, seed, local, remote);
+    }
+
+    /** Quem entra recebe a semente no HELLO do host. */
+    public static RollbackSession join(NetLink link, String nickname, GameEngine local, GameEngine remote) {
+        return new RollbackSession(link, false, nickname, 0, local, remote);
+    }
+
+    @Override
+    public void setOnFinished(Runnable onFinished) { this.onFinished = onFinished; }
+
+    /**
+     * Aplica na hora na minha engine (quem joga vê o efeito antes do próximo
+     * tick, como no NetSession) e guarda para o tick atual. É o mesmo que o
+     * simulate() faria: as ações vêm depois da fronteira de lixo e antes do tick.
+     */
+    @Override
+    public void localInput(PlayerAction action) {
+        if (phase != NetSession.Phase.PLAYING || action == null) return;
+        if (pendingLocal.size() == MAX_ACTIONS_PER_TICK) return; // O outro lado também não veria
+        action.applyTo(engines[localIndex]);
+        pendingLocal.add(action);
+    }
+
+    /** Um frame: rede, rollback (se alguma previsão errou), um tick novo, confirmação. */
+    @Override
+    public void step() {
+        transport.receiveAll(this::handlePacket);
+        if (resyncCooldown > 0) resyncCooldown--;
+
+        if (phase == NetSession.Phase.CONNECTING) {
+            if (++connectTicks > NetTransport.TIMEOUT_TICKS) {
+                finish(NetSession.Result.DISCONNECTED);
+            } else if (!host && connectTicks % NetTransport.HELLO_RESEND_TICKS == 1) {
+                transport.sendHello(NetProtocol.ROLLBACK_VERSION, seed);
+            }
+            return;
+        }
+
+        if (phase == NetSession.Phase.PLAYING) {
+            boolean rolledBack = rollbackFrom < localTicks;
+            if (rolledBack) rollback(rollbackFrom);
+            rollbackFrom = Integer.MAX_VALUE;
+            if (shouldWait()) {
+                // Parado: as ações já aplicadas ficam para este mesmo tick, mas o rollback as desfez
+                stallTicks++;
+                if (rolledBack) reapplyPendingLocal();
+            } else {
+                advance(!rolledBack);
+            }
+            confirm();
+            if (snapshotRequested) sendSnapshot();
+        }
+        // Continua mandando até close(): o outro lado pode ainda precisar das últimas ações
+        if (++frames % SEND_EVERY_TICKS == 0) sendInput();
+
+        if (transport.tickSilence() && phase == NetSession.Phase.PLAYING) finish(NetSession.Result.DISCONNECTED);
+    }
+
+    // --- Simulação ---
+
+    /**
+     * O passo determinístico: depende só do estado e das ações do tick 't'.
+     * localApplied = as minhas ações deste tick já estão na engine (localInput).
+     */
+    private void simulate(int t, boolean localApplied) {
+        int slot = t & RING_MASK;
+        for (int p = 0; p < 2; p++) {
+            GameEngine engine = engines[p];
+            if (p != localIndex || !localApplied) {
+                // Previsão: o que ainda não chegou do outro lado é "nenhuma ação"
+                int count = (p == localIndex || t <= remoteFinalTag) ? inputCounts[p][slot] : 0;
+                byte[] codes = inputs[p][slot];
+                for (int i = 0; i < count; i++) PlayerAction.fromCode(codes[i]).applyTo(engine);
+            }
+            engine.tick();
+        }
+        // Fronteira: o lixo mandado neste tick só conta a partir do próximo
+        engines[0].acceptIncomingGarbage();
+        engines[1].acceptIncomingGarbage();
+    }
+
+    private void reapplyPendingLocal() {
+        for (PlayerAction action : pendingLocal) action.applyTo(engines[localIndex]);
+    }
+
+    private void advance(boolean localApplied) {
+        int t = localTicks;
+        int slot = t & RING_MASK;
+        int count = Math.min(pendingLocal.size(), MAX_ACTIONS_PER_TICK); // Mais que isso num tick é descartado
+        for (int i = 0; i < count; i++) {
+            byte code = (byte) pendingLocal.get(i).ordinal();
+            inputs[localIndex][slot][i] = code;
+            transport.queueEvent(t, code, 0);
+        }
+        inputCounts[localIndex][slot] = count;
+        pendingLocal.clear();
+
+        simulate(t, localApplied);
+        localTicks++;
+        save(localTicks);
+    }
+
+    // Volta ao estado depois de 'from' ticks e refaz até o presente, sem sons repetidos
+    private void rollback(int from) {
+        long start = System.nanoTime();
+        restore(from);
+        engines[0].setSilent(true);
+        engines[1].setSilent(true);
+        for (int t = from; t < localTicks; t++) {
+            simulate(t, false);
+            save(t + 1);
+        }
+        engines[0].setSilent(false);
+        engines[1].setSilent(false);
+
+        long nanos = System.nanoTime() - start;
+        rollbacks++;
+        resimulatedTicks += localTicks - from;
+        maxRollbackTicks = Math.max(maxRollbackTicks, localTicks - from);
+        rollbackNanos += nanos;
+        maxRollbackNanos = Math.max(maxRollbackNanos, nanos);
+    }
+
+    private void save(int tick) {
+        EngineSnapshot[] pair = ring[tick & RING_MASK];
+        engines[0].saveSnapshot(pair[0]);
+        engines[1].saveSnapshot(pair[1]);
+    }
+
+    private void restore(int tick) {
+        EngineSnapshot[] pair = ring[tick & RING_MASK];
+        engines[0].restoreSnapshot(pair[0]);
+        engines[1].restoreSnapshot(pair[1]);
+    }
+
+    private boolean shouldWait() {
+        int ahead = localTicks - (remoteFinalTag + 1); // Ticks só com previsão
+        if (ahead >= MAX_PREDICTION_TICKS) return true;
+        // As duas vantagens incluem a latência; a diferença é o quanto comecei antes
+        if (frames % TIME_SYNC_EVERY_TICKS == 0 && ahead - remoteAdvantage >= 2) {
+            syncSkips++;
+            return true;
+        }
+        return false;
+    }
+
+    // Avança os ticks confirmados; a primeira morte confirmada decide a partida
+    private void confirm() {
+        int target = Math.min(localTicks, remoteFinalTag + 1);
+        while (confirmedTicks < target && phase == NetSession.Phase.PLAYING) {
+            confirmedTicks++;
+            EngineSnapshot[] pair = ring[confirmedTicks & RING_MASK];
+            for (int p = 0; p < 2; p++) {
+                if (deathTicks[p] < 0 && pair[p].isGameOver()) deathTicks[p] = confirmedTicks;
+            }
+            int mine = deathTicks[localIndex], theirs = deathTicks[remoteIndex];
+            if (mine >= 0 && theirs >= 0) finish(NetSession.Result.DRAW);
+            else if (theirs >= 0) finish(NetSession.Result.WON);
+            else if (mine >= 0) finish(NetSession.Result.LOST);
+        }
+        checkDigests();
+    }
+
+    private void checkDigests() {
+        int[] digest;
+        while ((digest = remoteDigests.peekFirst()) != null && digest[0] <= confirmedTicks) {
+            remoteDigests.pollFirst();
+            if (digest[0] > localTicks - RING_TICKS && digest[1] != digestAt(digest[0])) {
+                desyncs++;
+                if (!host) requestResync(); // O host é a referência: ele só espera o pedido
+            }
+        }
+    }
+
+    /** Digest das duas engines depois de 'tick' ticks (precisa estar no anel). */
+    int digestAt(int tick) {
+        EngineSnapshot[] pair = ring[tick & RING_MASK];
+        return 31 * pair[0].digest() + pair[1].digest();
+    }
+
+    private void finish(NetSession.Result result) {
+        if (phase == NetSession.Phase.FINISHED) return;
+        this.result = result;
+        if (phase == NetSession.Phase.PLAYING && result != NetSession.Result.DISCONNECTED) {
+            restore(confirmedTicks); // A tela mostra o fim confirmado, não a previsão
+        }
+        phase = NetSession.Phase.FINISHED;
+        engines[0].stopGame();
+        engines[1].stopGame();
+        if (onFinished != null) onFinished.run();
+    }
+
+    private void startMatch() {
+        engines[0].setSeed(seed * 2);
+        engines[1].setSeed(seed * 2 + 1);
+        engines[0].startGame();
+        engines[1].startGame();
+        save(0);
+        phase = NetSession.Phase.PLAYING;
+    }
+
+    // --- Envio ---
+
+    private void sendInput() {
+        boolean digest = (++inputPackets % DIGEST_EVERY_PACKETS == 0) && confirmedTicks > 0;
+        int advantage = Math.max(0, Math.min(255, localTicks - (remoteFinalTag + 1)));
+
+        ByteBuffer out = transport.begin(NetProtocol.RB_INPUT).put((byte) (digest ? NetProtocol.FLAG_DIGEST : 0));
+        out.put((byte) advantage);
+        transport.putEvents(out, localTicks, remoteFinalTag);
+        if (digest) {
+            NetProtocol.putVarInt(out, confirmedTicks);
+            out.putInt(digestAt(confirmedTicks));
+        }
+        transport.transmit();
+    }
+
+    private void requestResync() {
+        if (resyncCooldown > 0) return;
+        if (++resyncs > MAX_RESYNCS) {
+            System.err.println("Partida em rede dessincronizada mesmo depois de " + MAX_RESYNCS + " resyncs; encerrando.");
+            finish(NetSession.Result.DISCONNECTED);
+            return;
+        }
+        resyncCooldown = RESYNC_COOLDOWN_TICKS;
+        NetProtocol.putVarInt(transport.begin(NetProtocol.RESYNC), confirmedTicks);
+        transport.transmit();
+    }
+
+    // Host: as duas engines no último tick confirmado (está no anel: confirmedTicks <= localTicks)
+    private void sendSnapshot() {
+        snapshotRequested = false;
+        EngineSnapshot[] pair = ring[confirmedTicks & RING_MASK];
+        ByteBuffer out = transport.begin(NetProtocol.SNAPSHOT);
+        NetProtocol.putVarInt(out, confirmedTicks);
+        pair[0].writeTo(out);
+        pair[1].writeTo(out);
+        transport.transmit();
+    }
+
+    // --- Recepção ---
+
+    private void handlePacket(byte type, ByteBuffer in) {
+        switch (type) {
+            case NetProtocol.HELLO: handleHello(in); break;
+            case NetProtocol.RB_INPUT: if (phase == NetSession.Phase.PLAYING) handleInput(in); break;
+            case NetProtocol.RESYNC: if (host && phase == NetSession.Phase.PLAYING) snapshotRequested = true; break;
+            case NetProtocol.SNAPSHOT: if (!host && phase == NetSession.Phase.PLAYING) handleSnapshot(in); break;
+            case NetProtocol.BYE: finish(NetSession.Result.DISCONNECTED); break;
+            default: throw new IllegalArgumentException("Tipo de pacote desconhecido: " + type);
+        }
+    }
+
+    private void handleHello(ByteBuffer in) {
+        if (!transport.readHello(in, NetProtocol.ROLLBACK_VERSION)) {
+            finish(NetSession.Result.DISCONNECTED);
+            return;
+        }
+        if (host) {
+            transport.sendHello(NetProtocol.ROLLBACK_VERSION, seed); // Responde sempre: a resposta anterior pode ter se perdido
+            if (phase == NetSession.Phase.CONNECTING) startMatch();
+        } else if (phase == NetSession.Phase.CONNECTING) {
+            seed = transport.getRemoteSeed();
+            startMatch();
+        }
+    }
+
+    private void handleInput(ByteBuffer in) {
+        int flags = in.get();
+        int advantage = in.get() & 0xFF;
+        int finalTag = transport.readEvents(in, false);
+        // O outro lado espera antes de passar disso (ver shouldWait): além daqui o anel não guarda
+        if (finalTag >= localTicks + RING_TICKS - MAX_PREDICTION_TICKS) throw new IllegalArgumentException("finalTag longe demais");
+        int digestTick = -1, digestValue = 0;
+        if ((flags & NetProtocol.FLAG_DIGEST) != 0) {
+            digestTick = NetProtocol.getVarInt(in);
+            digestValue = in.getInt();
+        }
+
+        transport.acknowledge(transport.getReadAck());
+        if (finalTag > remoteFinalTag) { // Pacotes velhos ou repetidos não trazem nada novo
+            for (int t = remoteFinalTag + 1; t <= finalTag; t++) inputCounts[remoteIndex][t & RING_MASK] = 0;
+            for (NetProtocol.Event event : transport.getReadEvents()) {
+                if (event.tick <= remoteFinalTag) continue;
+                int slot = event.tick & RING_MASK;
+                int n = inputCounts[remoteIndex][slot];
+                if (n == MAX_ACTIONS_PER_TICK) continue; // O outro lado descartou igual
+                inputs[remoteIndex][slot][n] = event.code;
+                inputCounts[remoteIndex][slot] = n + 1;
+                // Previsto como "nada" num tick já simulado: errou, volta até ele
+                if (event.tick < localTicks) rollbackFrom = Math.min(rollbackFrom, event.tick);
+            }
+            remoteFinalTag = finalTag;
+            remoteAdvantage = advantage;
+        }
+        if (digestTick > lastDigestTick) {
+            lastDigestTick = digestTick;
+            remoteDigests.addLast(new int[]{digestTick, digestValue});
+        }
+    }
+
+    /**
+     * Estado do host depois de 'tick' ticks. Só serve se eu já confirmei esse
+     * tick (tenho as ações dos dois até ali) e ele ainda está no anel; senão
+     * o próximo digest diferente pede de novo.
+     */
+    private void handleSnapshot(ByteBuffer in) {
+        int tick = NetProtocol.getVarInt(in);
+        resyncState[0].readFrom(in); // Inválido: exceção antes de mexer no anel
+        resyncState[1].readFrom(in);
+        if (tick > confirmedTicks || tick <= localTicks - RING_TICKS) return;
+
+        // Troca os objetos (sem copiar): o anel fica com o estado do host nesse tick
+        EngineSnapshot[] pair = ring[tick & RING_MASK];
+        for (int p = 0; p < 2; p++) {
+            EngineSnapshot mine = pair[p];
+            pair[p] = resyncState[p];
+            resyncState[p] = mine;
+        }
+        while (!remoteDigests.isEmpty() && remoteDigests.peekFirst()[0] <= tick) remoteDigests.pollFirst();
+        if (tick < localTicks) {
+            rollbackFrom = Math.min(rollbackFrom, tick); // Re-simula até o presente no próximo step()
+        } else {
+            restore(tick);
+            reapplyPendingLocal();
+        }
+    }
+
+    // --- Consultas ---
+
+    @Override
+    public NetSession.Phase getPhase() { return phase; }
+    @Override
+    public NetSession.Result getResult() { return result; }
+    public boolean isHost() { return host; }
+    @Override
+    public String getRemoteNickname() { return transport.getRemoteNickname(); }
+    @Override
+    public GameEngine getLocalEngine() { return engines[localIndex]; }
+    public GameEngine getRemoteEngine() { return engines[remoteIndex]; }
+    @Override
+    public List<GameEngine> getEngines() { return List.of(engines[localIndex], engines[remoteIndex]); }
+    @Override
+    public NetLink getLink() { return transport.getLink(); }
+    @Override
+    public int getDesyncs() { return desyncs; }
+    public int getLocalTicks() { return localTicks; }
+    public int getConfirmedTicks() { return confirmedTicks; }
+    public int getCorruptPackets() { return transport.getCorruptPackets(); }
+    public int getResyncs() { return resyncs; }
+    public int getRollbacks() { return rollbacks; }
+    public long getResimulatedTicks() { return resimulatedTicks; }
+    public int getMaxRollbackTicks() { return maxRollbackTicks; }
+    public int getStallTicks() { return stallTicks; }
+    public int getSyncSkips() { return syncSkips; }
+    public long getRollbackNanos() { return rollbackNanos; }
+    public long getMaxRollbackNanos() { return maxRollbackNanos; }
+
+    /** Payload enviado por segundo de jogo (sem cabeçalhos IP/UDP). */
+    @Override
+    public double getBytesSentPerSecond() {
+        return transport.getLink().getBytesSent() * (double) TPS / Math.max(1, localTicks);
+    }
+
+    @Override
+    public void close() {
+        transport.close(phase != NetSession.Phase.CONNECTING);
+        phase = NetSession.Phase.FINISHED;
+    }
+}
@@ -0,0 +1,178 @@
+// Em SaveCodec.java
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.google.gson.Gson;
+
+/**
+ * Formato binário dos jogos salvos (~140 bytes em vez de vários KB de JSON).
+ *
+ * Layout (big-endian), versão 1:
+ *   'T' 'S' versão flags
+ *   100 bytes de tabuleiro: 200 células de 4 bits (0 = vazio, ordinal+1 = peça)
+ *   peça atual, próxima, guardada (0 = nenhuma, ordinal+1)
+ *   x, y, rotação da peça atual (1 byte cada, com sinal)
+ *   score (int), level (short), linhas (int), estado do RNG (long)
+ *   tema: tamanho (1 byte) + UTF-8
+ *
+ * No banco ele vai como texto: TEXT_PREFIX + Base64. Saves antigos (JSON
+ * com String[][]) continuam sendo lidos por fromText().
+ */
+public final class SaveCodec {
+
+    public static final String TEXT_PREFIX = "TSB:";
+
+    private static final byte MAGIC_0 = 'T';
+    private static final byte MAGIC_1 = 'S';
+    private static final byte VERSION = 1;
+    private static final int FLAG_CAN_HOLD = 1;
+    private static final int FLAG_HAS_RNG = 2;
+    private static final int CELL_BYTES = Board.WIDTH * Board.HEIGHT / 2;
+
+    private static final Gson GSON = new Gson();
+
+    private SaveCodec() { }
+
+    // --- Texto (coluna TEXT do banco / armazenamento local) ---
+
+    public static String toText(GameStateData state) {
+        return TEXT_PREFIX + Base64.getEncoder().encodeToString(encode(state));
+    }
+
+    /** Lê um save no formato binário ou, se for antigo, no JSON do Gson. */
+    public static GameStateData fromText(String text) {
+        if (text.startsWith(TEXT_PREFIX)) {
+            return decode(Base64.getDecoder().decode(text.substring(TEXT_PREFIX.length())));
+        }
+        GameStateData state = GSON.fromJson(text, GameStateData.class);
+        if (state == null) throw new IllegalArgumentException("Save vazio");
+        state.cells = cellsFromLegacyGrid(state.boardGrid);
+        state.boardGrid = null;
+        state.canHold = true; // Saves antigos não guardavam o "hold"
+        return state;
+    }
+
+    // --- Binário ---
+
+    public static byte[] encode(GameStateData state) {
+        byte[] theme = (state.currentThemeName != null)
+                ? state.currentThemeName.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (theme.length > 255) theme = new byte[0];
+
+        ByteBuffer out = ByteBuffer.allocate(4 + CELL_BYTES + 6 + 18 + 1 + theme.length);
+        out.put(MAGIC_0).put(MAGIC_1).put(VERSION);
+        int flags = FLAG_HAS_RNG;
+        if (state.canHold) flags |= FLAG_CAN_HOLD;
+        out.put((byte) flags);
+
+        out.put(packCells(state.cells));
+
+        out.put(pieceCode(state.currentPieceName));
+        out.put(pieceCode(state.nextPieceName));
+        out.put(pieceCode(state.heldPieceName));
+        out.put((byte) state.currentX);
+        out.put((byte) state.currentY);
+        out.put((byte) state.currentRotation);
+
+        out.putInt(state.score);
+        out.putShort((short) state.level);
+        out.putInt(state.linesCleared);
+        out.putLong(state.rngState);
+
+        out.put((byte) theme.length);
+        out.put(theme);
+        return out.array();
+    }
+
+    public static GameStateData decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < 4 + CELL_BYTES || in.get() != MAGIC_0 || in.get() != MAGIC_1) {
+            throw new IllegalArgumentException("Save binário inválido");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versão de save desconhecida: " + version);
+        }
+        int flags = in.get();
+
+        GameStateData state = new GameStateData();
+        byte[] packed = new byte[CELL_BYTES];
+        in.get(packed);
+        state.cells = unpackCells(packed);
+
+        state.currentPieceName = pieceName(in.get());
+        state.nextPieceName = pieceName(in.get());
+        state.heldPieceName = pieceName(in.get());
+        state.currentX = in.get();
+        state.currentY = in.get();
+        state.currentRotation = in.get();
+
+        state.score = in.getInt();
+        state.level = in.getShort();
+        state.linesCleared = in.getInt();
+        state.rngState = in.getLong();
+        state.hasRngState = (flags & FLAG_HAS_RNG) != 0;
+        state.canHold = (flags & FLAG_CAN_HOLD) != 0;
+
+        int themeLength = in.get() & 0xFF;
+        if (themeLength > 0) {
+            byte[] theme = new byte[themeLength];
+            in.get(theme);
+            state.currentThemeName = new String(theme, StandardCharsets.UTF_8);
+        }
+        return state;
+    }
+
+    // --- Tabuleiro em 4 bits por célula (também usado na miniatura dos saves) ---
+
+    /** Duas células por byte: a da esquerda nos 4 bits altos. */
+    public static byte[] packCells(byte[] cells) {
+        byte[] packed = new byte[CELL_BYTES];
+        for (int i = 0; i < CELL_BYTES; i++) {
+            packed[i] = (byte) ((cells[2 * i] << 4) | (cells[2 * i + 1] & 0x0F));
+        }
+        return packed;
+    }
+
+    public static byte[] unpackCells(byte[] packed) {
+        if (packed.length != CELL_BYTES) throw new IllegalArgumentException("Tabuleiro compactado inválido");
+        byte[] cells = new byte[Board.WIDTH * Board.HEIGHT];
+        for (int i = 0; i < CELL_BYTES; i++) {
+            int b = packed[i] & 0xFF;
+            cells[2 * i] = checkCell(b >>> 4);
+            cells[2 * i + 1] = checkCell(b & 0x0F);
+        }
+        return cells;
+    }
+
+    // --- Auxiliares ---
+
+    private static byte[] cellsFromLegacyGrid(String[][] grid) {
+        byte[] cells = new byte[Board.WIDTH * Board.HEIGHT];
+        if (grid == null) return cells;
+        for (int y = 0; y < Board.HEIGHT && y < grid.length; y++) {
+            for (int x = 0; x < Board.WIDTH && x < grid[y].length; x++) {
+                if (grid[y][x] != null) {
+                    cells[y * Board.WIDTH + x] = (byte) (Tetromino.valueOf(grid[y][x]).ordinal() + 1);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static byte checkCell(int code) {
+        if (code > Tetromino.values().length) throw new IllegalArgumentException("Célula inválida no save: " + code);
+        return (byte) code;
+    }
+
+    static byte pieceCode(String name) {
+        return (name == null) ? 0 : (byte) (Tetromino.valueOf(name).ordinal() + 1);
+    }
+
+    static String pieceName(byte code) {
+        int c = code & 0xFF;
+        if (c == 0) return null;
+        return Tetromino.values()[checkCell(c) - 1].name();
+    }
+}
@@ -0,0 +1,60 @@
+// Em SaveInfo.java
+
+/**
+ * Resumo de um jogo salvo para a lista de "Carregar Jogo": pontuação, nível,
+ * linhas, data e uma miniatura do tabuleiro (100 bytes, 4 bits por célula).
+ * Listar os saves lê só isso, nunca o estado completo.
+ */
+public class SaveInfo {
+    private final String name;
+    private final int score;
+    private final int level;
+    private final int linesCleared;
+    private final long updatedAtMillis;
+    private final byte[] thumbnail; // SaveCodec.packCells; null se desconhecida
+
+    public SaveInfo(String name, int score, int level, int linesCleared, long updatedAtMillis, byte[] thumbnail) {
+        this.name = name;
+        this.score = score;
+        this.level = level;
+        this.linesCleared = linesCleared;
+        this.updatedAtMillis = updatedAtMillis;
+        this.thumbnail = thumbnail;
+    }
+
+    /** Monta o resumo a partir do estado salvo (a peça atual entra na miniatura). */
+    public static SaveInfo fromState(String name, GameStateData state, long updatedAtMillis) {
+        BoardSnapshot board = new BoardSnapshot();
+        System.arraycopy(state.cells, 0, board.cells, 0, board.cells.length);
+        if (state.currentPieceName != null) {
+            board.pieceType = Tetromino.valueOf(state.currentPieceName);
+            board.pieceRotation = state.currentRotation;
+            board.pieceX = state.currentX;
+            board.pieceY = state.currentY;
+        }
+        byte[] cells = new byte[Board.WIDTH * Board.HEIGHT];
+        board.composeInto(cells, 0);
+        return new SaveInfo(name, state.score, state.level, state.linesCleared, updatedAtMillis, SaveCodec.packCells(cells));
+    }
+
+    /** Igual a fromState, a partir do texto salvo. Um save ilegível vira um resumo vazio. */
+    public static SaveInfo fromText(String name, String savedState, long updatedAtMillis) {
+        try {
+            return fromState(name, SaveCodec.fromText(savedState), updatedAtMillis);
+        } catch (RuntimeException e) {
+            return new SaveInfo(name, 0, 0, 0, updatedAtMillis, null);
+        }
+    }
+
+    public String getName() { return name; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+    public long getUpdatedAtMillis() { return updatedAtMillis; }
+    public byte[] getThumbnail() { return thumbnail; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
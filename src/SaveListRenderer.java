@@ -0,0 +1,74 @@
+// Em SaveListRenderer.java
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.ListCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Uma linha da lista de "Carregar Jogo": miniatura do tabuleiro à esquerda,
+ * nome, pontuação, nível, linhas e data à direita. Tudo vem do SaveInfo;
+ * o estado completo do save só é lido quando o jogador escolhe um.
+ */
+public class SaveListRenderer extends JPanel implements ListCellRenderer<SaveInfo> {
+
+    private static final int TILE = 4;
+    private static final int THUMB_WIDTH = Board.WIDTH * TILE;
+    private static final int THUMB_HEIGHT = Board.HEIGHT * TILE;
+    private static final int PADDING = 6;
+
+    private final BoardRenderer boardRenderer;
+    private final BoardSnapshot[] snapshot = { new BoardSnapshot() };
+    private final int[] originX = { PADDING };
+    private final int[] originY = { PADDING };
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+    private final Font nameFont = new Font("Arial", Font.BOLD, 16);
+    private final Font detailFont = new Font("Arial", Font.PLAIN, 13);
+
+    private SaveInfo info;
+    private boolean hasThumbnail;
+
+    public SaveListRenderer(ThemeManager themeManager) {
+        this.boardRenderer = new BoardRenderer(themeManager);
+        setPreferredSize(new Dimension(360, THUMB_HEIGHT + 2 * PADDING));
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends SaveInfo> list, SaveInfo value,
+                                                  int index, boolean isSelected, boolean cellHasFocus) {
+        this.info = value;
+        byte[] thumbnail = value.getThumbnail();
+        hasThumbnail = thumbnail != null && thumbnail.length == Board.WIDTH * Board.HEIGHT / 2;
+        if (hasThumbnail) {
+            byte[] cells = SaveCodec.unpackCells(thumbnail);
+            System.arraycopy(cells, 0, snapshot[0].cells, 0, cells.length);
+        }
+        setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+        setForeground(isSelected ? list.getSelectionForeground() : list.getForeground());
+        return this;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        g.setColor(Color.BLACK);
+        g.fillRect(PADDING, PADDING, THUMB_WIDTH, THUMB_HEIGHT);
+        if (hasThumbnail) {
+            boardRenderer.renderFlatBatch(g, snapshot, 1, originX, originY, TILE);
+        }
+
+        int textX = PADDING * 3 + THUMB_WIDTH;
+        g.setColor(getForeground());
+        g.setFont(nameFont);
+        g.drawString(info.getName(), textX, PADDING + 18);
+        g.setFont(detailFont);
+        g.drawString("Pontuação: " + info.getScore(), textX, PADDING + 40);
+        g.drawString("Nível: " + info.getLevel() + "   Linhas: " + info.getLinesCleared(), textX, PADDING + 58);
+        g.drawString(dateFormat.format(new Date(info.getUpdatedAtMillis())), textX, PADDING + 76);
+    }
+}
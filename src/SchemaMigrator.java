@@ -0,0 +1,185 @@
+// Em SchemaMigrator.java
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Migrações do schema MySQL, aplicadas uma única vez e em ordem.
+ *
+ * A tabela schema_version guarda quais versões já rodaram. Para mudar o
+ * schema, ADICIONE uma migração no fim de MIGRATIONS com a próxima versão;
+ * nunca edite uma que já foi publicada.
+ *
+ * DDL no MySQL faz commit implícito, então uma migração não é atômica. Se o
+ * jogo cair no meio de uma, ela roda de novo na próxima vez, e os erros de
+ * "coluna/índice já existe" (ou "índice já removido") são tratados como "já aplicado".
+ */
+public class SchemaMigrator {
+
+    /** Uma versão do schema: os comandos SQL que levam da versão anterior até ela. */
+    public static class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+
+    /** Largura das faixas de leaderboard_buckets. Mudar exige uma nova migração que refaça a tabela. */
+    public static final int SCORE_BUCKET_SIZE = 1000;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            // O schema original (antes era o DatabaseManager.createTables)
+            new Migration(1, "tabelas iniciais",
+                    "CREATE TABLE IF NOT EXISTS leaderboard ("
+                            + " id INT AUTO_INCREMENT PRIMARY KEY,"
+                            + " nickname VARCHAR(50) NOT NULL,"
+                            + " score INT NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS saved_games ("
+                            + " id INT AUTO_INCREMENT PRIMARY KEY,"
+                            + " saveName VARCHAR(100) NOT NULL UNIQUE,"
+                            + " gameStateJSON TEXT NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS leaderboard_2p ("
+                            + " id INT AUTO_INCREMENT PRIMARY KEY,"
+                            + " nickname VARCHAR(50) NOT NULL UNIQUE,"
+                            + " wins INT NOT NULL DEFAULT 0)"),
+
+            // Linhas antigas ficam com a data da migração
+            new Migration(2, "created_at nos rankings",
+                    "ALTER TABLE leaderboard ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP",
+                    "ALTER TABLE leaderboard_2p ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP"),
+
+            // Índices "cobrindo" os rankings: ORDER BY score/wins DESC LIMIT n lê só
+            // as n primeiras entradas do índice, sem varrer nem ordenar a tabela
+            new Migration(3, "índices dos rankings",
+                    "CREATE INDEX idx_leaderboard_score ON leaderboard (score DESC, nickname)",
+                    "CREATE INDEX idx_leaderboard_2p_wins ON leaderboard_2p (wins DESC, nickname)"),
+
+            // Paginação por cursor (score, id) e contagem de posição sem varrer a tabela:
+            // quantas pontuações existem por valor exato e por faixa de SCORE_BUCKET_SIZE pontos
+            new Migration(4, "paginação e posição no ranking",
+                    "DROP INDEX idx_leaderboard_score ON leaderboard",
+                    "CREATE INDEX idx_leaderboard_rank ON leaderboard (score DESC, id, nickname)",
+                    "CREATE TABLE IF NOT EXISTS leaderboard_score_counts ("
+                            + " score INT PRIMARY KEY,"
+                            + " total BIGINT NOT NULL)",
+                    "CREATE TABLE IF NOT EXISTS leaderboard_buckets ("
+                            + " bucket INT PRIMARY KEY,"
+                            + " total BIGINT NOT NULL)",
+                    "INSERT INTO leaderboard_score_counts (score, total)"
+                            + " SELECT score, COUNT(*) FROM leaderboard GROUP BY score"
+                            + " ON DUPLICATE KEY UPDATE total = VALUES(total)",
+                    "INSERT INTO leaderboard_buckets (bucket, total)"
+                            + " SELECT score DIV " + SCORE_BUCKET_SIZE + ", COUNT(*) FROM leaderboard GROUP BY score DIV " + SCORE_BUCKET_SIZE
+                            + " ON DUPLICATE KEY UPDATE total = VALUES(total)"),
+
+            // Resumo dos saves para a lista de "Carregar Jogo". thumbnail NULL = save antigo,
+            // preenchido pelo DatabaseManager na primeira listagem. O índice cobre a listagem
+            // inteira, então ela nem toca na coluna com o estado completo.
+            new Migration(5, "resumo dos jogos salvos",
+                    "ALTER TABLE saved_games ADD COLUMN score INT NOT NULL DEFAULT 0",
+                    "ALTER TABLE saved_games ADD COLUMN level INT NOT NULL DEFAULT 1",
+                    "ALTER TABLE saved_games ADD COLUMN lines_cleared INT NOT NULL DEFAULT 0",
+                    "ALTER TABLE saved_games ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)",
+                    "ALTER TABLE saved_games ADD COLUMN thumbnail VARBINARY(100) NULL",
+                    "CREATE INDEX idx_saved_games_listing ON saved_games"
+                            + " (updated_at DESC, saveName, score, level, lines_cleared, thumbnail)")
+    );
+
+    // Códigos de erro do MySQL que significam "isso já foi feito"
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    // Evita duas instâncias do jogo migrando o mesmo banco ao mesmo tempo
+    private static final String LOCK_NAME = "tetris_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    /** Aplica as migrações pendentes. Retorna a versão final do schema. */
+    public int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + " version INT PRIMARY KEY,"
+                    + " description VARCHAR(200) NOT NULL,"
+                    + " applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        acquireLock(conn);
+        try {
+            int current = currentVersion(conn);
+            for (Migration m : MIGRATIONS) {
+                if (m.version <= current) continue;
+                apply(conn, m);
+                current = m.version;
+            }
+            return current;
+        } finally {
+            releaseLock(conn);
+        }
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void apply(Connection conn, Migration m) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : m.statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    int code = e.getErrorCode();
+                    if (code != ER_DUP_FIELDNAME && code != ER_DUP_KEYNAME && code != ER_CANT_DROP_FIELD_OR_KEY) {
+                        System.err.println("Erro na migração " + m.version + " (" + m.description + "): " + e.getMessage());
+                        throw e;
+                    }
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            pstmt.setInt(1, m.version);
+            pstmt.setString(2, m.description);
+            pstmt.executeUpdate();
+        }
+        System.out.printf("Schema migrado para a versão %d (%s) em %d ms.%n",
+                m.version, m.description, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Não foi possível obter o lock de migração do schema");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            // O lock é liberado de qualquer jeito quando a conexão fecha
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// Em ServerConnection.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Um cliente conectado ao MatchServer.
+ *
+ * Só a thread de rede lê e escreve no socket. Os workers de simulação
+ * apenas colocam mensagens prontas em 'out' (com lock) e pedem um flush.
+ * 'out' tem tamanho fixo: é o orçamento de memória da conexão. Um STATE que
+ * não cabe (cliente lento) é descartado; o próximo já traz o estado atual.
+ */
+public class ServerConnection {
+
+    static final int OUT_BUDGET = 8 * 1024;
+    static final int IN_BUDGET = 512;
+    static final int MAX_QUEUED_ACTIONS = 32; // Mais do que isso entre dois ticks é flood
+    /** Memória reservada por conexão no orçamento da partida (buffers + fila + objetos). */
+    static final long MEMORY_BYTES = OUT_BUDGET + IN_BUDGET + 2 * 1024;
+
+    final SocketChannel channel;
+    final ByteBuffer in = ByteBuffer.allocate(IN_BUDGET);
+    private final ByteBuffer out = ByteBuffer.allocate(OUT_BUDGET);
+    final ActionQueueController input = new ActionQueueController(MAX_QUEUED_ACTIONS);
+    final AtomicBoolean flushQueued = new AtomicBoolean();
+    SelectionKey key;
+
+    // Estado do lobby/partida (thread de rede até a partida começar)
+    String nickname;
+    int wantedPlayers;
+    volatile ServerMatch match;
+    volatile boolean closed;
+    boolean closeAfterFlush;
+
+    private long droppedMessages;
+
+    ServerConnection(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Qualquer thread. false = não coube (ou a conexão fechou) e a mensagem foi descartada. */
+    boolean enqueue(ByteBuffer frame) {
+        synchronized (out) {
+            if (closed || out.remaining() < frame.remaining()) {
+                droppedMessages++;
+                return false;
+            }
+            out.put(frame);
+            return true;
+        }
+    }
+
+    /** Thread de rede: manda o que o socket aceitar. true = ainda sobrou (precisa de OP_WRITE). */
+    boolean flush() throws IOException {
+        synchronized (out) {
+            out.flip();
+            try {
+                channel.write(out);
+            } finally {
+                out.compact();
+            }
+            return out.position() > 0;
+        }
+    }
+
+    long getDroppedMessages() {
+        synchronized (out) {
+            return droppedMessages;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+// Em ServerMatch.java
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Uma partida do MatchServer: uma BattleMatch com uma conexão por lugar
+ * (null = bot do servidor). Pertence a UM SimulationWorker, o único que
+ * chama start()/step(); a rede só entrega ações pela ActionQueueController
+ * de cada conexão.
+ */
+public class ServerMatch {
+
+    static final int STATE_EVERY_TICKS = 10;                         // 6 STATE/s por jogador
+    static final long MAX_MATCH_TICKS = 5L * 60 * GameScheduler.TICKS_PER_SECOND; // Depois disso: pontuação decide
+    static final int BOT_TICKS_PER_PIECE = 20;
+    /** Heap de um lugar (engine, tabuleiro, caixas de lixo, bot): medido ~4 KB, com folga para o lixo temporário. */
+    static final long SLOT_MEMORY_BYTES = 8 * 1024;
+
+    private final int id;
+    private final BattleMatch battle;
+    private final ServerConnection[] connections;
+    private final long memoryBudget;
+    private final BoardSnapshot snapshot = new BoardSnapshot();
+    private final MatchServer server;
+
+    ServerMatch(MatchServer server, int id, List<ServerConnection> players, int size, long seed, long memoryBudget) {
+        this.server = server;
+        this.id = id;
+        this.memoryBudget = memoryBudget;
+        this.battle = new BattleMatch(TargetingStrategy.KO, seed);
+        this.connections = new ServerConnection[size];
+        for (int i = 0; i < size; i++) {
+            if (i < players.size()) {
+                ServerConnection conn = players.get(i);
+                connections[i] = conn;
+                battle.addPlayer(conn.nickname, new GameEngine(), conn.input);
+            } else {
+                battle.addPlayer("Bot " + (i + 1), new GameEngine(), new SimpleBot(BOT_TICKS_PER_PIECE + 4 * (i % 4)));
+            }
+        }
+    }
+
+    /** Memória reservada na admissão: lugares + buffers das conexões. */
+    static long memoryBudgetFor(int players, int remotePlayers) {
+        return players * SLOT_MEMORY_BYTES + remotePlayers * ServerConnection.MEMORY_BYTES;
+    }
+
+    // --- Thread do worker ---
+
+    void start(ByteBuffer payload, ByteBuffer frame) {
+        battle.start();
+        for (int i = 0; i < connections.length; i++) {
+            ServerConnection conn = connections[i];
+            if (conn == null) continue;
+            payload.clear();
+            payload.put(NetProtocol.WELCOME);
+            NetProtocol.putVarInt(payload, id);
+            NetProtocol.putVarInt(payload, i);
+            NetProtocol.putVarInt(payload, connections.length);
+            send(conn, payload, frame);
+        }
+    }
+
+    void step(ByteBuffer payload, ByteBuffer frame) {
+        // Quem desconectou perde (a partida dos outros continua)
+        int connected = 0;
+        for (int i = 0; i < connections.length; i++) {
+            ServerConnection conn = connections[i];
+            if (conn == null) continue;
+            if (conn.closed) {
+                GameEngine engine = battle.getSlots().get(i).getEngine();
+                if (!engine.isGameOver()) engine.setGameOver(true);
+            } else {
+                connected++;
+            }
+        }
+
+        battle.step();
+        // Só bots sobrando: ninguém assiste, então termina já e devolve a reserva da admissão
+        if (!battle.isFinished() && (connected == 0 || battle.getTicks() >= MAX_MATCH_TICKS)) battle.finishByScore();
+
+        if (battle.isFinished()) {
+            sendStates(payload, frame);
+            sendResults(payload, frame);
+        } else if (battle.getTicks() % STATE_EVERY_TICKS == 0) {
+            sendStates(payload, frame);
+        }
+    }
+
+    private void sendStates(ByteBuffer payload, ByteBuffer frame) {
+        List<BattleMatch.Slot> slots = battle.getSlots();
+        for (int i = 0; i < connections.length; i++) {
+            ServerConnection conn = connections[i];
+            if (conn == null || conn.closed) continue;
+            GameEngine engine = slots.get(i).getEngine();
+            engine.snapshotInto(snapshot);
+            payload.clear();
+            payload.put(NetProtocol.STATE);
+            NetProtocol.putVarInt(payload, (int) battle.getTicks());
+            NetProtocol.putVarInt(payload, battle.getAliveCount());
+            NetProtocol.putVarInt(payload, snapshot.score);
+            NetProtocol.putVarInt(payload, snapshot.linesCleared);
+            NetProtocol.putVarInt(payload, snapshot.pendingGarbage);
+            payload.put((byte) ((snapshot.pieceType != null) ? snapshot.pieceType.ordinal() + 1 : 0));
+            payload.put((byte) snapshot.pieceRotation);
+            payload.put((byte) (snapshot.pieceX + 4));
+            payload.put((byte) (snapshot.pieceY + 4));
+            payload.put(SaveCodec.packCells(snapshot.cells));
+            send(conn, payload, frame);
+        }
+    }
+
+    private void sendResults(ByteBuffer payload, ByteBuffer frame) {
+        BattleMatch.Slot winner = battle.getWinner();
+        List<BattleMatch.Slot> slots = battle.getSlots();
+        for (int i = 0; i < connections.length; i++) {
+            ServerConnection conn = connections[i];
+            if (conn == null || conn.closed) continue;
+            BattleMatch.Slot slot = slots.get(i);
+            payload.clear();
+            payload.put(NetProtocol.RESULT);
+            NetProtocol.putVarInt(payload, slot.getPlacement());
+            NetProtocol.putVarInt(payload, slot.getKos());
+            NetProtocol.putString(payload, (winner != null) ? winner.getNickname() : "");
+            send(conn, payload, frame);
+            conn.match = null; // Pode mandar JOIN de novo
+        }
+    }
+
+    private void send(ServerConnection conn, ByteBuffer payload, ByteBuffer frame) {
+        payload.flip();
+        frame.clear();
+        NetProtocol.putFrame(frame, payload);
+        frame.flip();
+        if (conn.enqueue(frame)) server.requestFlush(conn);
+    }
+
+    // --- Consultas ---
+
+    public int getId() { return id; }
+    public boolean isFinished() { return battle.isFinished(); }
+    public long getMemoryBudget() { return memoryBudget; }
+    public BattleMatch getBattle() { return battle; }
+
+    /** A conexão do vencedor (null se venceu um bot, empate, ou ninguém). */
+    ServerConnection getWinnerConnection() {
+        BattleMatch.Slot winner = battle.getWinner();
+        return (winner != null) ? connections[winner.getIndex()] : null;
+    }
+}
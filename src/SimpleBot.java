@@ -0,0 +1,144 @@
+// Em SimpleBot.java
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Bot simples para a arena: para cada peça testa todas as rotações e colunas,
+ * avalia o tabuleiro resultante (altura, buracos, "degraus", linhas feitas)
+ * e joga na melhor com hard drop.
+ *
+ * Joga só com PlayerAction (girar, andar, soltar), como um jogador; é
+ * determinístico, então a mesma semente dá a mesma partida.
+ * Cada bot é de uma engine e só é chamado pela thread que avança essa engine.
+ */
+public class SimpleBot implements PlayerController {
+
+    // Pesos do avaliador (heurística clássica de 4 termos)
+    private static final double HEIGHT_WEIGHT = -0.51;
+    private static final double LINES_WEIGHT = 0.76;
+    private static final double HOLES_WEIGHT = -0.36;
+    private static final double BUMPINESS_WEIGHT = -0.18;
+
+    private final int ticksPerPiece; // "Tempo de reação": ticks parado antes de jogar cada peça
+    private int waited = 0;
+
+    // Rascunho reaproveitado entre as jogadas (sem alocação por peça)
+    private final boolean[][] filled = new boolean[Board.HEIGHT][Board.WIDTH];
+    private final boolean[][] trial = new boolean[Board.HEIGHT][Board.WIDTH];
+    private final int[] heights = new int[Board.WIDTH];
+
+    public SimpleBot(int ticksPerPiece) {
+        this.ticksPerPiece = Math.max(1, ticksPerPiece);
+    }
+
+    /** Chamado uma vez por tick, antes do tick() da engine. */
+    @Override
+    public void act(GameEngine engine) {
+        act(engine, null);
+    }
+
+    /**
+     * Igual, mas as jogadas passam por 'input' (ex.: NetSession.localInput,
+     * que aplica na engine e também transmite). null = direto na engine.
+     */
+    public void act(GameEngine engine, Consumer<PlayerAction> input) {
+        if (engine.isGameOver() || engine.isPaused() || engine.isAnimatingLineClear()) return;
+        Tetromino piece = engine.getCurrentPiece();
+        if (piece == null) return;
+        if (++waited < ticksPerPiece) return;
+        waited = 0;
+
+        Tetromino[][] grid = engine.getBoard().getGrid();
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) filled[y][x] = grid[y][x] != null;
+        }
+
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestRotation = 0, bestX = engine.getCurrentPieceX();
+        for (int rotation = 0; rotation < piece.getNumRotations(); rotation++) {
+            int[][] shape = piece.getShape(rotation);
+            for (int x = -3; x < Board.WIDTH; x++) {
+                int y = dropY(shape, x);
+                if (y < 0) continue;
+                double score = evaluate(shape, x, y);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestRotation = rotation;
+                    bestX = x;
+                }
+            }
+        }
+
+        // Executa como um jogador: gira, anda e solta
+        int turns = (bestRotation - engine.getCurrentRotation() + piece.getNumRotations()) % piece.getNumRotations();
+        for (int i = 0; i < turns; i++) play(engine, input, PlayerAction.ROTATE);
+        while (engine.getCurrentPieceX() < bestX) {
+            int before = engine.getCurrentPieceX();
+            play(engine, input, PlayerAction.RIGHT);
+            if (engine.getCurrentPieceX() == before) break;
+        }
+        while (engine.getCurrentPieceX() > bestX) {
+            int before = engine.getCurrentPieceX();
+            play(engine, input, PlayerAction.LEFT);
+            if (engine.getCurrentPieceX() == before) break;
+        }
+        play(engine, input, PlayerAction.HARD_DROP);
+    }
+
+    private static void play(GameEngine engine, Consumer<PlayerAction> input, PlayerAction action) {
+        if (input != null) input.accept(action);
+        else action.applyTo(engine);
+    }
+
+    // Onde a peça para se cair do topo na coluna x; -1 se nem cabe no topo
+    private int dropY(int[][] shape, int x) {
+        if (!fits(shape, x, 0)) return -1;
+        int y = 0;
+        while (fits(shape, x, y + 1)) y++;
+        return y;
+    }
+
+    private boolean fits(int[][] shape, int posX, int posY) {
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] == 0) continue;
+                int bx = posX + x, by = posY + y;
+                if (bx < 0 || bx >= Board.WIDTH || by < 0 || by >= Board.HEIGHT || filled[by][bx]) return false;
+            }
+        }
+        return true;
+    }
+
+    private double evaluate(int[][] shape, int posX, int posY) {
+        for (int y = 0; y < Board.HEIGHT; y++) System.arraycopy(filled[y], 0, trial[y], 0, Board.WIDTH);
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] != 0) trial[posY + y][posX + x] = true;
+            }
+        }
+
+        // Linhas completas contam e saem do cálculo de altura/buracos
+        int lines = 0;
+        for (int y = Board.HEIGHT - 1; y >= 0; y--) {
+            boolean full = true;
+            for (int x = 0; x < Board.WIDTH && full; x++) full = trial[y][x];
+            if (!full) continue;
+            lines++;
+            for (int row = y; row > 0; row--) System.arraycopy(trial[row - 1], 0, trial[row], 0, Board.WIDTH);
+            Arrays.fill(trial[0], false);
+            y++; // A linha que desceu para y precisa ser testada de novo
+        }
+
+        int holes = 0, aggregateHeight = 0, bumpiness = 0;
+        for (int x = 0; x < Board.WIDTH; x++) {
+            int top = 0;
+            while (top < Board.HEIGHT && !trial[top][x]) top++;
+            heights[x] = Board.HEIGHT - top;
+            aggregateHeight += heights[x];
+            for (int y = top + 1; y < Board.HEIGHT; y++) if (!trial[y][x]) holes++;
+            if (x > 0) bumpiness += Math.abs(heights[x] - heights[x - 1]);
+        }
+        return HEIGHT_WEIGHT * aggregateHeight + LINES_WEIGHT * lines
+                + HOLES_WEIGHT * holes + BUMPINESS_WEIGHT * bumpiness;
+    }
+}
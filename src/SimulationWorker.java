@@ -0,0 +1,119 @@
+// Em SimulationWorker.java
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Uma thread do pool fixo de simulação do MatchServer. Cada worker é dono
+ * de um pedaço das partidas e as avança todas juntas, em passo fixo de 60
+ * ticks/s (mesmo acumulador de tempo do GameScheduler). Nenhuma partida é
+ * tocada por duas threads: não há lock no caminho do tick.
+ *
+ * Se um tick atrasar, o worker recupera até MAX_CATCH_UP_TICKS de uma vez;
+ * o que passar disso é descartado (contado em droppedTicks), para um pico
+ * de carga não virar uma espiral de atraso.
+ */
+public class SimulationWorker implements Runnable {
+
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final int id;
+    private final MatchServer server;
+    private final ConcurrentLinkedQueue<ServerMatch> incoming = new ConcurrentLinkedQueue<>();
+    private final ArrayList<ServerMatch> matches = new ArrayList<>(); // Só a thread do worker
+    private final AtomicInteger load = new AtomicInteger();          // Partidas + as que estão chegando
+    private final ByteBuffer payload = ByteBuffer.allocate(NetProtocol.MAX_SERVER_FRAME);
+    private final ByteBuffer frame = ByteBuffer.allocate(NetProtocol.MAX_SERVER_FRAME + 4);
+    private volatile boolean running = true;
+    private Thread thread;
+
+    // Estatísticas (lidas pela thread de rede)
+    private volatile long ticks;
+    private volatile long lateTicks;    // Ticks feitos atrasados (recuperação)
+    private volatile long droppedTicks; // Ticks pulados (atraso além do limite)
+    private volatile long busyNanos;
+
+    SimulationWorker(int id, MatchServer server) {
+        this.id = id;
+        this.server = server;
+    }
+
+    void start() {
+        thread = new Thread(this, "match-worker-" + id);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /** Qualquer thread: a partida começa no próximo tick deste worker. */
+    void submit(ServerMatch match) {
+        load.incrementAndGet();
+        incoming.offer(match);
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            long behind = (now - next) / GameScheduler.TICK_NANOS;
+            if (behind > MAX_CATCH_UP_TICKS) {
+                droppedTicks += behind - MAX_CATCH_UP_TICKS;
+                next += (behind - MAX_CATCH_UP_TICKS) * GameScheduler.TICK_NANOS;
+            }
+            if (behind > 0) lateTicks++;
+
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                System.err.println("Erro no worker " + id + ": " + e);
+                e.printStackTrace();
+            }
+            busyNanos += System.nanoTime() - now;
+            next += GameScheduler.TICK_NANOS;
+        }
+    }
+
+    private void tick() {
+        ServerMatch match;
+        while ((match = incoming.poll()) != null) {
+            match.start(payload, frame);
+            matches.add(match);
+        }
+
+        for (int i = 0; i < matches.size(); ) {
+            match = matches.get(i);
+            match.step(payload, frame);
+            if (match.isFinished()) {
+                // Troca com a última: remoção O(1)
+                int last = matches.size() - 1;
+                matches.set(i, matches.get(last));
+                matches.remove(last);
+                load.decrementAndGet();
+                server.matchFinished(match);
+            } else {
+                i++;
+            }
+        }
+        ticks++;
+        server.wakeUpIfFlushPending(); // Um wakeup do selector por tick, não por mensagem
+    }
+
+    // --- Consultas ---
+
+    public int getLoad() { return load.get(); }
+    public long getTicks() { return ticks; }
+    public long getLateTicks() { return lateTicks; }
+    public long getDroppedTicks() { return droppedTicks; }
+    public long getBusyNanos() { return busyNanos; }
+}
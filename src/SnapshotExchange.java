@@ -0,0 +1,51 @@
+// Em SnapshotExchange.java
+
+/**
+ * Entrega de snapshots de uma thread que simula para a EDT, sem a EDT tocar
+ * em nenhuma engine (ArenaRunner -> SpectatorPanel).
+ *
+ * Três conjuntos de BoardSnapshot que só trocam de dono: quem escreve
+ * preenche getWriteBuffer() e chama publish(); quem desenha pega latest()
+ * e usa até a próxima chamada. A troca é só de referências, sob um lock
+ * curto; nada é copiado nem alocado por frame.
+ */
+public class SnapshotExchange {
+
+    private BoardSnapshot[] write, middle, read;
+    private boolean fresh = false;
+
+    public SnapshotExchange(int boards) {
+        write = newBuffer(boards);
+        middle = newBuffer(boards);
+        read = newBuffer(boards);
+    }
+
+    private static BoardSnapshot[] newBuffer(int boards) {
+        BoardSnapshot[] buffer = new BoardSnapshot[boards];
+        for (int i = 0; i < boards; i++) buffer[i] = new BoardSnapshot();
+        return buffer;
+    }
+
+    public int getBoardCount() { return read.length; }
+
+    /** Só a thread que escreve, entre publish()es. */
+    public BoardSnapshot[] getWriteBuffer() { return write; }
+
+    public synchronized void publish() {
+        BoardSnapshot[] t = middle;
+        middle = write;
+        write = t;
+        fresh = true;
+    }
+
+    /** O último conjunto publicado (ou o mesmo da chamada anterior, se não veio nada novo). */
+    public synchronized BoardSnapshot[] latest() {
+        if (fresh) {
+            BoardSnapshot[] t = read;
+            read = middle;
+            middle = t;
+            fresh = false;
+        }
+        return read;
+    }
+}
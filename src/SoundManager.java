@@ -1,15 +1,90 @@
 // Em SoundManager.java
-import javax.sound.sampled.*;
+import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Fachada de áudio do jogo. Nenhum método público espera pelo áudio: cada
+ * chamada vira um comando em uma fila limitada (offer, nunca bloqueia) que é
+ * consumida pela thread "tetris-audio-worker". Se a fila estiver cheia o
+ * comando é descartado e contado. Disparos repetidos do mesmo efeito em
+ * menos de COALESCE_WINDOW_NANOS viram um só.
+ */
 public class SoundManager {
 
-    private Clip backgroundMusic;
-    private FloatControl gainControl;
-    private float lastVolume = 0.8f;
-    private boolean isMuted = false;
-    private boolean isMusicPlaying = false; // <-- ADICIONADO
+    // Todo o áudio (música + efeitos) passa por um único mixer de software
+    private final AudioMixer mixer = new AudioMixer();
+    private static final int MUSIC_CROSSFADE_MS = 1500;
+    private volatile float lastVolume = 0.8f;
+    private volatile boolean isMuted = false;
+    private volatile boolean isMusicPlaying = false; // <-- ADICIONADO
+
+    // --- FILA DE COMANDOS (não bloqueante) ---
+    private static final int QUEUE_CAPACITY = 128;
+    private static final long COALESCE_WINDOW_NANOS = 15_000_000L; // 15 ms
+    private final BlockingQueue<AudioCommand> commands = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread audioWorker;
+
+    // Contadores expostos para diagnóstico
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    // --- CACHE DE EFEITOS SONOROS ---
+    // Cada efeito é decodificado UMA vez para PCM em memória; tocar é só apontar uma voz do mixer para ele.
+    private static final String[] SFX_FILES = {
+            "res/move.wav", "res/rotate.wav", "res/lock.wav", "res/clear.wav", "res/gameover.wav"
+    };
+    private final Map<String, SfxEntry> sfxCache = new ConcurrentHashMap<>();
+
+    private static class SfxEntry {
+        final AudioMixer.Sample sample;
+        volatile long lastTriggerNanos; // para juntar disparos duplicados (e medir a latência)
+        // Comandos prontos: disparar um efeito do cache não aloca nada
+        final AudioCommand play;
+        final AudioCommand playLoop;
+
+        SfxEntry(String path, AudioMixer.Sample sample) {
+            this.sample = sample;
+            this.play = new AudioCommand(CommandType.PLAY_SOUND, path, false, this);
+            this.playLoop = new AudioCommand(CommandType.PLAY_SOUND, path, true, this);
+        }
+    }
+
+    private enum CommandType { PLAY_SOUND, PLAY_MUSIC, STOP_MUSIC, APPLY_VOLUME, SHUTDOWN }
+
+    private static class AudioCommand {
+        final CommandType type;
+        final String target;
+        final boolean flag;
+        final SfxEntry entry; // Comando pronto de um efeito: o instante do disparo fica na entrada
+        final long enqueuedNanos;
+
+        AudioCommand(CommandType type, String target, boolean flag) {
+            this(type, target, flag, null);
+        }
+
+        AudioCommand(CommandType type, String target, boolean flag, SfxEntry entry) {
+            this.type = type;
+            this.target = target;
+            this.flag = flag;
+            this.entry = entry;
+            this.enqueuedNanos = (entry == null) ? System.nanoTime() : 0;
+        }
+
+        long enqueuedNanos() {
+            return (entry != null) ? entry.lastTriggerNanos : enqueuedNanos;
+        }
+    }
 
     private final String[] musicTracks = {
             "A little Piece of Heavens.wav",
@@ -19,6 +94,16 @@ public class SoundManager {
             "Little Dark Age - MGMT.wav"
     };
 
+    public SoundManager() {
+        mixer.start();
+        for (String path : SFX_FILES) {
+            preloadSound(path);
+        }
+        audioWorker = new Thread(this::workerLoop, "tetris-audio-worker");
+        audioWorker.setDaemon(true);
+        audioWorker.start();
+    }
+
     // --- MÚSICA DE FUNDO ---
 
     // NOVO MÉTODO: Inicia a música padrão se não estiver tocando
@@ -31,48 +116,23 @@ public class SoundManager {
         }
     }
 
+    // A faixa é lida do disco aos poucos; trocar de faixa faz crossfade com a anterior
     public void playMusic(String trackName) {
-        stopMusic(); // Para qualquer música que esteja tocando
-
-        try {
-            File soundFile = new File("res/" + trackName);
-            if (!soundFile.exists()) {
-                System.err.println("Arquivo de música não encontrado: " + trackName);
-                return;
-            }
-
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundFile);
-            backgroundMusic = AudioSystem.getClip();
-            backgroundMusic.open(audioIn);
-
-            gainControl = (FloatControl) backgroundMusic.getControl(FloatControl.Type.MASTER_GAIN);
-
-            if (isMuted) {
-                setClipVolume(0.0f);
-            } else {
-                setClipVolume(lastVolume);
-            }
-
-            backgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
-            isMusicPlaying = true; // <-- ADICIONADO
-
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            System.err.println("Erro ao tocar a música: " + e.getMessage());
-        }
+        boolean crossfade = isMusicPlaying;
+        isMusicPlaying = true; // <-- ADICIONADO
+        submit(new AudioCommand(CommandType.PLAY_MUSIC, trackName, crossfade));
     }
 
     public void stopMusic() {
-        if (backgroundMusic != null && backgroundMusic.isRunning()) {
-            backgroundMusic.stop();
-        }
         isMusicPlaying = false; // <-- ADICIONADO
+        submit(new AudioCommand(CommandType.STOP_MUSIC, null, false));
     }
 
     public String[] getTrackList() {
         return musicTracks;
     }
 
-    // --- (O resto da classe: Controle de Volume e Efeitos Sonoros, permanece o mesmo) ---
+    // --- Controle de Volume ---
 
     public void setVolume(float volume) {
         if (volume < 0.0f) volume = 0.0f;
@@ -83,21 +143,8 @@ public class SoundManager {
         }
         this.isMuted = (volume == 0.0f);
 
-        setClipVolume(volume);
-    }
-
-    private void setClipVolume(float volume) {
-        if (gainControl == null) return;
-
-        float min = gainControl.getMinimum();
-        float max = gainControl.getMaximum();
-        float gain = (max - min) * volume + min;
-
-        if (volume == 0.0f) {
-            gain = min;
-        }
-
-        gainControl.setValue(gain);
+        // A thread de áudio lê o volume mais recente ao executar o comando
+        submit(new AudioCommand(CommandType.APPLY_VOLUME, null, false));
     }
 
     public boolean toggleMute() {
@@ -113,26 +160,137 @@ public class SoundManager {
         return isMuted ? 0.0f : lastVolume;
     }
 
+    public AudioMixer getMixer() { return mixer; }
+
+    // --- Efeitos Sonoros ---
+
     public void playSound(String filePath, boolean loop) {
         if (isMuted) return;
 
-        try {
-            File soundFile = new File(filePath);
-            if (!soundFile.exists()) {
-                System.err.println("Arquivo de som não encontrado: " + filePath);
+        SfxEntry entry = sfxCache.get(filePath);
+        if (entry != null) {
+            long now = System.nanoTime();
+            if (!loop && now - entry.lastTriggerNanos < COALESCE_WINDOW_NANOS) {
+                coalescedCount.increment(); // Mesmo efeito no mesmo instante: toca uma vez só
+                return;
+            }
+            entry.lastTriggerNanos = now;
+            submit(loop ? entry.playLoop : entry.play);
+            return;
+        }
+        // Efeito fora do cache: a thread de áudio carrega e passa a usar o cache
+        submit(new AudioCommand(CommandType.PLAY_SOUND, filePath, loop));
+    }
+
+    private void submit(AudioCommand command) {
+        submittedCount.increment();
+        if (!commands.offer(command)) {
+            droppedCount.increment();
+        }
+    }
+
+    // --- Thread de áudio (consome a fila) ---
+
+    private void workerLoop() {
+        while (true) {
+            AudioCommand command;
+            try {
+                command = commands.take();
+            } catch (InterruptedException e) {
                 return;
             }
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundFile);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-
-            if (loop) {
-                clip.loop(Clip.LOOP_CONTINUOUSLY);
-            } else {
-                clip.start();
+            long latency = System.nanoTime() - command.enqueuedNanos();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            executedCount.increment();
+
+            if (command.type == CommandType.SHUTDOWN) return;
+            try {
+                execute(command);
+            } catch (RuntimeException e) {
+                System.err.println("Erro no comando de áudio " + command.type + ": " + e.getMessage());
             }
-        } catch (Exception e) {
-            System.err.println("Erro ao tocar o som: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private void execute(AudioCommand command) {
+        switch (command.type) {
+            case PLAY_SOUND: {
+                SfxEntry entry = (command.entry != null) ? command.entry : sfxCache.get(command.target);
+                AudioMixer.Sample sample = (entry != null) ? entry.sample : preloadSound(command.target);
+                if (sample != null) mixer.playEffect(sample, command.flag);
+                break;
+            }
+            case PLAY_MUSIC: {
+                File soundFile = new File("res/" + command.target);
+                if (!soundFile.exists()) {
+                    System.err.println("Arquivo de música não encontrado: " + command.target);
+                    mixer.stopMusic(0);
+                    isMusicPlaying = false;
+                    break;
+                }
+                if (!mixer.isRunning()) break; // Sem dispositivo de áudio: nem abre o arquivo
+                MusicStream stream = new MusicStream(soundFile);
+                stream.start();
+                mixer.playMusic(stream, command.flag ? MUSIC_CROSSFADE_MS : 0);
+                break;
+            }
+            case STOP_MUSIC:
+                mixer.stopMusic(MUSIC_CROSSFADE_MS / 3);
+                break;
+            case APPLY_VOLUME: {
+                // O volume controla a música; o mudo silencia tudo
+                boolean muted = isMuted;
+                mixer.setMusicGain(muted ? 0.0f : lastVolume);
+                mixer.setMasterGain(muted ? 0.0f : 1.0f);
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    // --- Estatísticas da fila ---
+    public long getSubmittedCommands() { return submittedCount.sum(); }
+    public long getDroppedCommands() { return droppedCount.sum(); }
+    public long getCoalescedCommands() { return coalescedCount.sum(); }
+    public int getPendingCommands() { return commands.size(); }
+
+    public double getAverageLatencyMicros() {
+        long executed = executedCount.sum();
+        return (executed == 0) ? 0.0 : totalLatencyNanos.sum() / 1000.0 / executed;
+    }
+
+    public double getMaxLatencyMicros() { return maxLatencyNanos.get() / 1000.0; }
+
+    // Decodifica o WAV para memória (no início, ou na thread de áudio para efeitos fora da lista)
+    private AudioMixer.Sample preloadSound(String filePath) {
+        File soundFile = new File(filePath);
+        if (!soundFile.exists()) {
+            System.err.println("Arquivo de som não encontrado: " + filePath);
+            return null;
+        }
+        try {
+            AudioMixer.Sample sample = AudioMixer.loadSample(soundFile);
+            sfxCache.put(filePath, new SfxEntry(filePath, sample));
+            return sample;
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            System.err.println("Erro ao carregar o som " + filePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Libera a linha de áudio
+    public void close() {
+        commands.clear();
+        commands.offer(new AudioCommand(CommandType.SHUTDOWN, null, false));
+        try {
+            audioWorker.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        mixer.shutdown();
+        sfxCache.clear();
+        isMusicPlaying = false;
+    }
+}
@@ -0,0 +1,191 @@
+// Em SpectatorPanel.java
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Painel de espectador: desenha MUITOS tabuleiros (16-64 engines de bots) em um
+ * único componente, em vez de um par GamePanel + ScorePanel por engine.
+ *
+ * - Um único Timer (~60 FPS) pede UM repaint. As snapshots vêm das engines,
+ *   quando elas andam na EDT (batalha), ou de um SnapshotExchange, quando
+ *   andam em outras threads (arena do ArenaRunner): o paint nunca lê uma
+ *   engine que outra thread está mexendo.
+ * - Com blocos grandes, cada tabuleiro usa o desenho completo do BoardRenderer.
+ * - Com blocos pequenos (LOD), tudo vira cor chapada, sem fantasma e sem grade,
+ *   desenhado em lote por cor para todos os tabuleiros de uma vez.
+ * - Na batalha (N jogadores) o tabuleiro do jogador local pode ficar em
+ *   destaque, grande à esquerda, e os outros na grade ao lado.
+ */
+public class SpectatorPanel extends JPanel {
+
+    private static final int FRAME_DELAY = 1000 / 60;
+    private static final int GAP = 6;
+    private static final int LABEL_HEIGHT = 14;
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 11);
+
+    private final BoardRenderer renderer;
+    private final Timer frameTimer;
+
+    private List<GameEngine> engines = new ArrayList<>();
+    private SnapshotExchange feed; // Em vez das engines: snapshots prontos de outra thread
+    private String[] labels; // null = "#1", "#2"...
+    private boolean focusLast = false; // O último da lista é o tabuleiro em destaque
+    private BoardSnapshot[] snapshots = new BoardSnapshot[0];
+    private int[] originX = new int[0];
+    private int[] originY = new int[0];
+
+    // Medição de FPS (mostrada no canto para conferir a meta de 60 FPS)
+    private boolean showFps = true;
+    private int framesThisSecond = 0;
+    private long fpsWindowStart = System.nanoTime();
+    private int measuredFps = 0;
+
+    public SpectatorPanel(ThemeManager themeManager) {
+        this.renderer = new BoardRenderer(themeManager);
+        setBackground(Color.BLACK);
+        setPreferredSize(new Dimension(1100, 700));
+        setDoubleBuffered(true);
+        frameTimer = new Timer(FRAME_DELAY, e -> repaint());
+        frameTimer.setCoalesce(true);
+    }
+
+    public void setEngines(List<GameEngine> engines) {
+        setEngines(engines, null, null);
+    }
+
+    /** Com nomes para os rótulos e, opcionalmente, uma engine em destaque (ou null). */
+    public void setEngines(List<GameEngine> engines, List<String> names, GameEngine focus) {
+        this.engines = new ArrayList<>(engines);
+        this.labels = (names != null) ? names.toArray(new String[0]) : null;
+        int focusIndex = this.engines.indexOf(focus);
+        focusLast = focusIndex >= 0 && this.engines.size() > 1;
+        if (focusLast) {
+            // Vai para o fim: a grade (e o desenho em lote) usa só os primeiros count-1
+            this.engines.add(this.engines.remove(focusIndex));
+            if (labels != null) {
+                List<String> reordered = new ArrayList<>(names);
+                reordered.add(reordered.remove(focusIndex));
+                labels = reordered.toArray(new String[0]);
+            }
+        }
+        int n = this.engines.size();
+        snapshots = new BoardSnapshot[n];
+        for (int i = 0; i < n; i++) snapshots[i] = new BoardSnapshot();
+        originX = new int[n];
+        originY = new int[n];
+        repaint();
+    }
+
+    /** Tabuleiros simulados fora da EDT: desenha o que 'feed' publicar por último. */
+    public void setFeed(SnapshotExchange feed, List<String> names) {
+        this.feed = feed;
+        this.engines = new ArrayList<>();
+        this.labels = (names != null) ? names.toArray(new String[0]) : null;
+        focusLast = false;
+        int n = feed.getBoardCount();
+        originX = new int[n];
+        originY = new int[n];
+        repaint();
+    }
+
+    public void start() { frameTimer.start(); }
+    public void stop() { frameTimer.stop(); }
+    public void setShowFps(boolean showFps) { this.showFps = showFps; }
+    public int getMeasuredFps() { return measuredFps; }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int count;
+        if (feed != null) {
+            // 1. Snapshots já prontos (a outra thread não mexe neste conjunto até o próximo latest())
+            snapshots = feed.latest();
+            count = snapshots.length;
+        } else {
+            // 1. Snapshot de todas as engines ANTES de desenhar qualquer coisa
+            count = engines.size();
+            for (int i = 0; i < count; i++) {
+                engines.get(i).snapshotInto(snapshots[i]);
+            }
+        }
+        if (count == 0) return;
+
+        // 2. Destaque (se houver): ocupa a altura toda, até metade da largura
+        int gridCount = count, gridX = 0;
+        if (focusLast) {
+            gridCount = count - 1;
+            int focusTile = Math.max(1, Math.min((getHeight() - 2 * GAP - LABEL_HEIGHT) / Board.HEIGHT,
+                    (getWidth() / 2 - 2 * GAP) / Board.WIDTH));
+            originX[gridCount] = GAP;
+            originY[gridCount] = GAP + LABEL_HEIGHT;
+            renderer.renderDetailed(g, snapshots[gridCount], GAP, GAP + LABEL_HEIGHT, focusTile,
+                    Board.WIDTH * focusTile, Board.HEIGHT * focusTile);
+            gridX = GAP + Board.WIDTH * focusTile;
+        }
+        int gridWidth = getWidth() - gridX;
+
+        // 3. Layout em grade: escolhe o número de colunas que maximiza o bloco
+        int bestTile = 1, bestCols = 1;
+        for (int cols = 1; cols <= gridCount; cols++) {
+            int rows = (gridCount + cols - 1) / cols;
+            int cellW = (gridWidth - GAP * (cols + 1)) / cols;
+            int cellH = (getHeight() - GAP * (rows + 1)) / rows - LABEL_HEIGHT;
+            int tile = Math.min(cellW / Board.WIDTH, cellH / Board.HEIGHT);
+            if (tile > bestTile) { bestTile = tile; bestCols = cols; }
+        }
+        int tile = Math.max(1, bestTile);
+        int boardW = Board.WIDTH * tile;
+        int boardH = Board.HEIGHT * tile;
+        boolean drawLabels = tile >= 4;
+
+        for (int i = 0; i < gridCount; i++) {
+            int col = i % bestCols;
+            int row = i / bestCols;
+            originX[i] = gridX + GAP + col * (boardW + GAP);
+            originY[i] = GAP + row * (boardH + GAP + LABEL_HEIGHT) + (drawLabels ? LABEL_HEIGHT : 0);
+        }
+
+        // 4. Desenho: detalhado por tabuleiro ou em lote (LOD)
+        if (tile >= BoardRenderer.MIN_DETAILED_TILE) {
+            for (int i = 0; i < gridCount; i++) {
+                renderer.renderDetailed(g, snapshots[i], originX[i], originY[i], tile, boardW, boardH);
+            }
+        } else {
+            g.setColor(new Color(20, 20, 20));
+            for (int i = 0; i < gridCount; i++) {
+                g.fillRect(originX[i], originY[i], boardW, boardH);
+            }
+            renderer.renderFlatBatch(g, snapshots, gridCount, originX, originY, tile);
+        }
+
+        // 5. Rótulos (nome ou número do tabuleiro e pontos) em uma única troca de fonte/cor
+        g.setFont(LABEL_FONT);
+        g.setColor(Color.LIGHT_GRAY);
+        for (int i = 0; i < count; i++) {
+            if (i < gridCount && !drawLabels) continue; // Pequeno demais: só o destaque tem rótulo
+            String name = (labels != null) ? labels[i] : "#" + (i + 1);
+            g.drawString(name + "  " + snapshots[i].score, originX[i], originY[i] - 3);
+        }
+
+        if (showFps) drawFps(g);
+    }
+
+    private void drawFps(Graphics g) {
+        framesThisSecond++;
+        long now = System.nanoTime();
+        if (now - fpsWindowStart >= 1_000_000_000L) {
+            measuredFps = framesThisSecond;
+            framesThisSecond = 0;
+            fpsWindowStart = now;
+        }
+        g.setFont(LABEL_FONT);
+        g.setColor(Color.GREEN);
+        g.drawString(measuredFps + " FPS", getWidth() - 50, getHeight() - 5);
+    }
+}
@@ -0,0 +1,48 @@
+// Em TargetingStrategy.java
+
+/**
+ * Para quem vai o lixo de um jogador no modo N jogadores. Todas custam O(1)
+ * por ataque: o que depende de todos os jogadores (KO) é calculado uma vez
+ * por tick pela BattleMatch, então o custo do tick cresce linearmente.
+ */
+public enum TargetingStrategy {
+
+    /** Um adversário vivo qualquer. */
+    RANDOM("Aleatório") {
+        @Override
+        BattleMatch.Slot chooseTarget(BattleMatch match, BattleMatch.Slot attacker) {
+            return match.randomOpponent(attacker);
+        }
+    },
+
+    /** Devolve em quem atacou por último (se ainda estiver vivo); senão, aleatório. */
+    ATTACKERS("Atacantes") {
+        @Override
+        BattleMatch.Slot chooseTarget(BattleMatch match, BattleMatch.Slot attacker) {
+            BattleMatch.Slot last = match.lastAttackerOf(attacker);
+            return (last != null) ? last : match.randomOpponent(attacker);
+        }
+    },
+
+    /** Quem está mais perto de morrer (pilha mais alta + lixo pendente): busca o KO. */
+    KO("Nocaute") {
+        @Override
+        BattleMatch.Slot chooseTarget(BattleMatch match, BattleMatch.Slot attacker) {
+            return match.mostEndangeredOpponent(attacker);
+        }
+    };
+
+    private final String label;
+
+    TargetingStrategy(String label) {
+        this.label = label;
+    }
+
+    /** null = não há adversário vivo. */
+    abstract BattleMatch.Slot chooseTarget(BattleMatch match, BattleMatch.Slot attacker);
+
+    @Override
+    public String toString() {
+        return label; // Aparece no diálogo do menu
+    }
+}
@@ -13,6 +13,8 @@ public class Tetris extends JFrame {
     private GamePanel p2GamePanel; // Referência para atualização de cores
     private ScorePanel p1ScorePanel; // Referência para atualização de cores
     private ScorePanel p2ScorePanel; // Referência para atualização de cores
+    private SpectatorPanel spectatorPanel; // Batalha de N jogadores (a arena tem a própria janela)
+    private JPanel gameView; // Tudo da partida atual (tabuleiros + placares)
 
     public Tetris() {
         setTitle("Tetris Java - OOP Project");
@@ -43,10 +45,13 @@ public class Tetris extends JFrame {
             }
         });
         setFocusable(true);
+
+        // Partida 1P interrompida por crash? Oferece retomar (depois da janela aparecer)
+        SwingUtilities.invokeLater(gameManager::offerAutosaveResume);
     }
 
     public void showMenu() {
-        setSize(600, 700); // Tamanho do menu
+        setSize(600, 760); // Tamanho do menu
         cardLayout.show(mainPanel, "MENU");
         setLocationRelativeTo(null);
 
@@ -55,10 +60,43 @@ public class Tetris extends JFrame {
         p2GamePanel = null;
         p1ScorePanel = null;
         p2ScorePanel = null;
+        if (gameView != null) {
+            mainPanel.remove(gameView);
+            gameView = null;
+        }
+        if (spectatorPanel != null) {
+            spectatorPanel.stop();
+            mainPanel.remove(spectatorPanel);
+            spectatorPanel = null;
+        }
+    }
+
+    /**
+     * Batalha de N jogadores: todos os tabuleiros em um único SpectatorPanel,
+     * com o do jogador local em destaque. Sem Timer próprio: quem pede o
+     * repaint é o GameScheduler, uma vez por frame (repaintGameView).
+     */
+    public void showBattlePanel(java.util.List<GameEngine> engines, java.util.List<String> names,
+                                GameEngine focus, ThemeManager themeManager) {
+        if (spectatorPanel != null) {
+            spectatorPanel.stop();
+            mainPanel.remove(spectatorPanel);
+        }
+        spectatorPanel = new SpectatorPanel(themeManager);
+        spectatorPanel.setShowFps(false);
+        spectatorPanel.setEngines(engines, names, focus);
+
+        mainPanel.add(spectatorPanel, "SPECTATOR");
+        cardLayout.show(mainPanel, "SPECTATOR");
+        setSize(1100, 700);
+        setLocationRelativeTo(null);
+        this.requestFocusInWindow();
     }
 
     public void showGamePanel(GameEngine p1Engine, GameEngine p2Engine, ThemeManager themeManager) {
         JPanel gameContainer = new JPanel();
+        if (gameView != null) mainPanel.remove(gameView);
+        gameView = gameContainer;
 
         // --- MODO 1 JOGADOR ---
         if (p2Engine == null) {
@@ -115,6 +153,12 @@ public class Tetris extends JFrame {
         this.requestFocusInWindow();
     }
 
+    /** Um único repaint da partida inteira por frame (chamado pelo GameScheduler). */
+    public void repaintGameView() {
+        if (gameView != null) gameView.repaint();
+        else if (spectatorPanel != null) spectatorPanel.repaint();
+    }
+
     // Método auxiliar para atualizar cores da janela principal se necessário
     public void updateThemeColors(ThemeManager tm) {
         if (p1ScorePanel != null) p1ScorePanel.updateThemeColors(tm);